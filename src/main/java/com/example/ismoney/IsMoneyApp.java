@@ -1,15 +1,58 @@
 package com.example.ismoney;
 
+import com.example.ismoney.database.ChangeNotificationListener;
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.DatabaseExecutor;
+import com.example.ismoney.database.MigrationRunner;
+import com.example.ismoney.service.BudgetAlertEngine;
+import com.example.ismoney.service.BudgetRolloverScheduler;
+import com.example.ismoney.service.BudgetSpendProjector;
+import com.example.ismoney.util.Toast;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 public class IsMoneyApp extends Application {
+    // Migrasi yang gagal meninggalkan schema setengah jadi; aplikasi tidak boleh jalan di atasnya
+    private SQLException migrationError;
+
+    @Override
+    public void init() {
+        // Jalankan migrasi schema sebelum UI tampil; migrasi juga mengisi katalog schema
+        // supaya DAO tidak perlu cek information_schema per query
+        try {
+            MigrationRunner.migrate();
+        } catch (SQLException e) {
+            System.err.println("Database migration failed: " + e.getMessage());
+            e.printStackTrace();
+            migrationError = e;
+            return;
+        }
+
+        // spent_amount budget ikut diperbarui di setiap penulisan transaksi
+        BudgetSpendProjector.register();
+        BudgetAlertEngine.getInstance().subscribe(alert -> Toast.show(alert.getMessage()));
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
+        if (migrationError != null) {
+            // init() tidak jalan di FX thread, jadi dialognya baru bisa ditampilkan di sini
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("IsMoney Application");
+            alert.setHeaderText("Migrasi database gagal, aplikasi tidak bisa dijalankan.");
+            alert.setContentText(migrationError.getMessage());
+            alert.showAndWait();
+            Platform.exit();
+            return;
+        }
+
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(IsMoneyApp.class.getResource("/com/example/ismoney/Register.fxml"));
 
@@ -26,6 +69,14 @@ public class IsMoneyApp extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        BudgetRolloverScheduler.shutdown();
+        ChangeNotificationListener.getInstance().shutdown();
+        DatabaseExecutor.shutdown();
+        DatabaseConfig.shutdown();
+    }
+
     public static void main(String[] args) {
         launch();
     }
@@ -1,8 +1,13 @@
 package com.example.ismoney.controller;
 
-import com.example.ismoney.database.DatabaseConfig;
 import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.BudgetProjection;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.service.BudgetProjectionService;
+import com.example.ismoney.service.BudgetService;
+import com.example.ismoney.util.FxAsync;
 import com.example.ismoney.util.SceneSwitcher;
+import com.example.ismoney.util.UserSession;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -17,16 +22,27 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 public class BudgetController {
 
+    // Label periode di layar -> nilai kolom period (lihat BudgetService.validateBudget)
+    private static final Map<String, String> PERIOD_LABELS = new LinkedHashMap<>();
+
+    static {
+        PERIOD_LABELS.put("Mingguan", "weekly");
+        PERIOD_LABELS.put("Bulanan", "monthly");
+        PERIOD_LABELS.put("Tahunan", "yearly");
+    }
+
     @FXML private TableView<Budget> budgetTable;
     @FXML private TableColumn<Budget, String> categoryColumn;
     @FXML private TableColumn<Budget, String> limitColumn;
@@ -34,6 +50,7 @@ public class BudgetController {
     @FXML private TableColumn<Budget, String> remainingColumn;
     @FXML private TableColumn<Budget, String> periodColumn;
     @FXML private TableColumn<Budget, String> statusColumn;
+    @FXML private TableColumn<Budget, String> projectionColumn;
     @FXML private TableColumn<Budget, Void> actionColumn;
 
     @FXML private Button addBudgetBtn;
@@ -49,6 +66,11 @@ public class BudgetController {
     private ObservableList<Budget> budgetList;
     private ObservableList<Budget> filteredBudgetList;
     private NumberFormat currencyFormat;
+    private final BudgetService budgetService = new BudgetService();
+    private final BudgetProjectionService projectionService = new BudgetProjectionService();
+    // Proyeksi per budget ID, hanya untuk budget yang periodenya sedang berjalan
+    private final Map<Integer, BudgetProjection> projections = new HashMap<>();
+    private Integer currentUserId;
 
     @FXML
     public void initialize() {
@@ -59,9 +81,13 @@ public class BudgetController {
         setupTableColumns();
         setupChart();
         setupFilters();
+
+        currentUserId = UserSession.getCurrentUserId();
+        if (currentUserId == null) {
+            showErrorAlert("Sesi login berakhir. Silakan login kembali.");
+            return;
+        }
         loadBudgetData();
-        updateSummaryCards();
-        updateChart();
     }
 
     private void setupTableColumns() {
@@ -75,7 +101,7 @@ public class BudgetController {
 
         remainingColumn.setCellValueFactory(cellData -> {
             Budget budget = cellData.getValue();
-            double remaining = budget.getRemainingAmount();
+            Money remaining = budget.getRemainingAmount();
             return new SimpleStringProperty(formatCurrency(remaining));
         });
 
@@ -100,6 +126,26 @@ public class BudgetController {
             }
         });
 
+        projectionColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(getProjectionText(projections.get(cellData.getValue().getId()))));
+
+        projectionColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    setTooltip(null);
+                    setStyle("");
+                } else {
+                    setText(item);
+                    BudgetProjection projection = projections.get(getTableView().getItems().get(getIndex()).getId());
+                    setTooltip(projection != null ? new Tooltip(getProjectionTooltip(projection)) : null);
+                    setStyle(projection != null && projection.willOverrun() ? "-fx-text-fill: red; -fx-font-weight: bold;" : "");
+                }
+            }
+        });
+
         actionColumn.setCellFactory(param -> new TableCell<>() {
             private final Button editBtn = new Button("Edit");
             private final Button deleteBtn = new Button("Hapus");
@@ -132,43 +178,42 @@ public class BudgetController {
     }
 
     private void setupFilters() {
-        filterPeriodBox.setItems(FXCollections.observableArrayList("Semua", "Harian", "Mingguan", "Bulanan", "Tahunan"));
+        ObservableList<String> periods = FXCollections.observableArrayList("Semua");
+        periods.addAll(PERIOD_LABELS.keySet());
+        filterPeriodBox.setItems(periods);
         filterPeriodBox.setValue("Semua");
 
         filterPeriodBox.setOnAction(e -> applyFilters());
         showActiveOnlyBox.setOnAction(e -> applyFilters());
     }
 
+    // Budget milik user yang login saja, diambil di background lewat BudgetService,
+    // bersama proyeksi akhir periode untuk budget yang sedang berjalan
     private void loadBudgetData() {
-        budgetList.clear();
-        String sql = "SELECT * FROM budgets ORDER BY created_at DESC";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                Budget budget = new Budget();
-                budget.setId(rs.getInt("id"));
-                budget.setCategory(rs.getString("category"));
-                budget.setLimitAmount(rs.getDouble("budget_limit"));
-                budget.setSpentAmount(rs.getDouble("spent"));
-                budget.setPeriod(rs.getString("period"));
-                budget.setActive(rs.getString("status").equalsIgnoreCase("Aktif"));
-                budgetList.add(budget);
-            }
-            applyFilters();
-        } catch (SQLException e) {
-            System.err.println("Error loading budget data: " + e.getMessage());
-            showErrorAlert("Gagal memuat data budget: " + e.getMessage());
-        }
+        Integer userId = currentUserId;
+        FxAsync.run(
+                () -> new BudgetData(budgetService.getAllBudgets(userId), projectionService.projectCurrentBudgets(userId)),
+                data -> {
+                    projections.clear();
+                    for (BudgetProjection projection : data.projections) {
+                        projections.put(projection.getBudgetId(), projection);
+                    }
+                    budgetList.setAll(data.budgets);
+                    applyFilters();
+                    updateSummaryCards();
+                    updateChart();
+                },
+                error -> {
+                    System.err.println("Error loading budget data: " + error.getMessage());
+                    showErrorAlert("Gagal memuat data budget: " + error.getMessage());
+                });
     }
 
     private void applyFilters() {
         filteredBudgetList.clear();
         for (Budget budget : budgetList) {
             boolean periodMatch = filterPeriodBox.getValue().equals("Semua") ||
-                    budget.getPeriod().equalsIgnoreCase(filterPeriodBox.getValue());
+                    budget.getPeriod().equalsIgnoreCase(PERIOD_LABELS.get(filterPeriodBox.getValue()));
             boolean activeMatch = !showActiveOnlyBox.isSelected() ||
                     budget.isActive();
             if (periodMatch && activeMatch) filteredBudgetList.add(budget);
@@ -177,25 +222,27 @@ public class BudgetController {
     }
 
     private void updateSummaryCards() {
-        double totalBudget = 0.0;
-        double totalSpent = 0.0;
+        long totalBudgetMinor = 0;
+        long totalSpentMinor = 0;
 
         for (Budget budget : filteredBudgetList) {
             if (budget.isActive()) {
-                totalBudget += budget.getLimitAmount();
-                totalSpent += budget.getSpentAmount();
+                totalBudgetMinor += budget.getLimitAmount().getMinorUnits();
+                totalSpentMinor += budget.getSpentAmount().getMinorUnits();
             }
         }
 
-        double remaining = totalBudget - totalSpent;
+        Money totalBudget = Money.ofMinor(totalBudgetMinor);
+        Money totalSpent = Money.ofMinor(totalSpentMinor);
+        Money remaining = totalBudget.minus(totalSpent);
 
         totalBudgetLabel.setText(formatCurrency(totalBudget));
         totalSpentLabel.setText(formatCurrency(totalSpent));
         remainingBudgetLabel.setText(formatCurrency(remaining));
 
-        if (remaining < 0) {
+        if (remaining.isNegative()) {
             remainingBudgetLabel.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
-        } else if (remaining < totalBudget * 0.2) {
+        } else if (remaining.percentOf(totalBudget) < 20) {
             remainingBudgetLabel.setStyle("-fx-text-fill: orange; -fx-font-weight: bold;");
         } else {
             remainingBudgetLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
@@ -205,8 +252,8 @@ public class BudgetController {
     private void updateChart() {
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
         for (Budget budget : filteredBudgetList) {
-            if (budget.isActive() && budget.getSpentAmount() > 0) {
-                pieChartData.add(new PieChart.Data(budget.getCategory(), budget.getSpentAmount()));
+            if (budget.isActive() && budget.getSpentAmount().isPositive()) {
+                pieChartData.add(new PieChart.Data(budget.getCategory(), budget.getSpentAmount().doubleValue()));
             }
         }
         budgetChart.setData(pieChartData);
@@ -233,7 +280,7 @@ public class BudgetController {
         limitField.setPromptText("Batas (tanpa Rp)");
 
         ComboBox<String> periodBox = new ComboBox<>();
-        periodBox.getItems().addAll("Harian", "Mingguan", "Bulanan", "Tahunan");
+        periodBox.getItems().addAll(PERIOD_LABELS.keySet());
         periodBox.setValue("Bulanan");
 
         grid.add(new Label("Kategori:"), 0, 0);
@@ -263,17 +310,11 @@ public class BudgetController {
             if (dialogButton == addButtonType) {
                 try {
                     String category = categoryField.getText().trim();
-                    double limit = Double.parseDouble(limitField.getText().trim());
-                    String period = periodBox.getValue();
+                    Money limit = Money.parse(limitField.getText());
+                    String period = PERIOD_LABELS.get(periodBox.getValue());
+                    LocalDate start = LocalDate.now();
 
-                    Budget newBudget = new Budget();
-                    newBudget.setCategory(category);
-                    newBudget.setLimitAmount(limit);
-                    newBudget.setSpentAmount(0.0);
-                    newBudget.setPeriod(period);
-                    newBudget.setActive(true);
-
-                    return newBudget;
+                    return new Budget(category, limit, start, periodEnd(start, period), period);
                 } catch (NumberFormatException e) {
                     showErrorAlert("Input tidak valid!");
                 }
@@ -282,31 +323,31 @@ public class BudgetController {
         });
 
         Optional<Budget> result = dialog.showAndWait();
-        result.ifPresent(budget -> {
-            if (saveBudgetToDatabase(budget)) {
-                showSuccessAlert("Budget berhasil ditambahkan!");
-                loadBudgetData();
-                updateSummaryCards();
-                updateChart();
-            } else {
-                showErrorAlert("Gagal menyimpan budget ke database.");
-            }
-        });
+        Integer userId = currentUserId;
+        result.ifPresent(budget -> FxAsync.runWrite(
+                () -> {
+                    budgetService.saveBudget(budget, userId);
+                    return budget;
+                },
+                saved -> {
+                    showSuccessAlert("Budget berhasil ditambahkan!");
+                    loadBudgetData();
+                },
+                error -> {
+                    error.printStackTrace();
+                    showErrorAlert("Gagal menyimpan budget: " + error.getMessage());
+                }));
     }
 
-    private boolean saveBudgetToDatabase(Budget budget) {
-        String sql = "INSERT INTO budgets (category, budget_limit, spent, period, status, created_at) VALUES (?, ?, ?, ?, ?, CURRENT_DATE)";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, budget.getCategory());
-            stmt.setDouble(2, budget.getLimitAmount());
-            stmt.setDouble(3, budget.getSpentAmount());
-            stmt.setString(4, budget.getPeriod());
-            stmt.setString(5, budget.isActive() ? "Aktif" : "Tidak Aktif");
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+    // Periode dimulai hari ini dan berakhir sehari sebelum periode berikutnya
+    private static LocalDate periodEnd(LocalDate start, String period) {
+        switch (period) {
+            case "weekly":
+                return start.plusWeeks(1).minusDays(1);
+            case "yearly":
+                return start.plusYears(1).minusDays(1);
+            default:
+                return start.plusMonths(1).minusDays(1);
         }
     }
 
@@ -322,6 +363,24 @@ public class BudgetController {
         return String.format("HEALTHY (%.1f%%)", pct);
     }
 
+    // Perkiraan total pada akhir periode; kalau diperkirakan lewat limit, tanggalnya ikut ditampilkan
+    private String getProjectionText(BudgetProjection projection) {
+        if (projection == null) return "-";
+        String text = formatCurrency(projection.getProjectedSpend());
+        if (projection.willOverrun()) {
+            text += " (lewat " + projection.getOverrunDate().format(DateTimeFormatter.ofPattern("dd/MM")) + ")";
+        }
+        return text;
+    }
+
+    private String getProjectionTooltip(BudgetProjection projection) {
+        return String.format("Terpakai s/d %s: %s%nLaju harian: %s%nPerkiraan akhir periode: %.1f%% dari batas",
+                projection.getAsOf().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                formatCurrency(projection.getSpentToDate()),
+                formatCurrency(projection.getProjectedDailyRate()),
+                projection.getProjectedUsagePercentage());
+    }
+
     private String getStatusStyle(Budget budget) {
         if (!budget.isActive()) return "-fx-text-fill: gray;";
         if (budget.isOverBudget()) return "-fx-text-fill: red; -fx-font-weight: bold;";
@@ -330,8 +389,8 @@ public class BudgetController {
         return "-fx-text-fill: green;";
     }
 
-    private String formatCurrency(double amount) {
-        return String.format("Rp %,.0f", amount);
+    private String formatCurrency(Money amount) {
+        return String.format("Rp %,.0f", amount.toBigDecimal());
     }
 
     private void showErrorAlert(String message) {
@@ -354,4 +413,14 @@ public class BudgetController {
     private void backTo() {
         SceneSwitcher.switchTo("Dashboard.fxml", (Stage) backButton.getScene().getWindow());
     }
+
+    private static class BudgetData {
+        private final List<Budget> budgets;
+        private final List<BudgetProjection> projections;
+
+        private BudgetData(List<Budget> budgets, List<BudgetProjection> projections) {
+            this.budgets = budgets;
+            this.projections = projections;
+        }
+    }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.example.ismoney.controller;
 
 import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.service.BudgetService;
 import com.example.ismoney.util.SceneSwitcher;
+import com.example.ismoney.util.UserSession;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -103,6 +105,12 @@ public class BudgetFormController {
             return;
         }
 
+        Integer userId = UserSession.getCurrentUserId();
+        if (userId == null) {
+            showAlert("Error", "Sesi login berakhir. Silakan login kembali.");
+            return;
+        }
+
         try {
             Budget budget;
 
@@ -110,26 +118,26 @@ public class BudgetFormController {
                 // Update existing budget
                 budget = editingBudget;
                 budget.setCategory(categoryField.getText().trim());
-                budget.setLimitAmount(Double.parseDouble(limitAmountField.getText()));
+                budget.setLimitAmount(Money.parse(limitAmountField.getText()));
                 budget.setPeriod(periodComboBox.getValue());
                 budget.setStartDate(startDatePicker.getValue());
                 budget.setEndDate(endDatePicker.getValue());
                 budget.setActive(isActiveCheckBox.isSelected());
 
-                budgetService.updateBudget(budget);
+                budgetService.updateBudget(budget, userId);
                 showAlert("Sukses", "Budget berhasil diperbarui!");
             } else {
                 // Create new budget
                 budget = new Budget(
                         categoryField.getText().trim(),
-                        Double.parseDouble(limitAmountField.getText()),
+                        Money.parse(limitAmountField.getText()),
                         startDatePicker.getValue(),
                         endDatePicker.getValue(),
                         periodComboBox.getValue()
                 );
                 budget.setActive(isActiveCheckBox.isSelected());
 
-                budgetService.saveBudget(budget);
+                budgetService.saveBudget(budget, userId);
                 showAlert("Sukses", "Budget berhasil ditambahkan!");
             }
             clearForm();
@@ -169,8 +177,8 @@ public class BudgetFormController {
             errors.append("- Batas anggaran tidak boleh kosong\n");
         } else {
             try {
-                double limit = Double.parseDouble(limitAmountField.getText());
-                if (limit <= 0) {
+                Money limit = Money.parse(limitAmountField.getText());
+                if (!limit.isPositive()) {
                     errors.append("- Batas anggaran harus lebih dari 0\n");
                 }
             } catch (NumberFormatException e) {
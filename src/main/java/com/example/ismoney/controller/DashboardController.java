@@ -1,10 +1,15 @@
 package com.example.ismoney.controller;
 
 import com.example.ismoney.dao.*;
+import com.example.ismoney.database.ChangeNotificationListener;
+import com.example.ismoney.model.DateRange;
 import com.example.ismoney.model.SavingGoal;
 import com.example.ismoney.model.Transaction;
 import com.example.ismoney.model.TransactionType;
 import com.example.ismoney.model.User;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.service.UserLedger;
+import com.example.ismoney.util.FxAsync;
 import com.example.ismoney.util.SceneSwitcher;
 import com.example.ismoney.util.UserSession;
 import javafx.animation.Animation;
@@ -20,14 +25,17 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class DashboardController {
 
@@ -59,6 +67,7 @@ public class DashboardController {
     private static final int REFRESH_INTERVAL_SECONDS = 120;
     private LocalDateTime lastRefreshTime;
     private boolean isRefreshing = false;
+    private boolean refreshPending = false;
 
     @FXML
     public void initialize() {
@@ -68,53 +77,56 @@ public class DashboardController {
             categoryDAO = new CategoryDAO();
             userDAO = new UserDAOImpl();
 
-            if (!initializeCurrentUser()) {
-                showAlert("Error", "Tidak dapat mengidentifikasi user yang sedang login. Silakan login kembali.");
-                handleLogoutButton();
-                return;
-            }
-
-            loadCategoriesCache();
             setupActivityLogTable();
             setupDatePicker();
 
-            refreshDashboard();
-            setupAutoRefresh();
-
-            System.out.println("Dashboard initialized for user: " + currentUser.getUsername() + " (ID: " + currentUserId + ")");
-
-        } catch (Exception e) {
-            showAlert("Kesalahan", "Gagal menginisialisasi dashboard: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    private boolean initializeCurrentUser() {
-        try {
             currentUserId = UserSession.getCurrentUserId();
-            if (currentUserId != null) {
-                currentUser = userDAO.getUserById(currentUserId);
-                if (currentUser != null) {
-                    System.out.println("User loaded from session: " + currentUser.getUsername());
-                    return true;
-                }
+            if (currentUserId == null) {
+                System.out.println("No valid user session found. Redirecting to login.");
+                showAlert("Error", "Tidak dapat mengidentifikasi user yang sedang login. Silakan login kembali.");
+                handleLogoutButton();
+                return;
             }
 
-            System.out.println("No valid user session found. Redirecting to login.");
-            return false;
+            Integer userId = currentUserId;
+            FxAsync.run(
+                    () -> userDAO.getUserById(userId),
+                    user -> {
+                        if (user == null) {
+                            System.out.println("No valid user session found. Redirecting to login.");
+                            showAlert("Error", "Tidak dapat mengidentifikasi user yang sedang login. Silakan login kembali.");
+                            handleLogoutButton();
+                            return;
+                        }
+                        currentUser = user;
+                        System.out.println("User loaded from session: " + currentUser.getUsername());
+
+                        refreshDashboard();
+                        setupAutoRefresh();
+
+                        System.out.println("Dashboard initialized for user: " + currentUser.getUsername() + " (ID: " + currentUserId + ")");
+                    },
+                    error -> {
+                        System.err.println("Error initializing current user: " + error.getMessage());
+                        error.printStackTrace();
+                        showAlert("Error", "Tidak dapat mengidentifikasi user yang sedang login. Silakan login kembali.");
+                        handleLogoutButton();
+                    });
 
         } catch (Exception e) {
-            System.err.println("Error initializing current user: " + e.getMessage());
+            showAlert("Kesalahan", "Gagal menginisialisasi dashboard: " + e.getMessage());
             e.printStackTrace();
-            return false;
         }
     }
 
+    // Refresh didorong oleh notifikasi database; Timeline hanya cadangan saat listener tidak tersambung
     private void setupAutoRefresh() {
+        FxAsync.onDataChange(currentUserId, Set.of("transactions", "saving_goals"), this::refreshDashboard);
+
         autoRefreshTimeline = new Timeline(
                 new KeyFrame(Duration.seconds(REFRESH_INTERVAL_SECONDS), e -> {
                     Platform.runLater(() -> {
-                        if (!isRefreshing) {
+                        if (!isRefreshing && !ChangeNotificationListener.getInstance().isConnected()) {
                             refreshDashboard();
                         }
                     });
@@ -123,40 +135,91 @@ public class DashboardController {
         autoRefreshTimeline.setCycleCount(Animation.INDEFINITE);
         autoRefreshTimeline.play();
 
-        System.out.println("Auto refresh enabled for user " + currentUserId + " - refreshing every " + REFRESH_INTERVAL_SECONDS + " seconds");
+        System.out.println("Auto refresh enabled for user " + currentUserId + " - on change notifications, polling every " +
+                REFRESH_INTERVAL_SECONDS + " seconds as fallback");
     }
 
     private void refreshDashboard() {
         if (isRefreshing) {
-            System.out.println("Dashboard refresh already in progress, skipping...");
+            // Ada perubahan baru saat refresh berjalan, ulangi setelah refresh ini selesai
+            refreshPending = true;
             return;
         }
 
-        isRefreshing = true;
+        if (currentUserId == null || !UserSession.isSessionValid()) {
+            System.out.println("Invalid session detected. Logging out...");
+            handleLogoutButton();
+            return;
+        }
 
-        try {
-            if (currentUserId == null || !UserSession.isSessionValid()) {
-                System.out.println("Invalid session detected. Logging out...");
-                handleLogoutButton();
-                return;
-            }
+        isRefreshing = true;
+        System.out.println("Refreshing dashboard data for user ID: " + currentUserId);
+
+        Integer userId = currentUserId;
+        LocalDate selectedDate = filterDatePicker.getValue() != null ? filterDatePicker.getValue() : LocalDate.now();
+
+        // Semua query jalan di background, UI hanya di-update setelah datanya siap
+        FxAsync.run(
+                () -> fetchDashboardData(userId, selectedDate),
+                data -> {
+                    try {
+                        categoryCache.clear();
+                        categoryCache.putAll(data.categories);
+                        showFinancialSummary(data);
+                        showActivityLog(data);
+
+                        lastRefreshTime = LocalDateTime.now();
+                        System.out.println("Dashboard refreshed at: " + lastRefreshTime.format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+                    } catch (Exception e) {
+                        System.err.println("Error during dashboard refresh: " + e.getMessage());
+                        e.printStackTrace();
+                    } finally {
+                        finishRefresh();
+                    }
+                },
+                error -> {
+                    System.err.println("Error during dashboard refresh: " + error.getMessage());
+                    error.printStackTrace();
+                    finishRefresh();
+                });
+    }
 
-            System.out.println("Refreshing dashboard data for user ID: " + currentUserId);
+    private void finishRefresh() {
+        isRefreshing = false;
+        if (refreshPending) {
+            refreshPending = false;
+            refreshDashboard();
+        }
+    }
 
-            loadCategoriesCache();
-            loadFinancialSummary();
-            loadActivityLog();
+    // Dijalankan di thread database
+    private DashboardData fetchDashboardData(Integer userId, LocalDate selectedDate) throws SQLException {
+        DashboardData data = new DashboardData();
 
-            lastRefreshTime = LocalDateTime.now();
+        try {
+            categoryDAO.getAllCategories().forEach(category ->
+                    data.categories.put(category.getCategoriesId(), category.getName())
+            );
+            System.out.println("Categories cache loaded: " + data.categories.size() + " categories");
+        } catch (Exception e) {
+            System.err.println("Error loading categories cache: " + e.getMessage());
+            e.printStackTrace();
+        }
 
-            System.out.println("Dashboard refreshed at: " + lastRefreshTime.format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        // Ledger dimuat sekali per sesi; refresh berikutnya hanya mengambil perubahan
+        UserLedger ledger = UserLedger.forUser(userId);
+        ledger.refresh();
+        data.monthlyTotals = ledger.getTotalsByType(DateRange.ofMonth(YearMonth.from(selectedDate)));
+        data.recentTransactions = transactionDAO.getRecentTransactionsByUserId(userId, 8);
 
+        try {
+            data.recentGoals = savingGoalDAO.getRecentUpdatedGoalsByUserId(userId, 5);
         } catch (Exception e) {
-            System.err.println("Error during dashboard refresh: " + e.getMessage());
+            System.err.println("Error loading saving goals for activity log: " + e.getMessage());
             e.printStackTrace();
-        } finally {
-            isRefreshing = false;
         }
+
+        return data;
     }
 
     private void setupDatePicker() {
@@ -235,34 +298,18 @@ public class DashboardController {
         });
     }
 
-    private void loadFinancialSummary() {
+    private void showFinancialSummary(DashboardData data) {
         try {
-            LocalDate selectedDate = filterDatePicker.getValue();
-            if (selectedDate == null) {
-                selectedDate = LocalDate.now();
-            }
-
-            List<Transaction> monthlyTransactions = transactionDAO.getTransactionsByUserIdAndMonth(
-                    currentUserId, selectedDate.getYear(), selectedDate.getMonthValue());
-
-            BigDecimal totalIncome = BigDecimal.ZERO;
-            BigDecimal totalExpense = BigDecimal.ZERO;
-
-            for (Transaction transaction : monthlyTransactions) {
-                if (transaction.getType() == TransactionType.INCOME) {
-                    totalIncome = totalIncome.add(transaction.getAmount());
-                } else if (transaction.getType() == TransactionType.OUTCOME) {
-                    totalExpense = totalExpense.add(transaction.getAmount());
-                }
-            }
+            Money totalIncome = data.monthlyTotals.getOrDefault(TransactionType.INCOME, Money.ZERO);
+            Money totalExpense = data.monthlyTotals.getOrDefault(TransactionType.OUTCOME, Money.ZERO);
 
-            BigDecimal totalBalance = totalIncome.subtract(totalExpense);
+            Money totalBalance = totalIncome.minus(totalExpense);
 
             totalIncomeField.setText("Rp " + String.format("%,.0f", totalIncome.doubleValue()));
             totalExpenseField.setText("Rp " + String.format("%,.0f", totalExpense.doubleValue()));
             totalBalanceField.setText("Rp " + String.format("%,.0f", totalBalance.doubleValue()));
 
-            if (totalBalance.compareTo(BigDecimal.ZERO) >= 0) {
+            if (!totalBalance.isNegative()) {
                 totalBalanceField.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
             } else {
                 totalBalanceField.setStyle("-fx-text-fill: red; -fx-font-weight: bold;");
@@ -274,11 +321,11 @@ public class DashboardController {
         }
     }
 
-    private void loadActivityLog() {
+    private void showActivityLog(DashboardData data) {
         try {
             ObservableList<ActivityLog> activityLogs = FXCollections.observableArrayList();
 
-            List<Transaction> recentTransactions = transactionDAO.getRecentTransactionsByUserId(currentUserId, 8);
+            List<Transaction> recentTransactions = data.recentTransactions;
             for (Transaction transaction : recentTransactions) {
                 if (!Objects.equals(transaction.getUserId(), currentUserId)) {
                     System.err.println("Warning: Skipping transaction " + transaction.getTransactionId() +
@@ -303,7 +350,7 @@ public class DashboardController {
             }
 
             try {
-                List<SavingGoal> recentGoals = savingGoalDAO.getRecentUpdatedGoalsByUserId(currentUserId, 5);
+                List<SavingGoal> recentGoals = data.recentGoals;
                 for (SavingGoal goal : recentGoals) {
                     if (!Objects.equals(goal.getUserId(), currentUserId)) {
                         System.err.println("Warning: Skipping saving goal " + goal.getGoalId() +
@@ -311,14 +358,8 @@ public class DashboardController {
                         continue;
                     }
 
-                    if (goal.getCurrentAmount().compareTo(BigDecimal.ZERO) > 0) {
-                        double progressPercentage = 0.0;
-                        if (goal.getTargetAmount().compareTo(BigDecimal.ZERO) > 0) {
-                            progressPercentage = goal.getCurrentAmount()
-                                    .divide(goal.getTargetAmount(), 4, BigDecimal.ROUND_HALF_UP)
-                                    .multiply(BigDecimal.valueOf(100))
-                                    .doubleValue();
-                        }
+                    if (goal.getCurrentAmount().isPositive()) {
+                        double progressPercentage = goal.getProgressPercentage();
 
                         String goalDescription = String.format("Goal: %s (%.1f%% dari target Rp %,.0f)",
                                 goal.getGoalName(),
@@ -374,9 +415,7 @@ public class DashboardController {
                 finalActivityLogs = activityLogs;
             }
 
-            Platform.runLater(() -> {
-                activityLogTable.setItems(finalActivityLogs);
-            });
+            activityLogTable.setItems(finalActivityLogs);
 
             System.out.println("Loaded " + finalActivityLogs.size() + " activity logs for user " + currentUserId +
                     " (Transactions: " + recentTransactions.size() + ", Goals: " +
@@ -388,19 +427,6 @@ public class DashboardController {
         }
     }
 
-    private void loadCategoriesCache() {
-        try {
-            categoryCache.clear();
-            categoryDAO.getAllCategories().forEach(category ->
-                    categoryCache.put(category.getCategoriesId(), category.getName())
-            );
-            System.out.println("Categories cache loaded: " + categoryCache.size() + " categories");
-        } catch (Exception e) {
-            System.err.println("Error loading categories cache: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     @FXML
     private void handleTransactionButton() {
         try {
@@ -474,6 +500,14 @@ public class DashboardController {
         });
     }
 
+    // Hasil query dashboard yang diambil sekaligus di background
+    private static class DashboardData {
+        private final Map<Integer, String> categories = new HashMap<>();
+        private Map<TransactionType, Money> monthlyTotals = new HashMap<>();
+        private List<Transaction> recentTransactions = new ArrayList<>();
+        private List<SavingGoal> recentGoals = new ArrayList<>();
+    }
+
     public static class ActivityLog {
         private final SimpleStringProperty date;
         private final SimpleStringProperty type;
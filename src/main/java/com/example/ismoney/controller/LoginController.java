@@ -1,8 +1,16 @@
 package com.example.ismoney.controller;
 
+import com.example.ismoney.dao.DeltaSync;
 import com.example.ismoney.dao.UserDAO;
 import com.example.ismoney.dao.UserDAOImpl;
+import com.example.ismoney.database.DatabaseExecutor;
 import com.example.ismoney.model.User;
+import com.example.ismoney.service.BudgetIndex;
+import com.example.ismoney.service.BudgetProjectionService;
+import com.example.ismoney.service.BudgetRolloverScheduler;
+import com.example.ismoney.service.BudgetSummaryCache;
+import com.example.ismoney.service.UserLedger;
+import com.example.ismoney.util.FxAsync;
 import com.example.ismoney.util.SceneSwitcher;
 import com.example.ismoney.util.UserSession;
 import javafx.application.Platform;
@@ -42,6 +50,11 @@ public class LoginController {
     @FXML
     public void initialize() {
         UserSession.clearSession();
+        UserLedger.clearAll();
+        BudgetIndex.clearAll();
+        BudgetSummaryCache.getInstance().clear();
+        BudgetProjectionService.clearCache();
+        BudgetRolloverScheduler.shutdown();
 
         System.clearProperty("current.user.id");
 
@@ -63,32 +76,31 @@ public class LoginController {
         hideMessages();
         setButtonState(false);
 
-        try {
-            String emailOrUsername = emailOrUsernameField.getText();
-            String password = passwordField.getText();
-
-            if (!validateInput(emailOrUsername, password)) {
-                return;
-            }
-
-            User authenticatedUser = userDAO.authenticateUser(emailOrUsername.trim(), password);
+        String emailOrUsername = emailOrUsernameField.getText();
+        String password = passwordField.getText();
 
-            if (authenticatedUser == null) {
-                handleFailedLogin();
-                return;
-            }
-
-            handleSuccessfulLogin(authenticatedUser);
-
-        } catch (Exception e) {
-            logger.severe("Error during login: " + e.getMessage());
-            showError("Terjadi kesalahan sistem. Silakan coba lagi.");
-            e.printStackTrace();
-        } finally {
-            if (!isLockedOut) {
-                setButtonState(true);
-            }
+        if (!validateInput(emailOrUsername, password)) {
+            return;
         }
+
+        // Autentikasi (query + BCrypt) jalan di background supaya UI tidak freeze
+        FxAsync.run(
+                () -> userDAO.authenticateUser(emailOrUsername.trim(), password),
+                authenticatedUser -> {
+                    if (authenticatedUser == null) {
+                        handleFailedLogin();
+                    } else {
+                        handleSuccessfulLogin(authenticatedUser);
+                    }
+                },
+                error -> {
+                    logger.severe("Error during login: " + error.getMessage());
+                    showError("Terjadi kesalahan sistem. Silakan coba lagi.");
+                    error.printStackTrace();
+                    if (!isLockedOut) {
+                        setButtonState(true);
+                    }
+                });
     }
 
     private boolean validateInput(String emailOrUsername, String password) {
@@ -140,11 +152,15 @@ public class LoginController {
 
     private void handleSuccessfulLogin(User authenticatedUser) {
         try {
-            userDAO.updateLastLogin(authenticatedUser.getId());
+            int userId = authenticatedUser.getId();
+            DatabaseExecutor.submit(() -> userDAO.updateLastLogin(userId));
+            DatabaseExecutor.submit(DeltaSync::purgeExpiredTombstones);
 
             UserSession.setUserSession(authenticatedUser.getId(), authenticatedUser.getUsername());
 
             System.setProperty("current.user.id", String.valueOf(authenticatedUser.getId()));
+            // Rollover budget hanya untuk user ini, bukan semua user di database
+            BudgetRolloverScheduler.start(userId);
 
             loginAttempts = 0;
             isLockedOut = false;
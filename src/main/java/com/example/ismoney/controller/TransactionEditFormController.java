@@ -5,6 +5,7 @@ import com.example.ismoney.dao.TransactionDAO;
 import com.example.ismoney.model.Category;
 import com.example.ismoney.model.Transaction;
 import com.example.ismoney.model.TransactionType;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.util.SceneSwitcher;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -319,7 +320,7 @@ public class TransactionEditFormController {
         if (!validateInput()) return;
 
         try {
-            BigDecimal amount = new BigDecimal(amountField.getText().trim());
+            Money amount = Money.parse(amountField.getText());
             String type = typeComboBox.getValue();
             Category category = categoryComboBox.getValue();
             LocalDate date = datePicker.getValue();
@@ -1,40 +1,55 @@
 package com.example.ismoney.controller;
 
 import com.example.ismoney.dao.CategoryDAO;
+import com.example.ismoney.dao.DeltaSync;
+import com.example.ismoney.dao.TransactionAggregateDAO;
 import com.example.ismoney.dao.TransactionDAO;
 import com.example.ismoney.model.Category;
+import com.example.ismoney.model.ChangeSet;
+import com.example.ismoney.model.DateRange;
 import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionPage;
 import com.example.ismoney.model.TransactionType;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.service.CsvImportMapping;
+import com.example.ismoney.service.TransactionImportService;
+import com.example.ismoney.util.FxAsync;
 import com.example.ismoney.util.SceneSwitcher;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import java.math.BigDecimal;
+import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.time.LocalDate;
+import java.time.Instant;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class TransactionListController {
 
     @FXML private TableView<Transaction> transactionTable;
     @FXML private TableColumn<Transaction, String> dateColumn;
-    @FXML private TableColumn<Transaction, BigDecimal> incomeColumn;
-    @FXML private TableColumn<Transaction, BigDecimal> expenseColumn;
+    @FXML private TableColumn<Transaction, Money> incomeColumn;
+    @FXML private TableColumn<Transaction, Money> expenseColumn;
     @FXML private TableColumn<Transaction, String> categoryColumn;
-    @FXML private TableColumn<Transaction, BigDecimal> totalColumn;
+    @FXML private TableColumn<Transaction, Money> totalColumn;
     @FXML private TableColumn<Transaction, String> noteColumn;
 
     @FXML private TextField searchField;
@@ -43,12 +58,35 @@ public class TransactionListController {
     @FXML private Button addTransactionButton;
     @FXML private Button editButton;
     @FXML private Button deleteButton;
+    @FXML private Button importButton;
     @FXML private LineChart<String, Number> lineChart;
     @FXML private Button backButton;
 
+    private static final int CHART_MONTHS = 12;
+    private static final int PAGE_SIZE = 50;
+    // Ambil halaman berikutnya saat scroll sudah melewati 90% tinggi table
+    private static final double LOAD_MORE_THRESHOLD = 0.9;
+    // Urutan halaman dari getTransactionPage: tanggal lalu ID, terbaru dulu
+    private static final Comparator<Transaction> PAGE_ORDER = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
+
     private TransactionDAO transactionDAO;
+    private TransactionAggregateDAO aggregateDAO;
     private CategoryDAO categoryDAO;
-    private ObservableList<Transaction> allTransactions;
+    private TransactionImportService importService;
+    // Halaman yang sudah dimuat, urut sesuai query; table menampilkan versi terfilter dan tersortir
+    private final ObservableList<Transaction> allTransactions = FXCollections.observableArrayList();
+    private final FilteredList<Transaction> filteredTransactions = new FilteredList<>(allTransactions);
+    private String nextCursor;
+    private boolean loadingPage = false;
+    // Naik setiap reload supaya halaman dari request lama diabaikan
+    private int pageRequest = 0;
+    // Watermark delta sync; null berarti perubahan berikutnya memuat ulang semuanya
+    private Instant syncWatermark;
+    private boolean syncing = false;
+    private boolean syncPending = false;
     private Integer currentUserId;
     private Map<Integer, Category> categoryCache = new HashMap<>();
 
@@ -59,18 +97,21 @@ public class TransactionListController {
 
         try {
             transactionDAO = new TransactionDAO();
+            aggregateDAO = new TransactionAggregateDAO();
             categoryDAO = new CategoryDAO();
+            importService = new TransactionImportService();
 
             currentUserId = getCurrentLoggedInUserId();
             System.out.println("Using user ID for transaction list: " + currentUserId);
 
             setupTableColumns();
+            setupTableItems();
             setupFilterControls();
             setupTableSelectionListener();
             setupChart();
-            loadCategoriesCache();
             loadTransactions();
-            updateChart();
+            // Sinkron hanya kalau transaksi user ini berubah (termasuk dari perangkat lain)
+            FxAsync.onDataChange(currentUserId, Set.of("transactions"), this::syncTransactions);
 
             System.out.println("TransactionListController setup completed!");
         } catch (Exception e) {
@@ -103,20 +144,6 @@ public class TransactionListController {
         }
     }
 
-    //load semua kategori
-    private void loadCategoriesCache() {
-        try {
-            List<Category> categories = categoryDAO.getAllCategories();
-            categoryCache.clear();
-            for (Category category : categories) {
-                categoryCache.put(category.getCategoriesId(), category);
-            }
-            System.out.println("Loaded " + categories.size() + " categories to cache");
-        } catch (Exception e) {
-            System.err.println("Error loading categories cache: " + e.getMessage());
-        }
-    }
-
     //convert  category ID menjadi nama kategori
     private String getCategoryNameFromCache(Integer categoryId) {
         Category category = categoryCache.get(categoryId);
@@ -198,9 +225,9 @@ public class TransactionListController {
 
     //Format mata uang (Rp) untuk kolom nominal
     private void formatCurrencyColumns() {
-        incomeColumn.setCellFactory(column -> new TableCell<Transaction, BigDecimal>() {
+        incomeColumn.setCellFactory(column -> new TableCell<Transaction, Money>() {
             @Override
-            protected void updateItem(BigDecimal amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText("");
@@ -212,9 +239,9 @@ public class TransactionListController {
             }
         });
 
-        expenseColumn.setCellFactory(column -> new TableCell<Transaction, BigDecimal>() {
+        expenseColumn.setCellFactory(column -> new TableCell<Transaction, Money>() {
             @Override
-            protected void updateItem(BigDecimal amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText("");
@@ -226,9 +253,9 @@ public class TransactionListController {
             }
         });
 
-        totalColumn.setCellFactory(column -> new TableCell<Transaction, BigDecimal>() {
+        totalColumn.setCellFactory(column -> new TableCell<Transaction, Money>() {
             @Override
-            protected void updateItem(BigDecimal amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText("");
@@ -239,6 +266,14 @@ public class TransactionListController {
         });
     }
 
+    //Table menampilkan halaman yang sudah dimuat; SortedList menjaga urutan kolom yang dipilih user
+    private void setupTableItems() {
+        SortedList<Transaction> sortedTransactions = new SortedList<>(filteredTransactions);
+        sortedTransactions.comparatorProperty().bind(transactionTable.comparatorProperty());
+        transactionTable.setItems(sortedTransactions);
+        setupLazyLoading();
+    }
+
     //setup dropdown filter (Semua, Pemasukan, Pengeluaran)
     private void setupFilterControls() {
         filterComboBox.setItems(FXCollections.observableArrayList("Semua", "Pemasukan", "Pengeluaran"));
@@ -256,40 +291,190 @@ public class TransactionListController {
         deleteButton.setDisable(true);
     }
 
-    //Load semua transaksi user dari database
+    //Load kategori, halaman pertama transaksi dan data grafik dari database (di background)
     private void loadTransactions() {
-        try {
-            System.out.println("=== DEBUG: Loading transactions ===");
-            System.out.println("Loading transactions for user ID: " + currentUserId);
-
-            List<Transaction> transactions = transactionDAO.getTransactionsByUserId(currentUserId);
-            allTransactions = FXCollections.observableArrayList(transactions);
-            transactionTable.setItems(allTransactions);
-
-            System.out.println("Loaded " + transactions.size() + " transactions");
-
-            if (transactions.isEmpty()) {
-                System.out.println("No transactions found for user ID " + currentUserId);
-                checkAllTransactions();
-            } else {
-                for (int i = 0; i < Math.min(3, transactions.size()); i++) {
-                    Transaction t = transactions.get(i);
-                    System.out.println("Transaction " + (i+1) + ": ID=" + t.getTransactionId() +
-                            ", Amount=" + t.getAmount() +
-                            ", Type=" + t.getType() +
-                            ", Category=" + t.getCategoryId() +
-                            ", Date=" + t.getTransactionDate());
-                }
-                if (transactions.size() > 3) {
-                    System.out.println("... and " + (transactions.size() - 3) + " more transactions");
-                }
+        System.out.println("=== DEBUG: Loading transactions ===");
+        System.out.println("Loading transactions for user ID: " + currentUserId);
+
+        Integer userId = currentUserId;
+        int request = ++pageRequest;
+        loadingPage = true;
+        FxAsync.run(
+                () -> {
+                    // Diambil sebelum query supaya perubahan selama load ikut sync berikutnya
+                    Instant watermark = DeltaSync.isAvailable("transactions") ? DeltaSync.currentWatermark() : null;
+                    List<Category> categories = categoryDAO.getAllCategories();
+                    TransactionPage firstPage = transactionDAO.getTransactionPage(userId, null, PAGE_SIZE);
+                    if (firstPage.getTransactions().isEmpty()) {
+                        System.out.println("No transactions found for user ID " + userId);
+                        checkAllTransactions();
+                    }
+                    Map<YearMonth, Map<TransactionType, Money>> monthlyTotals =
+                            aggregateDAO.getMonthlyTotals(userId, chartRange());
+                    return new TransactionLoadResult(categories, firstPage, monthlyTotals, watermark);
+                },
+                result -> {
+                    if (request != pageRequest) {
+                        return;
+                    }
+                    categoryCache.clear();
+                    for (Category category : result.categories) {
+                        categoryCache.put(category.getCategoriesId(), category);
+                    }
+                    System.out.println("Loaded " + result.categories.size() + " categories to cache");
+
+                    allTransactions.setAll(result.firstPage.getTransactions());
+                    nextCursor = result.firstPage.getNextCursor();
+                    syncWatermark = result.watermark;
+                    loadingPage = false;
+
+                    System.out.println("Loaded first " + allTransactions.size() + " transactions" +
+                            (nextCursor != null ? " (more available)" : ""));
+
+                    updateChart(result.monthlyTotals);
+                    loadMoreIfNeeded();
+                },
+                error -> {
+                    loadingPage = false;
+                    System.err.println("Error loading transactions: " + error.getMessage());
+                    error.printStackTrace();
+                    showAlert("Kesalahan", "Gagal memuat data transaksi: " + error.getMessage());
+                });
+    }
+
+    //Ambil hanya transaksi yang berubah sejak watermark dan gabungkan ke data yang sudah dimuat
+    private void syncTransactions() {
+        if (syncWatermark == null) {
+            loadTransactions();
+            return;
+        }
+        if (syncing) {
+            syncPending = true;
+            return;
+        }
+
+        Integer userId = currentUserId;
+        Instant watermark = syncWatermark;
+        int request = pageRequest;
+        syncing = true;
+        FxAsync.run(
+                () -> new TransactionSyncResult(
+                        transactionDAO.fetchChangesSince(userId, watermark),
+                        aggregateDAO.getMonthlyTotals(userId, chartRange())),
+                result -> {
+                    syncing = false;
+                    // Reload penuh di tengah jalan sudah membawa data yang lebih baru
+                    if (request == pageRequest) {
+                        applyTransactionChanges(result.changes);
+                        syncWatermark = result.changes.getWatermark();
+                        updateChart(result.monthlyTotals);
+                    }
+                    if (syncPending) {
+                        syncPending = false;
+                        syncTransactions();
+                    }
+                },
+                error -> {
+                    syncing = false;
+                    syncPending = false;
+                    System.err.println("Error syncing transactions, falling back to full reload: " + error.getMessage());
+                    loadTransactions();
+                });
+    }
+
+    //Ganti/sisipkan baris yang berubah di posisinya dan buang baris yang dihapus, tanpa memuat ulang halaman
+    private void applyTransactionChanges(ChangeSet<Transaction> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Transaction> changed = new HashMap<>();
+        for (Transaction transaction : changes.getUpserts()) {
+            changed.put(transaction.getTransactionId(), transaction);
+        }
+        Set<Integer> removed = new HashSet<>(changes.getDeletedIds());
+        removed.addAll(changed.keySet());
+        // Batas halaman diambil sebelum baris dibuang supaya posisi cursor tidak bergeser
+        Transaction lastLoaded = allTransactions.isEmpty() ? null : allTransactions.get(allTransactions.size() - 1);
+        allTransactions.removeIf(transaction -> removed.contains(transaction.getTransactionId()));
+
+        for (Transaction transaction : changed.values()) {
+            if (changes.getDeletedIds().contains(transaction.getTransactionId())) {
+                continue;
+            }
+            // Baris di luar halaman yang sudah dimuat akan ikut saat halamannya di-scroll
+            if (nextCursor != null && (lastLoaded == null || PAGE_ORDER.compare(transaction, lastLoaded) > 0)) {
+                continue;
             }
+            int index = Collections.binarySearch(allTransactions, transaction, PAGE_ORDER);
+            allTransactions.add(index < 0 ? -index - 1 : index, transaction);
+        }
 
-        } catch (Exception e) {
-            System.err.println("Error loading transactions: " + e.getMessage());
-            e.printStackTrace();
-            showAlert("Kesalahan", "Gagal memuat data transaksi: " + e.getMessage());
+        System.out.println("Synced transactions: " + changes.getUpserts().size() + " changed, " +
+                changes.getDeletedIds().size() + " deleted");
+    }
+
+    //Ambil halaman berikutnya saat user scroll mendekati bawah table
+    private void loadNextPage() {
+        if (loadingPage || nextCursor == null) {
+            return;
+        }
+
+        Integer userId = currentUserId;
+        String cursor = nextCursor;
+        int request = pageRequest;
+        loadingPage = true;
+        FxAsync.run(
+                () -> transactionDAO.getTransactionPage(userId, cursor, PAGE_SIZE),
+                page -> {
+                    if (request != pageRequest) {
+                        return;
+                    }
+                    allTransactions.addAll(page.getTransactions());
+                    nextCursor = page.getNextCursor();
+                    loadingPage = false;
+                    System.out.println("Loaded " + page.getTransactions().size() + " more transactions (total " +
+                            allTransactions.size() + ")");
+                    loadMoreIfNeeded();
+                },
+                error -> {
+                    loadingPage = false;
+                    System.err.println("Error loading next transaction page: " + error.getMessage());
+                    error.printStackTrace();
+                });
+    }
+
+    //Pasang listener scroll bar vertikal table setelah skin-nya terbentuk
+    private void setupLazyLoading() {
+        transactionTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            ScrollBar scrollBar = findVerticalScrollBar();
+            if (scrollBar != null) {
+                scrollBar.valueProperty().addListener((o, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() * LOAD_MORE_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        });
+    }
+
+    //Kalau isi table belum bisa di-scroll (mis. filter aktif dan hasilnya sedikit), langsung ambil halaman berikutnya
+    private void loadMoreIfNeeded() {
+        Platform.runLater(() -> {
+            ScrollBar scrollBar = findVerticalScrollBar();
+            if (scrollBar == null || !scrollBar.isVisible()) {
+                loadNextPage();
+            }
+        });
+    }
+
+    private ScrollBar findVerticalScrollBar() {
+        for (Node node : transactionTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                return (ScrollBar) node;
+            }
         }
+        return null;
     }
 
     //debug cek transaksi
@@ -314,41 +499,15 @@ public class TransactionListController {
         }
     }
 
-    //Update chart dengan data transaksi terbaru
-    private void updateChart() {
+    //Update chart dengan total bulanan yang sudah diagregasi di database
+    private void updateChart(Map<YearMonth, Map<TransactionType, Money>> monthlyTotals) {
         try {
-            if (allTransactions == null || allTransactions.isEmpty()) {
+            if (monthlyTotals == null || monthlyTotals.isEmpty()) {
                 lineChart.getData().clear();
                 lineChart.setTitle("Belum Ada Data Transaksi");
                 return;
             }
 
-            LocalDate endDate = LocalDate.now();
-            LocalDate startDate = endDate.minusMonths(11).withDayOfMonth(1);
-
-            List<String> monthLabels = new ArrayList<>();
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
-                monthLabels.add(current.format(DateTimeFormatter.ofPattern("MMM")));
-                current = current.plusMonths(1);
-            }
-
-            Map<String, BigDecimal> monthlyIncome = allTransactions.stream()
-                    .filter(t -> t.getType() == TransactionType.INCOME)
-                    .filter(t -> !t.getTransactionDate().isBefore(startDate) && !t.getTransactionDate().isAfter(endDate))
-                    .collect(Collectors.groupingBy(
-                            t -> t.getTransactionDate().format(DateTimeFormatter.ofPattern("MMM")),
-                            Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                    ));
-
-            Map<String, BigDecimal> monthlyExpense = allTransactions.stream()
-                    .filter(t -> t.getType() == TransactionType.OUTCOME)
-                    .filter(t -> !t.getTransactionDate().isBefore(startDate) && !t.getTransactionDate().isAfter(endDate))
-                    .collect(Collectors.groupingBy(
-                            t -> t.getTransactionDate().format(DateTimeFormatter.ofPattern("MMM")),
-                            Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
-                    ));
-
             lineChart.setTitle("Data Transaksi");
 
             XYChart.Series<String, Number> incomeSeries = new XYChart.Series<>();
@@ -357,12 +516,15 @@ public class TransactionListController {
             XYChart.Series<String, Number> expenseSeries = new XYChart.Series<>();
             expenseSeries.setName("Pengeluaran");
 
-            for (String month : monthLabels) {
-                BigDecimal income = monthlyIncome.getOrDefault(month, BigDecimal.ZERO);
-                BigDecimal expense = monthlyExpense.getOrDefault(month, BigDecimal.ZERO);
+            YearMonth endMonth = YearMonth.now();
+            for (YearMonth month = endMonth.minusMonths(CHART_MONTHS - 1); !month.isAfter(endMonth); month = month.plusMonths(1)) {
+                Map<TransactionType, Money> totals = monthlyTotals.getOrDefault(month, Collections.emptyMap());
+                Money income = totals.getOrDefault(TransactionType.INCOME, Money.ZERO);
+                Money expense = totals.getOrDefault(TransactionType.OUTCOME, Money.ZERO);
 
-                incomeSeries.getData().add(new XYChart.Data<>(month, income.divide(BigDecimal.valueOf(1000))));
-                expenseSeries.getData().add(new XYChart.Data<>(month, expense.divide(BigDecimal.valueOf(1000))));
+                String label = month.format(DateTimeFormatter.ofPattern("MMM"));
+                incomeSeries.getData().add(new XYChart.Data<>(label, income.doubleValue() / 1000));
+                expenseSeries.getData().add(new XYChart.Data<>(label, expense.doubleValue() / 1000));
             }
 
             lineChart.getData().clear();
@@ -376,6 +538,12 @@ public class TransactionListController {
         }
     }
 
+    // Rentang grafik: 12 bulan kalender terakhir termasuk bulan ini
+    private static DateRange chartRange() {
+        YearMonth endMonth = YearMonth.now();
+        return DateRange.halfOpen(endMonth.minusMonths(CHART_MONTHS - 1).atDay(1), endMonth.plusMonths(1).atDay(1));
+    }
+
 
     //Styling visual chart (warna garis, ketebalan)
     private void styleChartLines() {
@@ -393,40 +561,34 @@ public class TransactionListController {
         }
     }
 
-    //Filter data table berdasarkan tipe transaksi
+    //Filter data table berdasarkan tipe transaksi. Filter berlaku juga untuk halaman yang dimuat berikutnya
     @FXML
     private void handleFilter() {
-        if (allTransactions == null || allTransactions.isEmpty()) {
-            return;
-        }
-
         String filterValue = filterComboBox.getValue();
         String searchText = searchField.getText().toLowerCase().trim();
 
-        List<Transaction> filteredTransactions = allTransactions.stream()
-                .filter(transaction -> {
-                    if (!filterValue.equals("Semua")) {
-                        TransactionType filterType = filterValue.equals("Pemasukan") ?
-                                TransactionType.INCOME : TransactionType.OUTCOME;
-                        if (transaction.getType() != filterType) {
-                            return false;
-                        }
-                    }
+        filteredTransactions.setPredicate(transaction -> {
+            if (!filterValue.equals("Semua")) {
+                TransactionType filterType = filterValue.equals("Pemasukan") ?
+                        TransactionType.INCOME : TransactionType.OUTCOME;
+                if (transaction.getType() != filterType) {
+                    return false;
+                }
+            }
 
-                    if (!searchText.isEmpty()) {
-                        String categoryName = getCategoryNameFromCache(transaction.getCategoryId()).toLowerCase();
-                        String note = transaction.getNote() != null ? transaction.getNote().toLowerCase() : "";
+            if (!searchText.isEmpty()) {
+                String categoryName = getCategoryNameFromCache(transaction.getCategoryId()).toLowerCase();
+                String note = transaction.getNote() != null ? transaction.getNote().toLowerCase() : "";
 
-                        if (!categoryName.contains(searchText) && !note.contains(searchText)) {
-                            return false;
-                        }
-                    }
+                if (!categoryName.contains(searchText) && !note.contains(searchText)) {
+                    return false;
+                }
+            }
 
-                    return true;
-                })
-                .collect(Collectors.toList());
+            return true;
+        });
 
-        transactionTable.setItems(FXCollections.observableArrayList(filteredTransactions));
+        loadMoreIfNeeded();
     }
 
 
@@ -435,10 +597,6 @@ public class TransactionListController {
     private void handleAddTransaction() {
         try {
             SceneSwitcher.switchTo("Transaction/TransactionForm.fxml", (Stage) addTransactionButton.getScene().getWindow());
-            loadCategoriesCache();
-            loadTransactions();
-            updateChart();
-
         } catch (Exception e) {
             System.err.println("Error opening transaction form: " + e.getMessage());
             e.printStackTrace();
@@ -447,6 +605,49 @@ public class TransactionListController {
     }
 
 
+    //Import mutasi bank dari file CSV (format default: tanggal, nominal bertanda, kategori, catatan)
+    @FXML
+    private void handleImport() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Pilih File Mutasi (CSV)");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        CsvImportMapping mapping = new CsvImportMapping();
+        mapping.setCategoryColumn(2);
+        mapping.setNoteColumn(3);
+
+        Integer userId = currentUserId;
+        importButton.setDisable(true);
+        FxAsync.runWrite(
+                () -> importService.importCsv(file.toPath(), userId, mapping),
+                result -> {
+                    importButton.setDisable(false);
+                    loadTransactions();
+
+                    StringBuilder message = new StringBuilder()
+                            .append(result.getRowsImported()).append(" transaksi berhasil diimport.");
+                    if (result.getRowsDuplicate() > 0) {
+                        message.append("\n").append(result.getRowsDuplicate()).append(" transaksi dilewati karena sudah pernah diimport.");
+                    }
+                    if (result.getRowsRejected() > 0) {
+                        message.append("\n").append(result.getRowsRejected()).append(" baris ditolak:");
+                        result.getErrors().stream().limit(10).forEach(error -> message.append("\n").append(error));
+                    }
+                    showSuccessAlert("Import Selesai", message.toString());
+                },
+                error -> {
+                    importButton.setDisable(false);
+                    System.err.println("Error importing CSV: " + error.getMessage());
+                    error.printStackTrace();
+                    showAlert("Kesalahan", "Gagal mengimport file: " + error.getMessage());
+                });
+    }
+
+
     //Buka form edit dengan data transaksi terpilih dan beri ke edit controller
     @FXML
     private void handleEdit() {
@@ -467,6 +668,8 @@ public class TransactionListController {
 
                 editController.setTransaction(selectedTransaction);
 
+                FxAsync.releaseView();
+
                 Stage currentStage = (Stage) editButton.getScene().getWindow();
                 Scene editScene = new Scene(root);
                 currentStage.setScene(editScene);
@@ -497,20 +700,22 @@ public class TransactionListController {
                     "Tanggal: " + selectedTransaction.getTransactionDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
 
             if (confirmAlert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-                try {
-                    boolean success = transactionDAO.deleteTransaction(selectedTransaction.getTransactionId());
-                    if (success) {
-                        loadTransactions();
-                        updateChart();
-                        showSuccessAlert("Berhasil", "Transaksi berhasil dihapus!");
-                    } else {
-                        showAlert("Kesalahan", "Gagal menghapus transaksi.");
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error deleting transaction: " + e.getMessage());
-                    e.printStackTrace();
-                    showAlert("Kesalahan", "Terjadi kesalahan saat menghapus: " + e.getMessage());
-                }
+                Integer transactionId = selectedTransaction.getTransactionId();
+                FxAsync.runWrite(
+                        () -> transactionDAO.deleteTransaction(transactionId),
+                        success -> {
+                            if (success) {
+                                syncTransactions();
+                                showSuccessAlert("Berhasil", "Transaksi berhasil dihapus!");
+                            } else {
+                                showAlert("Kesalahan", "Gagal menghapus transaksi.");
+                            }
+                        },
+                        error -> {
+                            System.err.println("Error deleting transaction: " + error.getMessage());
+                            error.printStackTrace();
+                            showAlert("Kesalahan", "Terjadi kesalahan saat menghapus: " + error.getMessage());
+                        });
             }
         }
     }
@@ -531,6 +736,33 @@ public class TransactionListController {
         alert.showAndWait();
     }
 
+    private static class TransactionLoadResult {
+        private final List<Category> categories;
+        private final TransactionPage firstPage;
+        private final Map<YearMonth, Map<TransactionType, Money>> monthlyTotals;
+        private final Instant watermark;
+
+        private TransactionLoadResult(List<Category> categories, TransactionPage firstPage,
+                                      Map<YearMonth, Map<TransactionType, Money>> monthlyTotals,
+                                      Instant watermark) {
+            this.categories = categories;
+            this.firstPage = firstPage;
+            this.monthlyTotals = monthlyTotals;
+            this.watermark = watermark;
+        }
+    }
+
+    private static class TransactionSyncResult {
+        private final ChangeSet<Transaction> changes;
+        private final Map<YearMonth, Map<TransactionType, Money>> monthlyTotals;
+
+        private TransactionSyncResult(ChangeSet<Transaction> changes,
+                                      Map<YearMonth, Map<TransactionType, Money>> monthlyTotals) {
+            this.changes = changes;
+            this.monthlyTotals = monthlyTotals;
+        }
+    }
+
     @FXML
     private void backTo(){
         SceneSwitcher.switchTo("Dashboard.fxml", (Stage) backButton.getScene().getWindow());
@@ -3,6 +3,7 @@ package com.example.ismoney.controller;
 import com.example.ismoney.dao.UserDAOImpl;
 import com.example.ismoney.model.SavingGoal;
 import com.example.ismoney.model.User;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.service.SavingGoalService;
 import com.example.ismoney.util.SceneSwitcher;
 import javafx.fxml.FXML;
@@ -176,8 +177,8 @@ public class savingGoalFormController {
         try {
             // get data
             String goalName = goalNameField.getText().trim();
-            BigDecimal targetAmount = new BigDecimal(targetAmountField.getText().trim());
-            BigDecimal currentAmount = new BigDecimal(currentAmountField.getText().trim());
+            Money targetAmount = Money.parse(targetAmountField.getText());
+            Money currentAmount = Money.parse(currentAmountField.getText());
             LocalDate targetDate = targetDatePicker.getValue();
             String status = statusComboBox.getValue();
 
@@ -1,8 +1,12 @@
 package com.example.ismoney.controller;
 
+import com.example.ismoney.dao.DeltaSync;
 import com.example.ismoney.dao.SavingGoalDAO;
+import com.example.ismoney.model.ChangeSet;
 import com.example.ismoney.model.SavingGoal;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.service.SavingGoalService;
+import com.example.ismoney.util.FxAsync;
 import com.example.ismoney.util.SceneSwitcher;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -13,20 +17,21 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
-import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.time.Instant;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 public class savingGoalListController implements Initializable {
 
     @FXML private TableView<SavingGoal> goalTableView;
     @FXML private TableColumn<SavingGoal, String> goalNameColumn;
-    @FXML private TableColumn<SavingGoal, BigDecimal> targetAmountColumn;
-    @FXML private TableColumn<SavingGoal, BigDecimal> currentAmountColumn;
+    @FXML private TableColumn<SavingGoal, Money> targetAmountColumn;
+    @FXML private TableColumn<SavingGoal, Money> currentAmountColumn;
     @FXML private TableColumn<SavingGoal, String> targetDateColumn;
     @FXML private TableColumn<SavingGoal, String> statusColumn;
     @FXML private TableColumn<SavingGoal, String> progressColumn;
@@ -44,6 +49,10 @@ public class savingGoalListController implements Initializable {
     private ObservableList<SavingGoal> allGoals;
     private FilteredList<SavingGoal> filteredGoals;
     private Integer currentUserId;
+    // Watermark delta sync; null berarti perubahan berikutnya memuat ulang semuanya
+    private Instant syncWatermark;
+    private boolean syncing = false;
+    private boolean syncPending = false;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -53,16 +62,23 @@ public class savingGoalListController implements Initializable {
             savingGoalDAO = new SavingGoalDAO();
             savingGoalService = new SavingGoalService();
 
-            currentUserId = getCurrentLoggedInUserId();
-            System.out.println("Using user ID for saving goals: " + currentUserId);
-
             allGoals = FXCollections.observableArrayList();
             filteredGoals = new FilteredList<>(allGoals, p -> true);
 
             setupTableColumns();
             setupEventHandlers();
             setupSearchFunctionality();
-            loadGoals();
+
+            FxAsync.run(
+                    this::getCurrentLoggedInUserId,
+                    userId -> {
+                        currentUserId = userId;
+                        System.out.println("Using user ID for saving goals: " + currentUserId);
+                        loadGoals();
+                        // Sinkron hanya kalau saving goals user ini berubah
+                        FxAsync.onDataChange(userId, Set.of("saving_goals"), this::syncGoals);
+                    },
+                    error -> showAlert(Alert.AlertType.ERROR, "Kesalahan", "Gagal memuat user: " + error.getMessage()));
 
             System.out.println("SavingGoalListController setup completed!");
         } catch (Exception e) {
@@ -228,9 +244,9 @@ public class savingGoalListController implements Initializable {
     }
 
     private void formatCurrencyColumns() {
-        targetAmountColumn.setCellFactory(column -> new TableCell<SavingGoal, BigDecimal>() {
+        targetAmountColumn.setCellFactory(column -> new TableCell<SavingGoal, Money>() {
             @Override
-            protected void updateItem(BigDecimal amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText("");
@@ -240,9 +256,9 @@ public class savingGoalListController implements Initializable {
             }
         });
 
-        currentAmountColumn.setCellFactory(column -> new TableCell<SavingGoal, BigDecimal>() {
+        currentAmountColumn.setCellFactory(column -> new TableCell<SavingGoal, Money>() {
             @Override
-            protected void updateItem(BigDecimal amount, boolean empty) {
+            protected void updateItem(Money amount, boolean empty) {
                 super.updateItem(amount, empty);
                 if (empty || amount == null) {
                     setText("");
@@ -256,13 +272,7 @@ public class savingGoalListController implements Initializable {
 
     // utk menghitung persentase progress
     private double calculateProgressPercentage(SavingGoal goal) {
-        if (goal.getTargetAmount().compareTo(BigDecimal.ZERO) > 0) {
-            return goal.getCurrentAmount()
-                    .divide(goal.getTargetAmount(), 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(new BigDecimal("100"))
-                    .doubleValue();
-        }
-        return 0.0;
+        return goal.getProgressPercentage();
     }
 
     private ProgressBar createStyledProgressBar(double progressPercentage, SavingGoal goal) {
@@ -270,11 +280,8 @@ public class savingGoalListController implements Initializable {
 
         // itung persentase progress berdasarkan currentAmount dan targetAmount
         double actualProgressPercentage = 0.0;
-        if (goal.getTargetAmount().compareTo(BigDecimal.ZERO) > 0) {
-            actualProgressPercentage = goal.getCurrentAmount()
-                    .divide(goal.getTargetAmount(), 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(new BigDecimal("100"))
-                    .doubleValue();
+        if (goal.getTargetAmount().isPositive()) {
+            actualProgressPercentage = goal.getProgressPercentage();
         }
 
         // mastiin progress tidak melebihi 100%
@@ -343,44 +350,41 @@ public class savingGoalListController implements Initializable {
         }
 
         try {
-            BigDecimal amount = new BigDecimal(addSavingAmountField.getText().trim());
+            Money amount = Money.parse(addSavingAmountField.getText());
 
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            if (!amount.isPositive()) {
                 showAlert(Alert.AlertType.ERROR, "Error", "Jumlah harus lebih besar dari 0");
                 return;
             }
 
-            boolean success = savingGoalDAO.addSavingToGoal(selectedGoal.getGoalId(), amount, currentUserId);
-
-            if (success) {
-                showAlert(Alert.AlertType.INFORMATION, "Sukses",
-                        "Tabungan berhasil ditambahkan ke " + selectedGoal.getGoalName());
-                addSavingAmountField.clear();
-
-                // Ambil data goal yang sudah diupdate untuk ngecek status
-                SavingGoal updatedGoal = savingGoalDAO.getSavingGoalById(selectedGoal.getGoalId(), currentUserId);
-
-                if (updatedGoal != null) {
-                    // cek apakah currentAmount sudah >= targetAmount
-                    if (updatedGoal.getCurrentAmount().compareTo(updatedGoal.getTargetAmount()) >= 0) {
-                        // update status menjadi COMPLETED
-                        boolean statusUpdated = savingGoalDAO.updateGoalStatusBasedOnProgress(
-                                selectedGoal.getGoalId(),
-                                "COMPLETED",
-                                currentUserId
-                        );
-                        if (statusUpdated) {
+            Integer userId = currentUserId;
+            addSavingButton.setDisable(true);
+            FxAsync.runWrite(
+                    () -> addSavingAndCheckCompletion(selectedGoal, amount, userId),
+                    result -> {
+                        addSavingButton.setDisable(false);
+                        if (result == AddSavingResult.FAILED) {
+                            showAlert(Alert.AlertType.ERROR, "Error", "Gagal menambahkan tabungan");
+                            return;
+                        }
+
+                        showAlert(Alert.AlertType.INFORMATION, "Sukses",
+                                "Tabungan berhasil ditambahkan ke " + selectedGoal.getGoalName());
+                        addSavingAmountField.clear();
+
+                        if (result == AddSavingResult.COMPLETED) {
                             showAlert(Alert.AlertType.INFORMATION, "Selamat!",
                                     "Target " + selectedGoal.getGoalName() + " telah tercapai! 🎉\n" +
                                             "Status telah diubah menjadi COMPLETED.");
                         }
-                    }
-                }
-                loadGoals();
-
-            } else {
-                showAlert(Alert.AlertType.ERROR, "Error", "Gagal menambahkan tabungan");
-            }
+                        loadGoals();
+                    },
+                    error -> {
+                        addSavingButton.setDisable(false);
+                        System.err.println("Error adding saving: " + error.getMessage());
+                        error.printStackTrace();
+                        showAlert(Alert.AlertType.ERROR, "Error", "Error: " + error.getMessage());
+                    });
 
         } catch (NumberFormatException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Jumlah harus berupa angka");
@@ -392,11 +396,45 @@ public class savingGoalListController implements Initializable {
         }
     }
 
+    private enum AddSavingResult { FAILED, ADDED, COMPLETED }
+
+    // Dijalankan di thread database: tambah tabungan lalu cek apakah target sudah tercapai
+    private AddSavingResult addSavingAndCheckCompletion(SavingGoal selectedGoal, Money amount, Integer userId) {
+        boolean success = savingGoalDAO.addSavingToGoal(selectedGoal.getGoalId(), amount, userId);
+        if (!success) {
+            return AddSavingResult.FAILED;
+        }
+
+        // Ambil data goal yang sudah diupdate untuk ngecek status
+        SavingGoal updatedGoal = savingGoalDAO.getSavingGoalById(selectedGoal.getGoalId(), userId);
+
+        // cek apakah currentAmount sudah >= targetAmount
+        if (updatedGoal != null && updatedGoal.getCurrentAmount().compareTo(updatedGoal.getTargetAmount()) >= 0) {
+            // update status menjadi COMPLETED
+            boolean statusUpdated = savingGoalDAO.updateGoalStatusBasedOnProgress(
+                    selectedGoal.getGoalId(),
+                    "COMPLETED",
+                    userId
+            );
+            if (statusUpdated) {
+                return AddSavingResult.COMPLETED;
+            }
+        }
+        return AddSavingResult.ADDED;
+    }
+
     //double check kalo ada yg uda 100% tapi belum ke update
-    private void checkAndUpdateGoalStatuses() {
+    private void checkAndUpdateGoalStatuses(Integer userId) {
         try {
-            List<SavingGoal> goals = savingGoalDAO.getSavingGoalsByUserId(currentUserId);
+            completeReachedGoals(savingGoalDAO.getSavingGoalsByUserId(userId), userId);
+        } catch (Exception e) {
+            System.err.println("Error checking and updating goal statuses: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
+    private void completeReachedGoals(List<SavingGoal> goals, Integer userId) {
+        try {
             for (SavingGoal goal : goals) {
                 if (goal.getCurrentAmount().compareTo(goal.getTargetAmount()) >= 0
                         && !"COMPLETED".equals(goal.getStatus())) {
@@ -404,7 +442,7 @@ public class savingGoalListController implements Initializable {
                     boolean statusUpdated = savingGoalDAO.updateGoalStatusBasedOnProgress(
                             goal.getGoalId(),
                             "COMPLETED",
-                            currentUserId
+                            userId
                     );
 
                     if (statusUpdated) {
@@ -429,45 +467,126 @@ public class savingGoalListController implements Initializable {
     }
 
     private void loadGoals() {
-        try {
-            System.out.println("=== DEBUG: Loading saving goals ===");
-            System.out.println("Loading saving goals for user ID: " + currentUserId);
+        if (currentUserId == null) {
+            return;
+        }
 
-            // Cek dan update status goals terlebih dahulu
-            checkAndUpdateGoalStatuses();
+        System.out.println("=== DEBUG: Loading saving goals ===");
+        System.out.println("Loading saving goals for user ID: " + currentUserId);
+
+        Integer userId = currentUserId;
+        FxAsync.run(
+                () -> {
+                    // Diambil sebelum query supaya perubahan selama load ikut sync berikutnya
+                    Instant watermark = DeltaSync.isAvailable("saving_goals") ? DeltaSync.currentWatermark() : null;
+                    // Cek dan update status goals terlebih dahulu
+                    checkAndUpdateGoalStatuses(userId);
+                    List<SavingGoal> goals = savingGoalDAO.getSavingGoalsByUserId(userId);
+                    return new GoalLoadResult(goals, watermark);
+                },
+                result -> {
+                    List<SavingGoal> goals = result.goals;
+                    allGoals.setAll(goals);
+                    syncWatermark = result.watermark;
+
+                    System.out.println("Loaded " + goals.size() + " saving goals");
+
+                    if (goals.isEmpty()) {
+                        System.out.println("No saving goals found for user ID " + userId);
+                    } else {
+                        for (int i = 0; i < Math.min(3, goals.size()); i++) {
+                            SavingGoal g = goals.get(i);
+                            System.out.println("Goal " + (i + 1) + ": ID=" + g.getGoalId() +
+                                    ", Name=" + g.getGoalName() +
+                                    ", Target=" + g.getTargetAmount() +
+                                    ", Current=" + g.getCurrentAmount() +
+                                    ", Status=" + g.getStatus());
+                        }
+                        if (goals.size() > 3) {
+                            System.out.println("... and " + (goals.size() - 3) + " more goals");
+                        }
+                    }
+
+                    String currentSearchText = searchField.getText();
+                    if (currentSearchText != null && !currentSearchText.trim().isEmpty()) {
+                        filterGoals(currentSearchText);
+                    }
+                },
+                error -> {
+                    System.err.println("Error loading saving goals: " + error.getMessage());
+                    error.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR, "Error", "Gagal memuat data: " + error.getMessage());
+                });
+    }
+
+    //Ambil hanya goal yang berubah sejak watermark dan gabungkan ke list yang sudah dimuat
+    private void syncGoals() {
+        if (syncWatermark == null) {
+            loadGoals();
+            return;
+        }
+        if (syncing) {
+            syncPending = true;
+            return;
+        }
 
-            List<SavingGoal> goals = savingGoalDAO.getSavingGoalsByUserId(currentUserId);
-            allGoals.clear();
-            allGoals.addAll(goals);
+        Integer userId = currentUserId;
+        Instant watermark = syncWatermark;
+        syncing = true;
+        FxAsync.run(
+                () -> {
+                    ChangeSet<SavingGoal> changes = savingGoalDAO.fetchChangesSince(userId, watermark);
+                    // Update status di sini memicu notifikasi lagi, sync berikutnya membawa status barunya
+                    completeReachedGoals(changes.getUpserts(), userId);
+                    return changes;
+                },
+                changes -> {
+                    syncing = false;
+                    applyGoalChanges(changes);
+                    syncWatermark = changes.getWatermark();
+                    if (syncPending) {
+                        syncPending = false;
+                        syncGoals();
+                    }
+                },
+                error -> {
+                    syncing = false;
+                    syncPending = false;
+                    System.err.println("Error syncing saving goals, falling back to full reload: " + error.getMessage());
+                    loadGoals();
+                });
+    }
 
-            System.out.println("Loaded " + goals.size() + " saving goals");
+    //Ganti goal yang berubah di tempatnya, goal baru di atas (urutan created_date DESC), buang yang dihapus
+    private void applyGoalChanges(ChangeSet<SavingGoal> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
 
-            if (goals.isEmpty()) {
-                System.out.println("No saving goals found for user ID " + currentUserId);
+        allGoals.removeIf(goal -> changes.getDeletedIds().contains(goal.getGoalId()));
+        for (SavingGoal changed : changes.getUpserts()) {
+            if (changes.getDeletedIds().contains(changed.getGoalId())) {
+                continue;
+            }
+            int index = indexOfGoal(changed.getGoalId());
+            if (index >= 0) {
+                allGoals.set(index, changed);
             } else {
-                for (int i = 0; i < Math.min(3, goals.size()); i++) {
-                    SavingGoal g = goals.get(i);
-                    System.out.println("Goal " + (i + 1) + ": ID=" + g.getGoalId() +
-                            ", Name=" + g.getGoalName() +
-                            ", Target=" + g.getTargetAmount() +
-                            ", Current=" + g.getCurrentAmount() +
-                            ", Status=" + g.getStatus());
-                }
-                if (goals.size() > 3) {
-                    System.out.println("... and " + (goals.size() - 3) + " more goals");
-                }
+                allGoals.add(0, changed);
             }
+        }
 
-            String currentSearchText = searchField.getText();
-            if (currentSearchText != null && !currentSearchText.trim().isEmpty()) {
-                filterGoals(currentSearchText);
-            }
+        System.out.println("Synced saving goals: " + changes.getUpserts().size() + " changed, " +
+                changes.getDeletedIds().size() + " deleted");
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error loading saving goals: " + e.getMessage());
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Error", "Gagal memuat data: " + e.getMessage());
+    private int indexOfGoal(Integer goalId) {
+        for (int i = 0; i < allGoals.size(); i++) {
+            if (allGoals.get(i).getGoalId().equals(goalId)) {
+                return i;
+            }
         }
+        return -1;
     }
 
     private void showGoalDetails(SavingGoal goal) {
@@ -481,10 +600,10 @@ public class savingGoalListController implements Initializable {
                         "Status: %s\n" +
                         "Progress Status: %s",
                 goal.getGoalName(),
-                goal.getTargetAmount(),
-                goal.getCurrentAmount(),
+                goal.getTargetAmount().toBigDecimal(),
+                goal.getCurrentAmount().toBigDecimal(),
                 goal.getProgressPercentage(),
-                goal.getRemainingAmount(),
+                goal.getRemainingAmount().toBigDecimal(),
                 goal.getTargetDate(),
                 goal.getStatus(),
                 goal.getProgressStatus()
@@ -509,4 +628,14 @@ public class savingGoalListController implements Initializable {
     private void backTo() {
         SceneSwitcher.switchTo("Dashboard.fxml", (Stage) backButton.getScene().getWindow());
     }
-}
\ No newline at end of file
+
+    private static class GoalLoadResult {
+        private final List<SavingGoal> goals;
+        private final Instant watermark;
+
+        private GoalLoadResult(List<SavingGoal> goals, Instant watermark) {
+            this.goals = goals;
+            this.watermark = watermark;
+        }
+    }
+}
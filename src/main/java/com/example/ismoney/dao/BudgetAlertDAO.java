@@ -0,0 +1,82 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.database.SchemaCatalog;
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.BudgetAlert;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tabel budget_alerts (migrasi V7). Semua method memakai Connection pemanggil supaya alert
+// tercatat di transaksi database yang sama dengan perubahan spent_amount-nya. Input dikirim
+// sebagai array (unnest), jadi satu evaluasi selalu dua statement berapa pun budget-nya.
+public class BudgetAlertDAO {
+
+    // Dipanggil di dalam transaksi penulisan; katalog yang gagal dimuat menggagalkan penulisan
+    public static boolean isAvailable() throws SQLException {
+        return SchemaCatalog.getInstance().probeTable("budget_alerts");
+    }
+
+    // Catat pasangan (budgets[i], thresholds[i]) yang tercapai. Yang dikembalikan hanya
+    // threshold yang baru pertama kali terpicu; yang sudah tercatat dilewati unique key.
+    public List<BudgetAlert> recordReached(Connection conn, List<Budget> budgets, List<Integer> thresholds) throws SQLException {
+        List<BudgetAlert> fired = new ArrayList<>();
+        if (budgets.isEmpty()) {
+            return fired;
+        }
+
+        Integer[] budgetIds = new Integer[budgets.size()];
+        BigDecimal[] spent = new BigDecimal[budgets.size()];
+        BigDecimal[] limits = new BigDecimal[budgets.size()];
+        Map<Integer, Budget> byId = new HashMap<>();
+        for (int i = 0; i < budgets.size(); i++) {
+            Budget budget = budgets.get(i);
+            budgetIds[i] = budget.getId();
+            spent[i] = budget.getSpentAmount().toBigDecimal();
+            limits[i] = budget.getLimitAmount().toBigDecimal();
+            byId.put(budget.getId(), budget);
+        }
+
+        String sql = "INSERT INTO budget_alerts (budget_id, threshold, spent_amount, limit_amount) " +
+                "SELECT * FROM unnest(?::integer[], ?::integer[], ?::numeric[], ?::numeric[]) " +
+                "ON CONFLICT (budget_id, threshold) DO NOTHING " +
+                "RETURNING budget_id, threshold, fired_at";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", budgetIds));
+            stmt.setArray(2, conn.createArrayOf("integer", thresholds.toArray()));
+            stmt.setArray(3, conn.createArrayOf("numeric", spent));
+            stmt.setArray(4, conn.createArrayOf("numeric", limits));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Budget budget = byId.get(rs.getInt("budget_id"));
+                    fired.add(new BudgetAlert(budget.getId(), budget.getCategory(), rs.getInt("threshold"),
+                            budget.getSpentAmount(), budget.getLimitAmount(), rs.getTimestamp("fired_at").toInstant()));
+                }
+            }
+        }
+        return fired;
+    }
+
+    // Hapus alert di atas threshold tertinggi yang masih tercapai per budget (0 = tidak ada),
+    // supaya threshold itu bisa terpicu lagi kalau pengeluaran naik kembali
+    public void rearmAbove(Connection conn, List<Integer> budgetIds, List<Integer> highestReached) throws SQLException {
+        if (budgetIds.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM budget_alerts a " +
+                "USING unnest(?::integer[], ?::integer[]) AS r(budget_id, highest) " +
+                "WHERE a.budget_id = r.budget_id AND a.threshold > r.highest";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", budgetIds.toArray()));
+            stmt.setArray(2, conn.createArrayOf("integer", highestReached.toArray()));
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -1,251 +1,515 @@
 package com.example.ismoney.dao;
 
 import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.SchemaCatalog;
 import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BudgetDAO {
 
+    // Batas periode yang dikejar per budget dalam satu rollover (10 tahun budget mingguan)
+    private static final int MAX_ROLLOVER_PERIODS = 520;
+    // Kunci advisory (kelas, user_id): rollover dua perangkat milik user yang sama tidak bentrok,
+    // rollover user lain tidak saling menunggu
+    private static final int ROLLOVER_LOCK_CLASS = 0x49534D42;
+
+    // Skema lama (budget_limit/spent) tidak punya spent_amount; tanpa kolom ini delta
+    // pengeluaran tidak bisa diproyeksikan dan penyimpanan transaksi tidak boleh ikut gagal.
+    // Katalog yang gagal dimuat tetap menggagalkan penulisan, supaya delta tidak hilang diam-diam
+    public static boolean isSpentTrackingAvailable() throws SQLException {
+        return SchemaCatalog.getInstance().probeColumn("budgets", "spent_amount");
+    }
+
+    // Query per user memakai index (user_id, is_active, start_date, end_date) dari migrasi V8
     public void saveBudget(Budget budget) throws SQLException {
-        String sql = "INSERT INTO budgets (category, limit_amount, spent_amount, start_date, end_date, period, is_active) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO budgets (user_id, category, limit_amount, spent_amount, start_date, end_date, period, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
 
-            stmt.setString(1, budget.getCategory());
-            stmt.setDouble(2, budget.getLimitAmount());
-            stmt.setDouble(3, budget.getSpentAmount());
-            stmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            stmt.setDate(5, Date.valueOf(budget.getEndDate()));
-            stmt.setString(6, budget.getPeriod());
-            stmt.setBoolean(7, budget.isActive());
+            stmt.setInt(1, budget.getUserId());
+            stmt.setString(2, budget.getCategory());
+            MoneyColumns.set(stmt, 3, budget.getLimitAmount());
+            MoneyColumns.set(stmt, 4, budget.getSpentAmount());
+            stmt.setDate(5, Date.valueOf(budget.getStartDate()));
+            stmt.setDate(6, Date.valueOf(budget.getEndDate()));
+            stmt.setString(7, budget.getPeriod());
+            stmt.setBoolean(8, budget.isActive());
 
             stmt.executeUpdate();
+
+            // ID dibutuhkan BudgetIndex untuk memasukkan budget baru tanpa memuat ulang
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    budget.setId(generatedKeys.getInt(1));
+                }
+            }
         }
     }
 
-    public List<Budget> getAllBudgets() throws SQLException {
+    public List<Budget> getAllBudgets(Integer userId) throws SQLException {
         List<Budget> budgets = new ArrayList<>();
-        String sql = "SELECT * FROM budgets ORDER BY created_date DESC";
+        String sql = "SELECT * FROM budgets WHERE user_id = ? ORDER BY created_date DESC";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                Budget budget = new Budget(
-                        rs.getInt("id"),
-                        rs.getString("category"),
-                        rs.getDouble("limit_amount"),
-                        rs.getDouble("spent_amount"),
-                        rs.getDate("start_date").toLocalDate(),
-                        rs.getDate("end_date").toLocalDate(),
-                        rs.getString("period"),
-                        rs.getBoolean("is_active")
-                );
-                budgets.add(budget);
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    budgets.add(mapResultSetToBudget(rs));
+                }
             }
         }
         return budgets;
     }
 
-    public List<Budget> getActiveBudgets() throws SQLException {
+    public List<Budget> getActiveBudgets(Integer userId) throws SQLException {
         List<Budget> budgets = new ArrayList<>();
-        String sql = "SELECT * FROM budgets WHERE is_active = true ORDER BY category ASC";
+        String sql = "SELECT * FROM budgets WHERE user_id = ? AND is_active = true ORDER BY category ASC";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
+            stmt.setInt(1, userId);
+
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Budget budget = new Budget(
-                            rs.getInt("id"),
-                            rs.getString("category"),
-                            rs.getDouble("limit_amount"),
-                            rs.getDouble("spent_amount"),
-                            rs.getDate("start_date").toLocalDate(),
-                            rs.getDate("end_date").toLocalDate(),
-                            rs.getString("period"),
-                            rs.getBoolean("is_active")
-                    );
-                    budgets.add(budget);
+                    budgets.add(mapResultSetToBudget(rs));
                 }
             }
         }
         return budgets;
     }
 
-    public List<Budget> getCurrentBudgets() throws SQLException {
+    public List<Budget> getCurrentBudgets(Integer userId) throws SQLException {
         List<Budget> budgets = new ArrayList<>();
-        String sql = "SELECT * FROM budgets WHERE is_active = true AND start_date <= ? AND end_date >= ? ORDER BY category ASC";
+        String sql = "SELECT * FROM budgets WHERE user_id = ? AND is_active = true AND start_date <= ? AND end_date >= ? ORDER BY category ASC";
         LocalDate today = LocalDate.now();
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDate(1, Date.valueOf(today));
+            stmt.setInt(1, userId);
             stmt.setDate(2, Date.valueOf(today));
+            stmt.setDate(3, Date.valueOf(today));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Budget budget = new Budget(
-                            rs.getInt("id"),
-                            rs.getString("category"),
-                            rs.getDouble("limit_amount"),
-                            rs.getDouble("spent_amount"),
-                            rs.getDate("start_date").toLocalDate(),
-                            rs.getDate("end_date").toLocalDate(),
-                            rs.getString("period"),
-                            rs.getBoolean("is_active")
-                    );
-                    budgets.add(budget);
+                    budgets.add(mapResultSetToBudget(rs));
                 }
             }
         }
         return budgets;
     }
 
-    public Budget getBudgetById(int id) throws SQLException {
-        String sql = "SELECT * FROM budgets WHERE id = ?";
+    public Budget getBudgetById(int id, Integer userId) throws SQLException {
+        String sql = "SELECT * FROM budgets WHERE id = ? AND user_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
+            stmt.setInt(2, userId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Budget(
-                            rs.getInt("id"),
-                            rs.getString("category"),
-                            rs.getDouble("limit_amount"),
-                            rs.getDouble("spent_amount"),
-                            rs.getDate("start_date").toLocalDate(),
-                            rs.getDate("end_date").toLocalDate(),
-                            rs.getString("period"),
-                            rs.getBoolean("is_active")
-                    );
+                    return mapResultSetToBudget(rs);
                 }
             }
         }
         return null;
     }
 
-    public Budget getBudgetByCategory(String category, LocalDate date) throws SQLException {
-        String sql = "SELECT * FROM budgets WHERE category = ? AND is_active = true AND start_date <= ? AND end_date >= ?";
+    public Budget getBudgetByCategory(String category, LocalDate date, Integer userId) throws SQLException {
+        String sql = "SELECT * FROM budgets WHERE user_id = ? AND is_active = true AND start_date <= ? AND end_date >= ? AND category = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, category);
+            stmt.setInt(1, userId);
             stmt.setDate(2, Date.valueOf(date));
             stmt.setDate(3, Date.valueOf(date));
+            stmt.setString(4, category);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Budget(
-                            rs.getInt("id"),
-                            rs.getString("category"),
-                            rs.getDouble("limit_amount"),
-                            rs.getDouble("spent_amount"),
-                            rs.getDate("start_date").toLocalDate(),
-                            rs.getDate("end_date").toLocalDate(),
-                            rs.getString("period"),
-                            rs.getBoolean("is_active")
-                    );
+                    return mapResultSetToBudget(rs);
                 }
             }
         }
         return null;
     }
 
-    public void updateBudget(Budget budget) throws SQLException {
-        String sql = "UPDATE budgets SET category = ?, limit_amount = ?, spent_amount = ?, start_date = ?, end_date = ?, period = ?, is_active = ? WHERE id = ?";
+    // Hanya budget milik budget.getUserId() yang bisa diubah. spent_amount tidak ikut ditulis dari
+    // salinan di client (bisa basi dan menimpa delta dari BudgetSpendProjector); kategori atau periode
+    // yang berubah dihitung ulang dari transaksi di transaksi database yang sama, lalu nilai terbarunya
+    // disalin ke budget.
+    public boolean updateBudget(Budget budget) throws SQLException {
+        String sql = "UPDATE budgets SET category = ?, limit_amount = ?, start_date = ?, end_date = ?, period = ?, is_active = ? WHERE id = ? AND user_id = ?";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, budget.getCategory());
+                    MoneyColumns.set(stmt, 2, budget.getLimitAmount());
+                    stmt.setDate(3, Date.valueOf(budget.getStartDate()));
+                    stmt.setDate(4, Date.valueOf(budget.getEndDate()));
+                    stmt.setString(5, budget.getPeriod());
+                    stmt.setBoolean(6, budget.isActive());
+                    stmt.setInt(7, budget.getId());
+                    stmt.setInt(8, budget.getUserId());
+
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+                if (isSpentTrackingAvailable()) {
+                    List<Integer> ids = List.of(budget.getId());
+                    recomputeSpentAmountsByIds(conn, ids);
+                    for (Budget stored : getBudgetsByIds(conn, ids)) {
+                        budget.setSpentAmount(stored.getSpentAmount());
+                    }
+                }
 
-            stmt.setString(1, budget.getCategory());
-            stmt.setDouble(2, budget.getLimitAmount());
-            stmt.setDouble(3, budget.getSpentAmount());
-            stmt.setDate(4, Date.valueOf(budget.getStartDate()));
-            stmt.setDate(5, Date.valueOf(budget.getEndDate()));
-            stmt.setString(6, budget.getPeriod());
-            stmt.setBoolean(7, budget.isActive());
-            stmt.setInt(8, budget.getId());
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
 
-            stmt.executeUpdate();
+    // Tambahkan delta pengeluaran ke semua budget aktif milik user untuk kategori tersebut yang periodenya
+    // mencakup tanggal transaksi. Semua delta dikirim sebagai array (unnest) dalam satu UPDATE;
+    // delta yang jatuh ke budget yang sama dijumlahkan dulu, karena UPDATE ... FROM hanya menulis
+    // satu baris sumber per budget. Dijalankan di koneksi pemanggil supaya ikut commit/rollback
+    // bersama transaksinya. Mengembalikan budget yang berubah dengan spent_amount terbarunya.
+    public List<Budget> addSpentDeltas(Connection conn, List<SpendDelta> deltas) throws SQLException {
+        List<Budget> changed = new ArrayList<>();
+        if (deltas.isEmpty()) {
+            return changed;
+        }
+        String sql = "UPDATE budgets b SET spent_amount = b.spent_amount + d.total " +
+                "FROM (" +
+                "SELECT bb.id, SUM(x.amount) AS total " +
+                "FROM unnest(?::integer[], ?::integer[], ?::date[], ?::numeric[]) AS x(user_id, category_id, day, amount) " +
+                "JOIN categories c ON c.categories_id = x.category_id " +
+                "JOIN budgets bb ON bb.user_id = x.user_id AND bb.category = c.name AND bb.is_active = true " +
+                "AND bb.start_date <= x.day AND bb.end_date >= x.day " +
+                "GROUP BY bb.id" +
+                ") d " +
+                "WHERE b.id = d.id " +
+                "RETURNING b.*";
+
+        Object[] userIds = new Object[deltas.size()];
+        Object[] categoryIds = new Object[deltas.size()];
+        Object[] dates = new Object[deltas.size()];
+        Object[] amounts = new Object[deltas.size()];
+        for (int i = 0; i < deltas.size(); i++) {
+            SpendDelta delta = deltas.get(i);
+            userIds[i] = delta.getUserId();
+            categoryIds[i] = delta.getCategoryId();
+            dates[i] = Date.valueOf(delta.getDate());
+            amounts[i] = delta.getAmount().toBigDecimal();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", userIds));
+            stmt.setArray(2, conn.createArrayOf("integer", categoryIds));
+            stmt.setArray(3, conn.createArrayOf("date", dates));
+            stmt.setArray(4, conn.createArrayOf("numeric", amounts));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changed.add(mapResultSetToBudget(rs));
+                }
+            }
         }
+        return changed;
     }
 
-    public void updateBudgetSpent(int budgetId, double spentAmount) throws SQLException {
-        String sql = "UPDATE budgets SET spent_amount = ? WHERE id = ?";
+    // Baca beberapa budget sekaligus di koneksi pemanggil (melihat perubahan yang belum di-commit)
+    public List<Budget> getBudgetsByIds(Connection conn, List<Integer> ids) throws SQLException {
+        List<Budget> budgets = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return budgets;
+        }
+        String sql = "SELECT * FROM budgets WHERE id = ANY (?)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("integer", ids.toArray()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    budgets.add(mapResultSetToBudget(rs));
+                }
+            }
+        }
+        return budgets;
+    }
+
+    public boolean deleteBudget(int id, Integer userId) throws SQLException {
+        String sql = "DELETE FROM budgets WHERE id = ? AND user_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDouble(1, spentAmount);
-            stmt.setInt(2, budgetId);
-
-            stmt.executeUpdate();
+            stmt.setInt(1, id);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
         }
     }
 
-    public void addToBudgetSpent(int budgetId, double amount) throws SQLException {
-        String sql = "UPDATE budgets SET spent_amount = spent_amount + ? WHERE id = ?";
+    public boolean deactivateBudget(int id, Integer userId) throws SQLException {
+        String sql = "UPDATE budgets SET is_active = false WHERE id = ? AND user_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDouble(1, amount);
-            stmt.setInt(2, budgetId);
-
-            stmt.executeUpdate();
+            stmt.setInt(1, id);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
         }
     }
 
-    public void deleteBudget(int id) throws SQLException {
-        String sql = "DELETE FROM budgets WHERE id = ?";
+    // Hitung ulang spent_amount budget milik satu user dengan satu UPDATE ... FROM agregat, bukan satu
+    // SELECT + UPDATE per budget. activeOn diisi: hanya budget aktif yang periodenya mencakup
+    // tanggal itu (refresh biasa); null: semua budget user tersebut (recompute penuh malam hari).
+    // Hanya baris yang nilainya berubah yang ditulis; ID-nya dikembalikan.
+    public List<Integer> recomputeSpentAmounts(LocalDate activeOn, Integer userId) throws SQLException {
+        String sql = recomputeSql("WHERE bb.user_id = ? " +
+                (activeOn != null ? "AND bb.is_active = true AND bb.start_date <= ? AND bb.end_date >= ? " : ""));
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            stmt.setInt(1, userId);
+            if (activeOn != null) {
+                stmt.setDate(2, Date.valueOf(activeOn));
+                stmt.setDate(3, Date.valueOf(activeOn));
+            }
+            return readIds(stmt);
+        }
+    }
+
+    // Semua user yang punya budget, untuk recompute malam hari per user
+    public List<Integer> getBudgetUserIds() throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT user_id FROM budgets WHERE user_id IS NOT NULL")) {
+            return readIds(stmt);
         }
     }
 
-    public void deactivateBudget(int id) throws SQLException {
-        String sql = "UPDATE budgets SET is_active = false WHERE id = ?";
+    // Budget milik satu user yang periodenya beririsan dengan range, mis. setelah import massal;
+    // budget user lain tidak ikut dikunci atau ditulis
+    public List<Integer> recomputeSpentAmounts(Connection conn, DateRange range, Integer userId) throws SQLException {
+        String sql = recomputeSql("WHERE bb.user_id = ? AND bb.start_date <= ? AND bb.end_date >= ? ");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(range.getEndInclusive()));
+            stmt.setDate(3, Date.valueOf(range.getStart()));
+            return readIds(stmt);
+        }
+    }
+
+    // Hitung ulang hanya budget tertentu, mis. baris baru hasil rollover
+    public List<Integer> recomputeSpentAmountsByIds(Connection conn, List<Integer> budgetIds) throws SQLException {
+        if (budgetIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(recomputeSql("WHERE bb.id = ANY (?) "))) {
+            stmt.setArray(1, conn.createArrayOf("integer", budgetIds.toArray()));
+            return readIds(stmt);
+        }
+    }
+
+    private static String recomputeSql(String budgetFilter) {
+        return "UPDATE budgets b SET spent_amount = agg.total " +
+                "FROM (" +
+                "SELECT bb.id, COALESCE(SUM(t.amount), 0) AS total " +
+                "FROM budgets bb " +
+                "LEFT JOIN categories c ON c.name = bb.category " +
+                "LEFT JOIN transactions t ON t.user_id = bb.user_id AND t.category_id = c.categories_id " +
+                "AND t.type = 'OUTCOME' AND t.transaction_date BETWEEN bb.start_date AND bb.end_date " +
+                budgetFilter +
+                "GROUP BY bb.id" +
+                ") agg " +
+                "WHERE b.id = agg.id AND b.spent_amount IS DISTINCT FROM agg.total " +
+                "RETURNING b.id";
+    }
+
+    private static List<Integer> readIds(PreparedStatement stmt) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    // Buat baris periode berikutnya untuk budget berulang yang sudah lewat end_date, sampai periode
+    // yang mencakup today, dalam satu INSERT ... SELECT generate_series. Hanya budget aktif terakhir
+    // per kategori yang diteruskan (kategori yang sudah punya budget lebih baru dilewati), dan periode
+    // yang start_date-nya sudah ada tidak dibuat lagi, jadi aman dijalankan berulang kali; downtime
+    // panjang terkejar dalam sekali jalan. Limit dan period dibawa, spent_amount dihitung dari transaksi.
+    // Hanya budget milik userId. Mengembalikan ID budget baru.
+    public List<Integer> rollOverExpired(LocalDate today, Integer userId) throws SQLException {
+        String sql = "INSERT INTO budgets (user_id, category, limit_amount, spent_amount, start_date, end_date, period, is_active) " +
+                "SELECT b.user_id, b.category, b.limit_amount, 0, " +
+                "(b.end_date + 1 + k * p.step)::date, (b.end_date + 1 + (k + 1) * p.step - INTERVAL '1 day')::date, " +
+                "b.period, true " +
+                "FROM budgets b " +
+                "CROSS JOIN LATERAL (SELECT CASE LOWER(b.period) " +
+                "WHEN 'weekly' THEN INTERVAL '1 week' " +
+                "WHEN 'yearly' THEN INTERVAL '1 year' " +
+                "ELSE INTERVAL '1 month' END AS step) p " +
+                "CROSS JOIN LATERAL generate_series(0, ?) AS k " +
+                "WHERE b.user_id = ? AND b.is_active = true AND b.end_date < ? " +
+                "AND LOWER(b.period) IN ('weekly', 'monthly', 'yearly') " +
+                "AND (b.end_date + 1 + k * p.step)::date <= ? " +
+                "AND NOT EXISTS (SELECT 1 FROM budgets n WHERE n.user_id = b.user_id AND n.category = b.category " +
+                "AND n.start_date > b.start_date) " +
+                "AND NOT EXISTS (SELECT 1 FROM budgets d WHERE d.user_id = b.user_id AND d.category = b.category " +
+                "AND d.start_date = (b.end_date + 1 + k * p.step)::date) " +
+                "RETURNING id";
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Dua perangkat milik user yang sama tidak boleh membuat periode yang sama bersamaan
+                try (PreparedStatement lock = conn.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+                    lock.setInt(1, ROLLOVER_LOCK_CLASS);
+                    lock.setInt(2, userId);
+                    lock.execute();
+                }
+
+                List<Integer> createdIds;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, MAX_ROLLOVER_PERIODS - 1);
+                    stmt.setInt(2, userId);
+                    stmt.setDate(3, Date.valueOf(today));
+                    stmt.setDate(4, Date.valueOf(today));
+                    createdIds = readIds(stmt);
+                }
+
+                recomputeSpentAmountsByIds(conn, createdIds);
+                conn.commit();
+                return createdIds;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Pengeluaran harian kategori setiap budget, dari historyDays sebelum start_date sampai asOf,
+    // untuk banyak budget sekaligus dalam satu query. Hari tanpa transaksi tidak ada di hasil.
+    public Map<Integer, Map<LocalDate, Money>> getDailySpend(List<Integer> budgetIds, int historyDays,
+                                                             LocalDate asOf, Integer userId) throws SQLException {
+        Map<Integer, Map<LocalDate, Money>> result = new HashMap<>();
+        if (budgetIds.isEmpty()) {
+            return result;
+        }
+        String sql = "SELECT b.id AS budget_id, t.transaction_date, SUM(t.amount) AS total " +
+                "FROM budgets b " +
+                "JOIN categories c ON c.name = b.category " +
+                "JOIN transactions t ON t.user_id = b.user_id AND t.category_id = c.categories_id " +
+                "AND t.type = 'OUTCOME' AND t.transaction_date BETWEEN b.start_date - ? AND LEAST(b.end_date, ?) " +
+                "WHERE b.user_id = ? AND b.id = ANY (?) " +
+                "GROUP BY b.id, t.transaction_date";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            stmt.setInt(1, historyDays);
+            stmt.setDate(2, Date.valueOf(asOf));
+            stmt.setInt(3, userId);
+            stmt.setArray(4, conn.createArrayOf("integer", budgetIds.toArray()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    result.computeIfAbsent(rs.getInt("budget_id"), id -> new HashMap<>())
+                            .put(rs.getDate("transaction_date").toLocalDate(), MoneyColumns.getOrZero(rs, "total"));
+                }
+            }
         }
+        return result;
     }
 
     // Calculate total spent for category in date range
-    public double getTotalSpentByCategory(String category, LocalDate startDate, LocalDate endDate) throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM transactions WHERE category = ? AND type = 'expense' AND date BETWEEN ? AND ?";
+    // Budget menyimpan nama kategori, transaksi menyimpan category_id, jadi dicocokkan lewat tabel categories
+    public Money getTotalSpentByCategory(String category, LocalDate startDate, LocalDate endDate, Integer userId) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(t.amount), 0) as total FROM transactions t " +
+                "JOIN categories c ON c.categories_id = t.category_id " +
+                "WHERE t.user_id = ? AND c.name = ? AND t.type = 'OUTCOME' AND t.transaction_date BETWEEN ? AND ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, category);
-            stmt.setDate(2, Date.valueOf(startDate));
-            stmt.setDate(3, Date.valueOf(endDate));
+            stmt.setInt(1, userId);
+            stmt.setString(2, category);
+            stmt.setDate(3, Date.valueOf(startDate));
+            stmt.setDate(4, Date.valueOf(endDate));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getDouble("total");
+                    return MoneyColumns.getOrZero(rs, "total");
                 }
             }
         }
-        return 0.0;
+        return Money.ZERO;
+    }
+
+    private Budget mapResultSetToBudget(ResultSet rs) throws SQLException {
+        return new Budget(
+                rs.getInt("id"),
+                (Integer) rs.getObject("user_id"),
+                rs.getString("category"),
+                MoneyColumns.getOrZero(rs, "limit_amount"),
+                MoneyColumns.getOrZero(rs, "spent_amount"),
+                rs.getDate("start_date").toLocalDate(),
+                rs.getDate("end_date").toLocalDate(),
+                rs.getString("period"),
+                rs.getBoolean("is_active")
+        );
+    }
+
+    // Perubahan pengeluaran satu kategori milik satu user pada satu tanggal
+    public static class SpendDelta {
+        private final Integer userId;
+        private final Integer categoryId;
+        private final LocalDate date;
+        private final Money amount;
+
+        public SpendDelta(Integer userId, Integer categoryId, LocalDate date, Money amount) {
+            this.userId = userId;
+            this.categoryId = categoryId;
+            this.date = date;
+            this.amount = amount;
+        }
+
+        public Integer getUserId() { return userId; }
+        public Integer getCategoryId() { return categoryId; }
+        public LocalDate getDate() { return date; }
+        public Money getAmount() { return amount; }
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,11 @@ import com.example.ismoney.model.Category;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class CategoryDAO {
     private DatabaseConfig dbConfig;
@@ -122,6 +126,32 @@ public class CategoryDAO {
         return null;
     }
 
+    // Resolve banyak nama kategori sekaligus dengan satu query (case-insensitive).
+    // Key map = nama dalam huruf kecil; nama yang tidak ditemukan tidak ada di map.
+    public Map<String, Integer> getCategoryIdsByNames(Collection<String> names) throws SQLException {
+        Map<String, Integer> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+
+        String sql = "SELECT categories_id, name FROM categories WHERE LOWER(name) = ANY(?) ORDER BY categories_id";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            String[] lowerNames = names.stream().map(name -> name.toLowerCase(Locale.ROOT)).distinct().toArray(String[]::new);
+            stmt.setArray(1, conn.createArrayOf("text", lowerNames));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // Kalau ada nama kembar, pakai kategori dengan ID terkecil
+                    ids.putIfAbsent(rs.getString("name").toLowerCase(Locale.ROOT), rs.getInt("categories_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
     // UPDATE
     public boolean updateCategory(Category category) {
         String sql = "UPDATE categories SET name = ?, type = ?, color = ? WHERE categories_id = ?";
@@ -0,0 +1,118 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.SchemaCatalog;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+// Bagian bersama delta sync (updated_at + tombstone deleted_rows, lihat migrasi V6).
+// Watermark selalu diambil dari jam server, bukan jam client.
+public final class DeltaSync {
+
+    // Watermark sudah aman terhadap commit yang lambat (lihat WATERMARK_SQL); margin kecil ini hanya
+    // untuk pembulatan presisi timestamp. Baris yang terambil dua kali tidak masalah karena merge
+    // di client idempotent.
+    static final Duration SKEW_MARGIN = Duration.ofSeconds(1);
+
+    // Tombstone lebih tua dari ini dihapus. Client yang watermark-nya lebih tua (mis. aplikasi
+    // dibiarkan terbuka berminggu-minggu) tidak bisa lagi tahu apa yang dihapus, jadi harus load penuh.
+    static final Duration TOMBSTONE_RETENTION = Duration.ofDays(30);
+    // Watermark dianggap kedaluwarsa sedikit sebelum tombstone-nya benar-benar dihapus
+    private static final Duration EXPIRY_MARGIN = Duration.ofDays(1);
+
+    // updated_at diisi clock_timestamp() saat baris ditulis, tapi baru terlihat saat transaksinya
+    // commit, yang bisa jauh belakangan (import CSV besar, batch lewat pooler). Watermark karena itu
+    // tidak boleh melewati awal transaksi tulis yang masih terbuka: semua baris yang nanti di-commit
+    // transaksi itu punya updated_at >= xact_start-nya, jadi pasti terambil di fetch berikutnya.
+    // backend_xid hanya terisi untuk transaksi yang sudah menulis. pg_stat_activity hanya
+    // menampilkan xact_start sesi role yang sama, dan semua penulisan aplikasi memakai satu role.
+    private static final String WATERMARK_SQL =
+            "SELECT LEAST(clock_timestamp(), " +
+            "(SELECT MIN(xact_start) FROM pg_stat_activity WHERE backend_xid IS NOT NULL AND pid <> pg_backend_pid()))";
+
+    private DeltaSync() {}
+
+    // Watermark yang dibuang karena tombstone-nya sudah dihapus; pemanggil harus load penuh
+    public static class WatermarkExpiredException extends SQLException {
+        public WatermarkExpiredException(Instant watermark) {
+            super("Watermark delta sync " + watermark + " lebih tua dari retensi tombstone, perlu load penuh");
+        }
+    }
+
+    // Butuh kolom updated_at dan tabel deleted_rows dari migrasi V6
+    public static boolean isAvailable(String table) {
+        SchemaCatalog catalog = SchemaCatalog.getInstance();
+        return catalog.hasColumn(table, "updated_at") && catalog.hasTable("deleted_rows");
+    }
+
+    // Watermark awal, diambil sebelum load penuh supaya perubahan selama load tidak terlewat
+    public static Instant currentWatermark() throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            return nextWatermark(conn);
+        }
+    }
+
+    static Instant nextWatermark(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(WATERMARK_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toInstant();
+        }
+    }
+
+    // Dipanggil di awal setiap fetchChangesSince
+    static void checkNotExpired(Connection conn, Instant watermark) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT clock_timestamp()");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            Instant oldestSafe = rs.getTimestamp(1).toInstant().minus(TOMBSTONE_RETENTION).plus(EXPIRY_MARGIN);
+            if (watermark.isBefore(oldestSafe)) {
+                throw new WatermarkExpiredException(watermark);
+            }
+        }
+    }
+
+    static Timestamp since(Instant watermark) {
+        return Timestamp.from(watermark.minus(SKEW_MARGIN));
+    }
+
+    static Set<Integer> loadTombstones(Connection conn, String table, Integer userId, Instant watermark) throws SQLException {
+        String sql = "SELECT row_id FROM deleted_rows WHERE user_id = ? AND table_name = ? AND deleted_at > ?";
+
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, table);
+            stmt.setTimestamp(3, since(watermark));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt("row_id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Hapus tombstone yang lewat masa retensi supaya deleted_rows tidak tumbuh tanpa batas.
+    // Aman dijalankan dari banyak client sekaligus; dipanggil sekali setiap login.
+    public static int purgeExpiredTombstones() throws SQLException {
+        if (!SchemaCatalog.getInstance().hasTable("deleted_rows")) {
+            return 0;
+        }
+        String sql = "DELETE FROM deleted_rows WHERE deleted_at < clock_timestamp() - ?::interval";
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, TOMBSTONE_RETENTION.toDays() + " days");
+            int purged = stmt.executeUpdate();
+            if (purged > 0) {
+                System.out.println("Purged " + purged + " expired delta sync tombstone(s)");
+            }
+            return purged;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.model.Money;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+// Baca/tulis Money ke kolom NUMERIC. Selalu lewat BigDecimal supaya nilai tidak pernah
+// melewati double di jalur database.
+final class MoneyColumns {
+
+    private MoneyColumns() {}
+
+    static Money get(ResultSet rs, String column) throws SQLException {
+        return Money.of(rs.getBigDecimal(column));
+    }
+
+    static Money get(ResultSet rs, int column) throws SQLException {
+        return Money.of(rs.getBigDecimal(column));
+    }
+
+    // NULL kolom menjadi Money.ZERO, untuk SUM/COALESCE dan kolom yang wajib isi
+    static Money getOrZero(ResultSet rs, String column) throws SQLException {
+        Money money = get(rs, column);
+        return money != null ? money : Money.ZERO;
+    }
+
+    static void set(PreparedStatement stmt, int index, Money money) throws SQLException {
+        if (money == null) {
+            stmt.setNull(index, Types.NUMERIC);
+        } else {
+            stmt.setBigDecimal(index, money.toBigDecimal());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.SchemaCatalog;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionType;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Tabel monthly_rollups: total dan jumlah transaksi per (user, bulan, kategori, tipe).
+// Delta selalu diterapkan dengan Connection milik pemanggil supaya ikut transaksi
+// database yang sama dengan perubahan di tabel transactions.
+public class MonthlyRollupDAO {
+
+    // Kunci advisory (kelas, user_id) untuk rollup satu user. Setiap delta mengambilnya shared di
+    // statement upsert itu sendiri (tanpa round trip tambahan), rebuild mengambilnya exclusive.
+    // Penulis yang sudah memegang kunci shared membuat rebuild menunggu sampai commit, jadi
+    // transaksinya terlihat oleh agregasi ulang; penulis yang datang sesudahnya menunggu rebuild
+    // selesai lalu menambahkan delta-nya di atas hasil rebuild. User lain tidak ikut menunggu.
+    private static final int ROLLUP_LOCK_CLASS = 0x49534D52;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO monthly_rollups (user_id, year_month, category_id, type, total, count) " +
+            "SELECT ?, ?::date, ?, ?, ?, ? FROM (SELECT pg_advisory_xact_lock_shared(" + ROLLUP_LOCK_CLASS + ", ?)) l WHERE true " +
+            "ON CONFLICT (user_id, year_month, category_id, type) DO UPDATE SET " +
+            "total = monthly_rollups.total + EXCLUDED.total, " +
+            "count = monthly_rollups.count + EXCLUDED.count";
+
+    // Agregasi ulang dari tabel transactions, dipakai rebuild dan verify
+    private static final String SOURCE_SQL =
+            "SELECT user_id, date_trunc('month', transaction_date)::date AS year_month, category_id, " +
+            "UPPER(type) AS type, SUM(amount) AS total, COUNT(*) AS count " +
+            "FROM transactions WHERE user_id = ? GROUP BY 1, 2, 3, 4";
+
+    // INSERT ... SELECT ke monthly_rollups dengan upsert yang sama seperti applyDelta.
+    // selectSql harus menghasilkan kolom (user_id, year_month, category_id, type, total, count)
+    // dengan kunci yang unik, mis. hasil GROUP BY. Kunci rollup user diambil shared per baris.
+    public static String upsertFromSelect(String selectSql) {
+        return "INSERT INTO monthly_rollups (user_id, year_month, category_id, type, total, count) " +
+                "SELECT s.* FROM (" + selectSql + ") s (user_id, year_month, category_id, type, total, count) " +
+                "CROSS JOIN LATERAL (SELECT pg_advisory_xact_lock_shared(" + ROLLUP_LOCK_CLASS + ", s.user_id)) l " +
+                // WHERE true: tanpa ini parser membaca ON CONFLICT sebagai kondisi JOIN
+                "WHERE true " +
+                "ON CONFLICT (user_id, year_month, category_id, type) DO UPDATE SET " +
+                "total = monthly_rollups.total + EXCLUDED.total, " +
+                "count = monthly_rollups.count + EXCLUDED.count";
+    }
+
+    // Rollup hanya dipakai kalau migrasinya sudah diterapkan
+    public static boolean isAvailable() {
+        return SchemaCatalog.getInstance().hasTable("monthly_rollups");
+    }
+
+    // Untuk penulisan transaksi: katalog yang gagal dimuat membuat penulisan gagal, karena delta
+    // yang dilewati membuat monthly_rollups melenceng permanen
+    public static boolean isMaintained() throws SQLException {
+        return SchemaCatalog.getInstance().probeTable("monthly_rollups");
+    }
+
+    public void applyInsert(Connection conn, Transaction transaction) throws SQLException {
+        applyDelta(conn, transaction.getUserId(), transaction.getTransactionDate(), transaction.getCategoryId(),
+                transaction.getType(), transaction.getAmount(), 1);
+    }
+
+    public void applyRemoval(Connection conn, Transaction transaction) throws SQLException {
+        applyDelta(conn, transaction.getUserId(), transaction.getTransactionDate(), transaction.getCategoryId(),
+                transaction.getType(), transaction.getAmount().negate(), -1);
+    }
+
+    public void applyDelta(Connection conn, Integer userId, LocalDate transactionDate, Integer categoryId,
+                           TransactionType type, Money amountDelta, int countDelta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(YearMonth.from(transactionDate).atDay(1)));
+            stmt.setInt(3, categoryId);
+            stmt.setString(4, type.toString());
+            MoneyColumns.set(stmt, 5, amountDelta);
+            stmt.setInt(6, countDelta);
+            stmt.setInt(7, userId);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Delta untuk banyak transaksi baru sekaligus: dijumlah dulu per kunci rollup,
+    // lalu satu upsert per kunci dalam satu batch
+    public void applyInserts(Connection conn, List<Transaction> transactions) throws SQLException {
+        Map<RollupKey, Money> totals = new LinkedHashMap<>();
+        Map<RollupKey, Integer> counts = new HashMap<>();
+
+        for (Transaction transaction : transactions) {
+            RollupKey key = new RollupKey(transaction.getUserId(), YearMonth.from(transaction.getTransactionDate()),
+                    transaction.getCategoryId(), transaction.getType());
+            totals.merge(key, transaction.getAmount(), Money::plus);
+            counts.merge(key, 1, Integer::sum);
+        }
+
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<RollupKey, Money> entry : totals.entrySet()) {
+                RollupKey key = entry.getKey();
+                stmt.setInt(1, key.userId);
+                stmt.setDate(2, Date.valueOf(key.yearMonth.atDay(1)));
+                stmt.setInt(3, key.categoryId);
+                stmt.setString(4, key.type.toString());
+                MoneyColumns.set(stmt, 5, entry.getValue());
+                stmt.setInt(6, counts.get(key));
+                stmt.setInt(7, key.userId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Hitung ulang seluruh rollup milik user dari tabel transactions; hapus dan isi ulang
+    // dalam satu transaksi di bawah kunci exclusive user tersebut
+    public void rebuild(Integer userId) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Hanya delta milik user ini yang ditahan sampai rebuild selesai
+                try (PreparedStatement lock = conn.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+                    lock.setInt(1, ROLLUP_LOCK_CLASS);
+                    lock.setInt(2, userId);
+                    lock.execute();
+                }
+
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM monthly_rollups WHERE user_id = ?")) {
+                    delete.setInt(1, userId);
+                    delete.executeUpdate();
+                }
+
+                try (PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO monthly_rollups (user_id, year_month, category_id, type, total, count) " + SOURCE_SQL)) {
+                    insert.setInt(1, userId);
+                    int rows = insert.executeUpdate();
+                    System.out.println("Rebuilt " + rows + " monthly rollup rows for user " + userId);
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    public void rebuildAll() throws SQLException {
+        for (Integer userId : getUserIdsWithTransactions()) {
+            rebuild(userId);
+        }
+    }
+
+    // Bandingkan rollup dengan agregasi langsung; baris kosong (count dan total 0) dianggap tidak ada
+    public List<RollupMismatch> verify(Integer userId) throws SQLException {
+        String sql = "WITH expected AS (" + SOURCE_SQL + "), " +
+                "actual AS (SELECT user_id, year_month, category_id, type, total, count FROM monthly_rollups " +
+                "           WHERE user_id = ? AND (count <> 0 OR total <> 0)) " +
+                "SELECT COALESCE(e.year_month, a.year_month) AS year_month, " +
+                "COALESCE(e.category_id, a.category_id) AS category_id, COALESCE(e.type, a.type) AS type, " +
+                "e.total AS expected_total, a.total AS actual_total, " +
+                "COALESCE(e.count, 0) AS expected_count, COALESCE(a.count, 0) AS actual_count " +
+                "FROM expected e FULL OUTER JOIN actual a " +
+                "ON e.year_month = a.year_month AND e.category_id = a.category_id AND e.type = a.type " +
+                "WHERE e.total IS DISTINCT FROM a.total OR e.count IS DISTINCT FROM a.count " +
+                "ORDER BY 1, 2, 3";
+
+        List<RollupMismatch> mismatches = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+            stmt.setInt(2, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    mismatches.add(new RollupMismatch(
+                            userId,
+                            YearMonth.from(rs.getDate("year_month").toLocalDate()),
+                            rs.getInt("category_id"),
+                            rs.getString("type"),
+                            MoneyColumns.getOrZero(rs, "expected_total"),
+                            MoneyColumns.getOrZero(rs, "actual_total"),
+                            rs.getInt("expected_count"),
+                            rs.getInt("actual_count")));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    public List<RollupMismatch> verifyAll() throws SQLException {
+        List<RollupMismatch> mismatches = new ArrayList<>();
+        for (Integer userId : getUserIdsWithTransactions()) {
+            mismatches.addAll(verify(userId));
+        }
+        return mismatches;
+    }
+
+    private List<Integer> getUserIdsWithTransactions() throws SQLException {
+        String sql = "SELECT DISTINCT user_id FROM transactions UNION SELECT DISTINCT user_id FROM monthly_rollups";
+        List<Integer> userIds = new ArrayList<>();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                userIds.add(rs.getInt("user_id"));
+            }
+        }
+        return userIds;
+    }
+
+    // Perintah maintenance: verify [userId] | rebuild [userId]
+    public static void main(String[] args) throws SQLException {
+        if (args.length == 0 || !(args[0].equals("verify") || args[0].equals("rebuild"))) {
+            System.out.println("Usage: MonthlyRollupDAO verify|rebuild [userId]");
+            return;
+        }
+
+        MonthlyRollupDAO dao = new MonthlyRollupDAO();
+        Integer userId = args.length > 1 ? Integer.valueOf(args[1]) : null;
+
+        try {
+            if (args[0].equals("rebuild")) {
+                if (userId != null) {
+                    dao.rebuild(userId);
+                } else {
+                    dao.rebuildAll();
+                }
+            }
+
+            List<RollupMismatch> mismatches = userId != null ? dao.verify(userId) : dao.verifyAll();
+            mismatches.forEach(System.out::println);
+            System.out.println(mismatches.isEmpty()
+                    ? "Monthly rollups are consistent"
+                    : mismatches.size() + " monthly rollup mismatch(es) found");
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    private static final class RollupKey {
+        private final Integer userId;
+        private final YearMonth yearMonth;
+        private final Integer categoryId;
+        private final TransactionType type;
+
+        private RollupKey(Integer userId, YearMonth yearMonth, Integer categoryId, TransactionType type) {
+            this.userId = userId;
+            this.yearMonth = yearMonth;
+            this.categoryId = categoryId;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey other = (RollupKey) o;
+            return userId.equals(other.userId) && yearMonth.equals(other.yearMonth)
+                    && categoryId.equals(other.categoryId) && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, yearMonth, categoryId, type);
+        }
+    }
+
+    public static class RollupMismatch {
+        private final Integer userId;
+        private final YearMonth yearMonth;
+        private final Integer categoryId;
+        private final String type;
+        private final Money expectedTotal;
+        private final Money actualTotal;
+        private final int expectedCount;
+        private final int actualCount;
+
+        public RollupMismatch(Integer userId, YearMonth yearMonth, Integer categoryId, String type,
+                              Money expectedTotal, Money actualTotal, int expectedCount, int actualCount) {
+            this.userId = userId;
+            this.yearMonth = yearMonth;
+            this.categoryId = categoryId;
+            this.type = type;
+            this.expectedTotal = expectedTotal;
+            this.actualTotal = actualTotal;
+            this.expectedCount = expectedCount;
+            this.actualCount = actualCount;
+        }
+
+        public Integer getUserId() { return userId; }
+        public YearMonth getYearMonth() { return yearMonth; }
+        public Integer getCategoryId() { return categoryId; }
+        public String getType() { return type; }
+        public Money getExpectedTotal() { return expectedTotal; }
+        public Money getActualTotal() { return actualTotal; }
+        public int getExpectedCount() { return expectedCount; }
+        public int getActualCount() { return actualCount; }
+
+        @Override
+        public String toString() {
+            return "RollupMismatch{user=" + userId + ", month=" + yearMonth + ", category=" + categoryId +
+                    ", type=" + type + ", total=" + actualTotal + " (expected " + expectedTotal + ")" +
+                    ", count=" + actualCount + " (expected " + expectedCount + ")}";
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.ismoney.dao;
 
 import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.model.ChangeSet;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.model.SavingGoal;
 
-import java.math.BigDecimal;
 import java.sql.*;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class SavingGoalDAO {
     private DatabaseConfig dbConfig;
@@ -22,8 +25,8 @@ public class SavingGoalDAO {
         goal.setGoalId(rs.getInt("goal_id"));
         goal.setUserId(rs.getInt("user_id"));
         goal.setGoalName(rs.getString("goal_name"));
-        goal.setTargetAmount(rs.getBigDecimal("target_amount"));
-        goal.setCurrentAmount(rs.getBigDecimal("current_amount"));
+        goal.setTargetAmount(MoneyColumns.getOrZero(rs, "target_amount"));
+        goal.setCurrentAmount(MoneyColumns.getOrZero(rs, "current_amount"));
         goal.setTargetDate(rs.getDate("target_date").toLocalDate());
         goal.setCreatedDate(rs.getDate("created_date").toLocalDate());
         goal.setStatus(rs.getString("status"));
@@ -38,8 +41,8 @@ public class SavingGoalDAO {
 
             stmt.setInt(1, goal.getUserId());
             stmt.setString(2, goal.getGoalName());
-            stmt.setBigDecimal(3, goal.getTargetAmount());
-            stmt.setBigDecimal(4, goal.getCurrentAmount());
+            MoneyColumns.set(stmt, 3, goal.getTargetAmount());
+            MoneyColumns.set(stmt, 4, goal.getCurrentAmount());
             stmt.setDate(5, Date.valueOf(goal.getTargetDate()));
             stmt.setDate(6, Date.valueOf(goal.getCreatedDate()));
             stmt.setString(7, goal.getStatus());
@@ -82,6 +85,31 @@ public class SavingGoalDAO {
         return goals;
     }
 
+    // Delta sync: goal yang berubah dan ID yang dihapus sejak watermark
+    public ChangeSet<SavingGoal> fetchChangesSince(Integer userId, Instant watermark) throws SQLException {
+        String sql = "SELECT goal_id, user_id, goal_name, target_amount, current_amount, target_date, created_date, status " +
+                "FROM saving_goals WHERE user_id = ? AND updated_at > ?";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            DeltaSync.checkNotExpired(conn, watermark);
+            Instant nextWatermark = DeltaSync.nextWatermark(conn);
+
+            List<SavingGoal> changed = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setTimestamp(2, DeltaSync.since(watermark));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(mapResultSetToSavingGoal(rs));
+                    }
+                }
+            }
+
+            Set<Integer> deleted = DeltaSync.loadTombstones(conn, "saving_goals", userId, watermark);
+            return new ChangeSet<>(changed, deleted, nextWatermark);
+        }
+    }
+
     public List<SavingGoal> getActiveSavingGoalsByUserId(Integer userId) throws SQLException {
         List<SavingGoal> savingGoals = new ArrayList<>();
         String sql = "SELECT goal_id, user_id, goal_name, target_amount, current_amount, target_date, created_date, status FROM saving_goals WHERE user_id = ? AND status = 'ACTIVE' ORDER BY target_date ASC";
@@ -162,8 +190,8 @@ public class SavingGoalDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, goal.getGoalName());
-            stmt.setBigDecimal(2, goal.getTargetAmount());
-            stmt.setBigDecimal(3, goal.getCurrentAmount());
+            MoneyColumns.set(stmt, 2, goal.getTargetAmount());
+            MoneyColumns.set(stmt, 3, goal.getCurrentAmount());
             stmt.setDate(4, Date.valueOf(goal.getTargetDate()));
             stmt.setString(5, goal.getStatus());
             stmt.setInt(6, goal.getGoalId());
@@ -178,13 +206,13 @@ public class SavingGoalDAO {
         }
     }
 
-    public boolean addSavingToGoal(int goalId, BigDecimal amount, Integer userId) {
+    public boolean addSavingToGoal(int goalId, Money amount, Integer userId) {
         String sql = "UPDATE saving_goals SET current_amount = current_amount + ? WHERE goal_id = ? AND user_id = ?";
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setBigDecimal(1, amount);
+            MoneyColumns.set(stmt, 1, amount);
             stmt.setInt(2, goalId);
             stmt.setInt(3, userId);
 
@@ -0,0 +1,132 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.TransactionType;
+
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Total transaksi yang sudah diagregasi di database (GROUP BY), supaya controller
+// cukup menerima beberapa angka, bukan ribuan objek Transaction. Periode yang pas per
+// bulan dibaca dari monthly_rollups (O(bulan)), selain itu langsung dari transactions.
+public class TransactionAggregateDAO {
+
+    // Total pemasukan dan pengeluaran user dalam periode
+    public Map<TransactionType, Money> getTotalsByType(Integer userId, DateRange range) throws SQLException {
+        String sql;
+        if (useRollups(range)) {
+            sql = "SELECT type, COALESCE(SUM(total), 0) AS total FROM monthly_rollups " +
+                    "WHERE user_id = ? AND year_month >= ? AND year_month < ? " +
+                    "GROUP BY type";
+        } else {
+            sql = "SELECT type, COALESCE(SUM(amount), 0) AS total FROM transactions " +
+                    "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? " +
+                    "GROUP BY type";
+        }
+
+        Map<TransactionType, Money> totals = emptyTypeTotals();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindUserAndRange(stmt, userId, range);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(TransactionType.valueOf(rs.getString("type").toUpperCase()), MoneyColumns.getOrZero(rs, "total"));
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Total per bulan per tipe, untuk grafik; bulan tanpa transaksi tidak muncul di map
+    public Map<YearMonth, Map<TransactionType, Money>> getMonthlyTotals(Integer userId, DateRange range) throws SQLException {
+        String sql;
+        if (useRollups(range)) {
+            sql = "SELECT year_month AS month, type, SUM(total) AS total " +
+                    "FROM monthly_rollups " +
+                    "WHERE user_id = ? AND year_month >= ? AND year_month < ? " +
+                    "GROUP BY 1, 2 ORDER BY 1";
+        } else {
+            sql = "SELECT date_trunc('month', transaction_date)::date AS month, type, SUM(amount) AS total " +
+                    "FROM transactions " +
+                    "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? " +
+                    "GROUP BY 1, 2 ORDER BY 1";
+        }
+
+        Map<YearMonth, Map<TransactionType, Money>> totals = new TreeMap<>();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindUserAndRange(stmt, userId, range);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = YearMonth.from(rs.getDate("month").toLocalDate());
+                    totals.computeIfAbsent(month, m -> emptyTypeTotals())
+                            .put(TransactionType.valueOf(rs.getString("type").toUpperCase()), MoneyColumns.getOrZero(rs, "total"));
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Total per kategori (category_id) untuk satu tipe transaksi
+    public Map<Integer, Money> getTotalsByCategory(Integer userId, DateRange range, TransactionType type) throws SQLException {
+        String sql;
+        if (useRollups(range)) {
+            sql = "SELECT category_id, SUM(total) AS total FROM monthly_rollups " +
+                    "WHERE user_id = ? AND year_month >= ? AND year_month < ? AND type = ? " +
+                    "GROUP BY category_id";
+        } else {
+            sql = "SELECT category_id, SUM(amount) AS total FROM transactions " +
+                    "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? AND type = ? " +
+                    "GROUP BY category_id";
+        }
+
+        Map<Integer, Money> totals = new HashMap<>();
+
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindUserAndRange(stmt, userId, range);
+            stmt.setString(4, type.toString());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getInt("category_id"), MoneyColumns.getOrZero(rs, "total"));
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Rollup hanya bisa menjawab periode yang dimulai dan berakhir di awal bulan
+    private boolean useRollups(DateRange range) {
+        return range.getStart().getDayOfMonth() == 1
+                && range.getEndExclusive().getDayOfMonth() == 1
+                && MonthlyRollupDAO.isAvailable();
+    }
+
+    private void bindUserAndRange(PreparedStatement stmt, Integer userId, DateRange range) throws SQLException {
+        stmt.setInt(1, userId);
+        stmt.setDate(2, Date.valueOf(range.getStart()));
+        stmt.setDate(3, Date.valueOf(range.getEndExclusive()));
+    }
+
+    private static Map<TransactionType, Money> emptyTypeTotals() {
+        Map<TransactionType, Money> totals = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TransactionType.values()) {
+            totals.put(type, Money.ZERO);
+        }
+        return totals;
+    }
+}
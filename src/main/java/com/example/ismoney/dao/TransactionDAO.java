@@ -1,49 +1,95 @@
 package com.example.ismoney.dao;
 
 import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.SchemaCatalog;
+import com.example.ismoney.model.ChangeSet;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
 import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionEvent;
+import com.example.ismoney.model.TransactionPage;
 import com.example.ismoney.model.TransactionType;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.TreeMap;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class TransactionDAO {
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, user_id, category_id, amount, transaction_date, note, type";
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (user_id, amount, type, category_id, note, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+    // Jumlah baris per round trip saat streaming
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private DatabaseConfig dbConfig;
+    private final MonthlyRollupDAO rollupDAO = new MonthlyRollupDAO();
 
     //Inisialisasi koneksi database
     public TransactionDAO() {
         this.dbConfig = DatabaseConfig.getInstance();
     }
 
-    //menyimpan transaksi baru ke database
-    public boolean saveTransaction(Transaction transaction) {
-        String sql = "INSERT INTO transactions (user_id, amount, type, category_id, note, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+    private Transaction mapResultSetToTransaction(ResultSet rs) throws SQLException {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(rs.getInt("transaction_id"));
+        transaction.setUserId(rs.getInt("user_id"));
+        transaction.setCategoryId(rs.getInt("category_id"));
+        transaction.setAmount(MoneyColumns.get(rs, "amount"));
+        transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
+        transaction.setNote(rs.getString("note"));
+        transaction.setType(TransactionType.valueOf(rs.getString("type").toUpperCase()));
+        return transaction;
+    }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    //menyimpan transaksi baru ke database, rollup bulanan dan listener TransactionEvents
+    //(mis. spent_amount budget) ikut diperbarui di transaksi yang sama
+    public boolean saveTransaction(Transaction transaction) {
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, transaction.getUserId());
-            stmt.setBigDecimal(2, transaction.getAmount());
-            stmt.setString(3, transaction.getType().toString()); // INCOME atau OUTCOME
-            stmt.setInt(4, transaction.getCategoryId());
-            stmt.setString(5, transaction.getNote());
-            stmt.setDate(6, Date.valueOf(transaction.getTransactionDate()));
+                bindInsert(stmt, transaction);
 
-            int rowsAffected = stmt.executeUpdate();
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
 
-            if (rowsAffected > 0) {
                 // Ambil ID yang auto-generated
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    transaction.setTransactionId(generatedKeys.getInt(1));
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        transaction.setTransactionId(generatedKeys.getInt(1));
+                    }
                 }
+
+                if (MonthlyRollupDAO.isMaintained()) {
+                    rollupDAO.applyInsert(conn, transaction);
+                }
+
+                List<TransactionEvent> events = List.of(TransactionEvent.created(transaction));
+                TransactionEvents.publish(conn, events);
+
+                conn.commit();
+                TransactionEvents.afterCommit(events);
                 System.out.println("Transaction saved successfully with ID: " + transaction.getTransactionId());
                 return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                TransactionEvents.discard();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
 
         } catch (SQLException e) {
@@ -54,29 +100,133 @@ public class TransactionDAO {
         return false;
     }
 
-    //Mengambil semua transksi berdasarkan useer Id
-    public List<Transaction> getTransactionsByUserId(Integer userId) {
-        List<Transaction> transactions = new ArrayList<>();
+    private void bindInsert(PreparedStatement stmt, Transaction transaction) throws SQLException {
+        stmt.setInt(1, transaction.getUserId());
+        MoneyColumns.set(stmt, 2, transaction.getAmount());
+        stmt.setString(3, transaction.getType().toString()); // INCOME atau OUTCOME
+        stmt.setInt(4, transaction.getCategoryId());
+        stmt.setString(5, transaction.getNote());
+        stmt.setDate(6, Date.valueOf(transaction.getTransactionDate()));
+    }
 
-        String checkColumnSql = "SELECT column_name FROM information_schema.columns WHERE table_name = 'transactions' AND column_name = 'created_at'";
-        boolean hasCreatedAt = false;
+    public BatchResult saveTransactions(List<Transaction> transactions) {
+        return saveTransactions(transactions, DEFAULT_BATCH_CHUNK_SIZE);
+    }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement checkStmt = conn.prepareStatement(checkColumnSql);
-             ResultSet checkRs = checkStmt.executeQuery()) {
+    // Simpan banyak transaksi dalam satu transaksi database, dikirim per chunk lewat executeBatch
+    // (di-rewrite driver jadi INSERT multi-VALUES). Chunk yang gagal diulang per baris dengan
+    // savepoint, jadi baris yang valid tetap tersimpan dan kegagalan dilaporkan per indeks.
+    public BatchResult saveTransactions(List<Transaction> transactions, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize harus lebih dari 0");
+        }
 
-            hasCreatedAt = checkRs.next();
+        BatchResult result = new BatchResult(transactions.size());
+        if (transactions.isEmpty()) {
+            return result;
+        }
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, new String[]{"transaction_id"})) {
+
+                for (int from = 0; from < transactions.size(); from += chunkSize) {
+                    int to = Math.min(from + chunkSize, transactions.size());
+                    Savepoint chunkSavepoint = conn.setSavepoint();
+                    try {
+                        for (Transaction transaction : transactions.subList(from, to)) {
+                            bindInsert(stmt, transaction);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+
+                        // Generated keys dikembalikan sesuai urutan baris di batch. Baru dicatat ke result
+                        // setelah savepoint dilepas: kalau baca key atau release gagal, chunk di-rollback dan
+                        // diulang per baris, dan baris yang sama tidak boleh tercatat dua kali
+                        int[] chunkIds = new int[to - from];
+                        int keyCount = 0;
+                        try (ResultSet keys = stmt.getGeneratedKeys()) {
+                            while (keyCount < chunkIds.length && keys.next()) {
+                                chunkIds[keyCount++] = keys.getInt(1);
+                            }
+                        }
+                        conn.releaseSavepoint(chunkSavepoint);
+                        for (int k = 0; k < keyCount; k++) {
+                            result.markSaved(from + k, transactions.get(from + k), chunkIds[k]);
+                        }
+                    } catch (SQLException e) {
+                        stmt.clearBatch();
+                        conn.rollback(chunkSavepoint);
+                        System.err.println("Batch chunk " + from + "-" + (to - 1) + " failed, retrying row by row: " + e.getMessage());
+                        insertRowByRow(conn, stmt, transactions, from, to, result);
+                    }
+                }
+
+                if (MonthlyRollupDAO.isMaintained()) {
+                    rollupDAO.applyInserts(conn, result.getSavedTransactions());
+                }
+
+                List<TransactionEvent> events = new ArrayList<>(result.getSavedCount());
+                for (Transaction saved : result.getSavedTransactions()) {
+                    events.add(TransactionEvent.created(saved));
+                }
+                TransactionEvents.publish(conn, events);
+
+                conn.commit();
+                TransactionEvents.afterCommit(events);
+                System.out.println("Batch saved " + result.getSavedCount() + " of " + transactions.size() +
+                        " transactions (" + result.getFailures().size() + " failed)");
+            } catch (SQLException e) {
+                conn.rollback();
+                TransactionEvents.discard();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
 
         } catch (SQLException e) {
-            System.err.println("Error checking column existence: " + e.getMessage());
+            System.err.println("Error saving transaction batch: " + e.getMessage());
+            e.printStackTrace();
+            // Seluruh transaksi database di-rollback, tidak ada baris yang tersimpan
+            result.failAll(e.getMessage());
         }
 
-        String sql;
-        if (hasCreatedAt) {
-            sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, created_at DESC";
-        } else {
-            sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
+        return result;
+    }
+
+    private void insertRowByRow(Connection conn, PreparedStatement stmt, List<Transaction> transactions,
+                                int from, int to, BatchResult result) throws SQLException {
+        for (int i = from; i < to; i++) {
+            Savepoint rowSavepoint = conn.setSavepoint();
+            try {
+                bindInsert(stmt, transactions.get(i));
+                stmt.executeUpdate();
+                Integer generatedId = null;
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        generatedId = keys.getInt(1);
+                    }
+                }
+                conn.releaseSavepoint(rowSavepoint);
+                // Sama seperti per chunk: baris yang di-rollback tidak boleh sudah tercatat tersimpan
+                if (generatedId != null) {
+                    result.markSaved(i, transactions.get(i), generatedId);
+                }
+            } catch (SQLException e) {
+                conn.rollback(rowSavepoint);
+                result.markFailed(i, e.getMessage());
+            }
         }
+    }
+
+    //Mengambil semua transksi berdasarkan useer Id
+    public List<Transaction> getTransactionsByUserId(Integer userId) {
+        List<Transaction> transactions = new ArrayList<>();
+
+        boolean hasCreatedAt = SchemaCatalog.getInstance().hasColumn("transactions", "created_at");
+
+        // Urutan sama dengan index (user_id, transaction_date DESC, transaction_id DESC), jadi tanpa sort
+        String sql = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC, transaction_id DESC";
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -88,7 +238,7 @@ public class TransactionDAO {
                 Transaction transaction = new Transaction();
                 transaction.setTransactionId(rs.getInt("transaction_id"));
                 transaction.setUserId(rs.getInt("user_id"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
+                transaction.setAmount(MoneyColumns.get(rs, "amount"));
                 transaction.setType(TransactionType.valueOf(rs.getString("type")));
                 transaction.setCategoryId(rs.getInt("category_id"));
                 transaction.setNote(rs.getString("note"));
@@ -112,21 +262,109 @@ public class TransactionDAO {
         return transactions;
     }
 
-    //Memperbarui data transaksi yang sudah ada di database
-    public boolean updateTransaction(Transaction transaction) {
-        String sql = "UPDATE transactions SET amount = ?, type = ?, category_id = ?, note = ?, transaction_date = ? WHERE transaction_id = ?";
+    // Keyset pagination: seek langsung ke posisi (transaction_date, transaction_id) cursor
+    // lewat index idx_transactions_user_date, tanpa OFFSET. cursor null = halaman pertama.
+    public TransactionPage getTransactionPage(Integer userId, String cursor, int pageSize) throws SQLException {
+        TransactionPage.Cursor position = cursor != null ? TransactionPage.decodeCursor(cursor) : null;
+
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " " +
+                "FROM transactions " +
+                "WHERE user_id = ? " +
+                (position != null ? "AND (transaction_date, transaction_id) < (?, ?) " : "") +
+                "ORDER BY transaction_date DESC, transaction_id DESC " +
+                "LIMIT ?";
+
+        List<Transaction> transactions = new ArrayList<>(pageSize + 1);
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setBigDecimal(1, transaction.getAmount());
-            stmt.setString(2, transaction.getType().toString());
-            stmt.setInt(3, transaction.getCategoryId());
-            stmt.setString(4, transaction.getNote());
-            stmt.setDate(5, Date.valueOf(transaction.getTransactionDate()));
-            stmt.setInt(6, transaction.getTransactionId());
+            int index = 1;
+            stmt.setInt(index++, userId);
+            if (position != null) {
+                stmt.setDate(index++, Date.valueOf(position.getTransactionDate()));
+                stmt.setInt(index++, position.getTransactionId());
+            }
+            // Ambil satu baris lebih untuk tahu apakah masih ada halaman berikutnya
+            stmt.setInt(index, pageSize + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(mapResultSetToTransaction(rs));
+                }
+            }
+        }
+
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions.remove(pageSize);
+            Transaction last = transactions.get(pageSize - 1);
+            nextCursor = TransactionPage.encodeCursor(last.getTransactionDate(), last.getTransactionId());
+        }
+        return new TransactionPage(transactions, nextCursor);
+    }
+
+    //Memperbarui data transaksi yang sudah ada di database. Baris lama dikunci (FOR UPDATE)
+    //supaya delta rollup dihitung dari nilai yang benar-benar diganti
+    public boolean updateTransaction(Transaction transaction) {
+        String selectSql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE transaction_id = ? FOR UPDATE";
+        String sql = "UPDATE transactions SET amount = ?, type = ?, category_id = ?, note = ?, transaction_date = ? WHERE transaction_id = ?";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Transaction previous = null;
+                try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+                    select.setInt(1, transaction.getTransactionId());
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (rs.next()) {
+                            previous = mapResultSetToTransaction(rs);
+                        }
+                    }
+                }
+
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
 
-            return stmt.executeUpdate() > 0;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    MoneyColumns.set(stmt, 1, transaction.getAmount());
+                    stmt.setString(2, transaction.getType().toString());
+                    stmt.setInt(3, transaction.getCategoryId());
+                    stmt.setString(4, transaction.getNote());
+                    stmt.setDate(5, Date.valueOf(transaction.getTransactionDate()));
+                    stmt.setInt(6, transaction.getTransactionId());
+                    stmt.executeUpdate();
+                }
+
+                Transaction updated = new Transaction();
+                updated.setTransactionId(previous.getTransactionId());
+                updated.setUserId(previous.getUserId());
+                updated.setAmount(transaction.getAmount());
+                updated.setType(transaction.getType());
+                updated.setCategoryId(transaction.getCategoryId());
+                updated.setNote(transaction.getNote());
+                updated.setTransactionDate(transaction.getTransactionDate());
+
+                if (MonthlyRollupDAO.isMaintained()) {
+                    rollupDAO.applyRemoval(conn, previous);
+                    rollupDAO.applyInsert(conn, updated);
+                }
+
+                List<TransactionEvent> events = List.of(TransactionEvent.updated(previous, updated));
+                TransactionEvents.publish(conn, events);
+
+                conn.commit();
+                TransactionEvents.afterCommit(events);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                TransactionEvents.discard();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
 
         } catch (SQLException e) {
             System.err.println("Error updating transaction: " + e.getMessage());
@@ -138,13 +376,43 @@ public class TransactionDAO {
 
     //Menghapus transaksi dari database berdasarkan transaction ID
     public boolean deleteTransaction(Integer transactionId) {
-        String sql = "DELETE FROM transactions WHERE transaction_id = ?";
+        String sql = "DELETE FROM transactions WHERE transaction_id = ? RETURNING " + TRANSACTION_COLUMNS;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Transaction deleted = null;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, transactionId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            deleted = mapResultSetToTransaction(rs);
+                        }
+                    }
+                }
 
-        try (Connection conn = dbConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+                if (deleted == null) {
+                    conn.rollback();
+                    return false;
+                }
+
+                if (MonthlyRollupDAO.isMaintained()) {
+                    rollupDAO.applyRemoval(conn, deleted);
+                }
+
+                List<TransactionEvent> events = List.of(TransactionEvent.deleted(deleted));
+                TransactionEvents.publish(conn, events);
 
-            stmt.setInt(1, transactionId);
-            return stmt.executeUpdate() > 0;
+                conn.commit();
+                TransactionEvents.afterCommit(events);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                TransactionEvents.discard();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
 
         } catch (SQLException e) {
             System.err.println("Error deleting transaction: " + e.getMessage());
@@ -156,7 +424,7 @@ public class TransactionDAO {
 
 
 
-    public BigDecimal getTotalExpense(Integer userId) {
+    public Money getTotalExpense(Integer userId) {
         String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM transactions WHERE user_id = ? AND type = 'OUTCOME'";
 
         try (Connection conn = dbConfig.getConnection();
@@ -166,17 +434,17 @@ public class TransactionDAO {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return rs.getBigDecimal("total");
+                return MoneyColumns.getOrZero(rs, "total");
             }
         } catch (SQLException e) {
             System.err.println("Error getting total expense: " + e.getMessage());
         }
 
-        return BigDecimal.ZERO;
+        return Money.ZERO;
     }
 
     public List<Transaction> getTransactionsByDate(LocalDate date) {
-        String sql = "SELECT * FROM transactions WHERE transaction_date = ? ORDER BY id DESC";
+        String sql = "SELECT * FROM transactions WHERE transaction_date = ? ORDER BY transaction_id DESC";
         List<Transaction> transactions = new ArrayList<>();
 
         try (Connection conn = dbConfig.getConnection();
@@ -188,10 +456,10 @@ public class TransactionDAO {
 
             while (rs.next()) {
                 Transaction transaction = new Transaction();
-                transaction.setTransactionId(rs.getInt("id"));
+                transaction.setTransactionId(rs.getInt("transaction_id"));
                 transaction.setUserId(rs.getInt("user_id"));
                 transaction.setCategoryId(rs.getInt("category_id"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
+                transaction.setAmount(MoneyColumns.get(rs, "amount"));
                 transaction.setType(TransactionType.valueOf(rs.getString("type")));
                 transaction.setNote(rs.getString("note"));
                 transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
@@ -205,34 +473,32 @@ public class TransactionDAO {
         return transactions;
     }
 
-    //mendapatkan tranasksi berdasarkan rentang tanggal
+    //mendapatkan tranasksi berdasarkan rentang tanggal (kedua tanggal inklusif)
     public List<Transaction> getTransactionsByDateRange(LocalDate startDate, LocalDate endDate) {
-        String sql = "SELECT * FROM transactions WHERE transaction_date BETWEEN ? AND ? ORDER BY transaction_date DESC";
+        DateRange range = DateRange.between(startDate, endDate);
+        String sql = "SELECT * FROM transactions WHERE transaction_date >= ? AND transaction_date < ? ORDER BY transaction_date DESC";
         List<Transaction> transactions = new ArrayList<>();
+        boolean hasCreatedAt = SchemaCatalog.getInstance().hasColumn("transactions", "created_at");
 
         try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDate(1, Date.valueOf(startDate));
-            stmt.setDate(2, Date.valueOf(endDate));
-            ResultSet rs = stmt.executeQuery();
+            stmt.setDate(1, Date.valueOf(range.getStart()));
+            stmt.setDate(2, Date.valueOf(range.getEndExclusive()));
 
-            while (rs.next()) {
-                Transaction transaction = new Transaction();
-                transaction.setTransactionId(rs.getInt("transaction_id")); // pakai "id" jika memang field-nya "id"
-                transaction.setUserId(rs.getInt("user_id"));
-                transaction.setCategoryId(rs.getInt("category_id"));
-                transaction.setAmount(rs.getBigDecimal("amount"));
-                transaction.setType(TransactionType.valueOf(rs.getString("type")));
-                transaction.setNote(rs.getString("note"));
-                transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Transaction transaction = mapResultSetToTransaction(rs);
 
-                Timestamp createdAt = rs.getTimestamp("created_at");
-                if (createdAt != null) {
-                    transaction.setCreatedAt(createdAt.toLocalDateTime());
-                }
+                    if (hasCreatedAt) {
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        if (createdAt != null) {
+                            transaction.setCreatedAt(createdAt.toLocalDateTime());
+                        }
+                    }
 
-                transactions.add(transaction);
+                    transactions.add(transaction);
+                }
             }
 
         } catch (SQLException e) {
@@ -244,56 +510,128 @@ public class TransactionDAO {
 
     //mendapatkan tranasksi berdasarkan id user dan bulan transaksi
     public List<Transaction> getTransactionsByUserIdAndMonth(Integer userId, int year, int month) {
+        return findByUserAndPeriod(userId, YearMonth.of(year, month));
+    }
+
+    public List<Transaction> findByUserAndPeriod(Integer userId, YearMonth month) {
+        return findByUserAndPeriod(userId, DateRange.ofMonth(month));
+    }
+
+    // Transaksi user dalam periode [start, endExclusive). Predikat range langsung pada
+    // transaction_date supaya bisa memakai index (user_id, transaction_date DESC, transaction_id DESC)
+    public List<Transaction> findByUserAndPeriod(Integer userId, DateRange range) {
         List<Transaction> transactions = new ArrayList<>();
 
-        String sql = "SELECT transaction_id, user_id, category_id, amount, transaction_date, note, type " +
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " " +
                 "FROM transactions " +
-                "WHERE user_id = ? AND EXTRACT(YEAR FROM transaction_date) = ? AND EXTRACT(MONTH FROM transaction_date) = ? " +
-                "ORDER BY transaction_date DESC";
+                "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? " +
+                "ORDER BY transaction_date DESC, transaction_id DESC";
 
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
-            stmt.setInt(2, year);
-            stmt.setInt(3, month);
+            stmt.setDate(2, Date.valueOf(range.getStart()));
+            stmt.setDate(3, Date.valueOf(range.getEndExclusive()));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Transaction transaction = new Transaction();
-                    transaction.setTransactionId(rs.getInt("transaction_id"));
-                    transaction.setUserId(rs.getInt("user_id"));
-                    transaction.setCategoryId(rs.getInt("category_id"));
-                    transaction.setAmount(rs.getBigDecimal("amount"));
-                    transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
-                    transaction.setNote(rs.getString("note"));
-
-                    String typeStr = rs.getString("type");
-                    transaction.setType(TransactionType.valueOf(typeStr.toUpperCase()));
-
-                    transactions.add(transaction);
+                    transactions.add(mapResultSetToTransaction(rs));
                 }
             }
 
         } catch (SQLException e) {
-            System.err.println("Error getting transactions by user ID and month: " + e.getMessage());
+            System.err.println("Error getting transactions by user ID and period " + range + ": " + e.getMessage());
             e.printStackTrace();
         }
 
         return transactions;
     }
 
+    // Baca seluruh riwayat transaksi user baris per baris, lihat streamTransactions(userId, range, consumer)
+    public long streamTransactions(Integer userId, Consumer<Transaction> consumer) throws SQLException {
+        return streamTransactions(userId, null, consumer);
+    }
+
+    // Streaming read untuk export dan scan besar: driver PostgreSQL hanya memakai cursor
+    // (fetch per STREAM_FETCH_SIZE baris) kalau autocommit mati, jadi memori tetap konstan.
+    // range null = semua tanggal. Mengembalikan jumlah baris yang diberikan ke consumer.
+    public long streamTransactions(Integer userId, DateRange range, Consumer<Transaction> consumer) throws SQLException {
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " " +
+                "FROM transactions " +
+                "WHERE user_id = ? " +
+                (range != null ? "AND transaction_date >= ? AND transaction_date < ? " : "") +
+                "ORDER BY transaction_date DESC, transaction_id DESC";
+
+        long count = 0;
+
+        try (Connection conn = dbConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+                stmt.setInt(1, userId);
+                if (range != null) {
+                    stmt.setDate(2, Date.valueOf(range.getStart()));
+                    stmt.setDate(3, Date.valueOf(range.getEndExclusive()));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Berhenti kalau task dibatalkan (mis. user pindah layar)
+                        if (Thread.currentThread().isInterrupted()) {
+                            System.out.println("Transaction stream for user " + userId + " cancelled after " + count + " rows");
+                            break;
+                        }
+                        consumer.accept(mapResultSetToTransaction(rs));
+                        count++;
+                    }
+                }
+            } finally {
+                // Hanya baca, tidak ada yang perlu di-commit
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        }
+
+        return count;
+    }
+
+    // Delta sync: transaksi yang berubah dan ID yang dihapus sejak watermark
+    public ChangeSet<Transaction> fetchChangesSince(Integer userId, Instant watermark) throws SQLException {
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " FROM transactions WHERE user_id = ? AND updated_at > ?";
+
+        try (Connection conn = dbConfig.getConnection()) {
+            DeltaSync.checkNotExpired(conn, watermark);
+            // Watermark baru diambil sebelum query supaya perubahan di antaranya ikut fetch berikutnya
+            Instant nextWatermark = DeltaSync.nextWatermark(conn);
+
+            List<Transaction> changed = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setTimestamp(2, DeltaSync.since(watermark));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(mapResultSetToTransaction(rs));
+                    }
+                }
+            }
+
+            Set<Integer> deleted = DeltaSync.loadTombstones(conn, "transactions", userId, watermark);
+            return new ChangeSet<>(changed, deleted, nextWatermark);
+        }
+    }
+
     //mendapatkan transaksi yg baru
     public List<Transaction> getRecentTransactionsByUserId(Integer userId, int limit) {
         List<Transaction> transactions = new ArrayList<>();
 
-        String sql = "SELECT transaction_id, user_id, category_id, amount, transaction_date, note, type " +
+        String sql = "SELECT " + TRANSACTION_COLUMNS + " " +
                 "FROM transactions " +
                 "WHERE user_id = ? " +
                 "ORDER BY transaction_date DESC, transaction_id DESC " +
                 "LIMIT ?";
 
-        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+        try (Connection conn = dbConfig.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
@@ -301,19 +639,7 @@ public class TransactionDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Transaction transaction = new Transaction();
-                    transaction.setTransactionId(rs.getInt("transaction_id"));
-                    transaction.setUserId(rs.getInt("user_id"));
-                    transaction.setCategoryId(rs.getInt("category_id"));
-                    transaction.setAmount(rs.getBigDecimal("amount"));
-                    transaction.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
-                    transaction.setNote(rs.getString("note"));
-
-                    // Convert string to TransactionType enum
-                    String typeStr = rs.getString("type");
-                    transaction.setType(TransactionType.valueOf(typeStr.toUpperCase()));
-
-                    transactions.add(transaction);
+                    transactions.add(mapResultSetToTransaction(rs));
                 }
             }
 
@@ -325,4 +651,44 @@ public class TransactionDAO {
         return transactions;
     }
 
-}
\ No newline at end of file
+    // Hasil saveTransactions: ID per indeks input (null kalau gagal) dan pesan error per baris yang gagal
+    public static class BatchResult {
+        private final List<Integer> generatedIds;
+        private final List<Transaction> savedTransactions = new ArrayList<>();
+        private final Map<Integer, String> failures = new TreeMap<>();
+
+        private BatchResult(int size) {
+            this.generatedIds = new ArrayList<>(Collections.nCopies(size, null));
+        }
+
+        private void markSaved(int index, Transaction transaction, int transactionId) {
+            transaction.setTransactionId(transactionId);
+            generatedIds.set(index, transactionId);
+            savedTransactions.add(transaction);
+        }
+
+        private void markFailed(int index, String message) {
+            failures.put(index, message);
+        }
+
+        private void failAll(String message) {
+            for (Transaction transaction : savedTransactions) {
+                transaction.setTransactionId(0);
+            }
+            savedTransactions.clear();
+            for (int i = 0; i < generatedIds.size(); i++) {
+                generatedIds.set(i, null);
+                failures.putIfAbsent(i, message);
+            }
+        }
+
+        public List<Integer> getGeneratedIds() { return Collections.unmodifiableList(generatedIds); }
+        public List<Transaction> getSavedTransactions() { return Collections.unmodifiableList(savedTransactions); }
+        public Map<Integer, String> getFailures() { return Collections.unmodifiableMap(failures); }
+        public int getSavedCount() { return savedTransactions.size(); }
+
+        public boolean hasFailures() {
+            return !failures.isEmpty();
+        }
+    }
+}
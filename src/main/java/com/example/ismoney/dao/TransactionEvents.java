@@ -0,0 +1,103 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.TransactionEvent;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Domain event untuk setiap penulisan transaksi. TransactionDAO dan TransactionImportDAO
+// memanggil onChanges/onBulkChange di dalam transaksi database yang sama dengan perubahannya,
+// jadi proyeksi (mis. spent_amount budget) ikut commit atau rollback bersama datanya.
+// afterCommit dipanggil setelah commit berhasil, untuk pekerjaan di luar database.
+// Listener juga bisa menitipkan pekerjaan lewat runAfterCommit dari dalam onChanges/onBulkChange;
+// titipan itu dibuang kalau transaksinya di-rollback.
+public final class TransactionEvents {
+
+    public interface Listener {
+        // Exception di sini membatalkan seluruh perubahan
+        default void onChanges(Connection conn, List<TransactionEvent> events) throws SQLException {}
+
+        // Perubahan massal tanpa event per baris (import CSV) milik satu user; listener sebaiknya
+        // menghitung ulang, cukup untuk rentang tanggal baris yang masuk
+        default void onBulkChange(Connection conn, Integer userId, DateRange range) throws SQLException {}
+
+        // Setelah commit; exception hanya dicatat
+        default void afterCommit(List<TransactionEvent> events) {}
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Hook per transaksi database; publish dan commit selalu terjadi di thread yang sama
+    private static final ThreadLocal<List<Runnable>> pendingHooks = new ThreadLocal<>();
+
+    private TransactionEvents() {}
+
+    public static void register(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unregister(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Hanya boleh dipanggil dari dalam onChanges/onBulkChange
+    public static void runAfterCommit(Runnable hook) {
+        List<Runnable> hooks = pendingHooks.get();
+        if (hooks == null) {
+            hooks = new ArrayList<>();
+            pendingHooks.set(hooks);
+        }
+        hooks.add(hook);
+    }
+
+    static void publish(Connection conn, List<TransactionEvent> events) throws SQLException {
+        pendingHooks.remove();
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.onChanges(conn, events);
+        }
+    }
+
+    static void publishBulk(Connection conn, Integer userId, DateRange range) throws SQLException {
+        pendingHooks.remove();
+        for (Listener listener : listeners) {
+            listener.onBulkChange(conn, userId, range);
+        }
+    }
+
+    static void afterCommit(List<TransactionEvent> events) {
+        List<Runnable> hooks = pendingHooks.get();
+        pendingHooks.remove();
+
+        if (!events.isEmpty()) {
+            for (Listener listener : listeners) {
+                try {
+                    listener.afterCommit(events);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in transaction after-commit listener: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+        if (hooks != null) {
+            for (Runnable hook : hooks) {
+                try {
+                    hook.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Error in transaction after-commit hook: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // Transaksi database di-rollback: buang hook yang dititipkan
+    static void discard() {
+        pendingHooks.remove();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.ismoney.dao;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.database.SchemaCatalog;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Transaction;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Jalur bulk import: baris dikirim lewat COPY ke tabel staging sementara, lalu dipindahkan
+// ke transactions dengan satu INSERT ... SELECT. Semua dalam satu transaksi database,
+// jadi import yang gagal di tengah tidak meninggalkan data setengah jadi.
+public class TransactionImportDAO {
+
+    private static final String STAGING_COLUMNS = "user_id, amount, type, category_id, note, transaction_date, fingerprint";
+
+    // Dedup import butuh kolom fingerprint dari migrasi V4. Katalog yang gagal dimuat
+    // menggagalkan import, bukan mematikan dedup diam-diam
+    public static boolean supportsFingerprints() throws SQLException {
+        return SchemaCatalog.getInstance().probeColumn("transactions", "fingerprint");
+    }
+
+    // Satu sesi import selalu milik satu user; listener budget hanya menghitung ulang budget user itu
+    public StagingSession begin(Integer userId) throws SQLException {
+        Connection conn = DatabaseConfig.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TEMP TABLE import_staging (" +
+                        "staging_id BIGSERIAL, " +
+                        "user_id INTEGER NOT NULL, " +
+                        "amount NUMERIC NOT NULL, " +
+                        "type VARCHAR(20) NOT NULL, " +
+                        "category_id INTEGER NOT NULL, " +
+                        "note TEXT, " +
+                        "transaction_date DATE NOT NULL, " +
+                        "fingerprint VARCHAR(64)" +
+                        ") ON COMMIT DROP");
+            }
+            return new StagingSession(conn, conn.unwrap(PGConnection.class).getCopyAPI(), userId);
+        } catch (SQLException e) {
+            conn.rollback();
+            conn.close();
+            throw e;
+        }
+    }
+
+    // Satu sesi import di atas satu koneksi; close() tanpa commit() membatalkan semuanya
+    public static class StagingSession implements AutoCloseable {
+        private final Connection conn;
+        private final CopyManager copyManager;
+        private final Integer userId;
+        private long stagedRows = 0;
+        private boolean committed = false;
+
+        private StagingSession(Connection conn, CopyManager copyManager, Integer userId) {
+            this.conn = conn;
+            this.copyManager = copyManager;
+            this.userId = userId;
+        }
+
+        // Kirim satu chunk ke staging dengan COPY FROM STDIN (format CSV)
+        public void copyChunk(List<Transaction> transactions) throws SQLException {
+            if (transactions.isEmpty()) {
+                return;
+            }
+
+            StringBuilder csv = new StringBuilder(transactions.size() * 64);
+            for (Transaction transaction : transactions) {
+                csv.append(transaction.getUserId()).append(',')
+                        .append(transaction.getAmount()).append(',')
+                        .append(transaction.getType()).append(',')
+                        .append(transaction.getCategoryId()).append(',');
+                // Field kosong tanpa quote = NULL di format CSV
+                if (transaction.getNote() != null) {
+                    csv.append('"').append(transaction.getNote().replace("\"", "\"\"")).append('"');
+                }
+                csv.append(',').append(transaction.getTransactionDate()).append(',');
+                if (transaction.getFingerprint() != null) {
+                    csv.append(transaction.getFingerprint());
+                }
+                csv.append('\n');
+            }
+
+            try {
+                stagedRows += copyManager.copyIn(
+                        "COPY import_staging (" + STAGING_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Gagal mengirim data ke staging: " + e.getMessage(), e);
+            }
+        }
+
+        // Sidik jari transaksi user yang sudah tersimpan dalam periode, untuk seed dedup di memori
+        public Set<String> loadFingerprints(Integer userId, DateRange range) throws SQLException {
+            String sql = "SELECT fingerprint FROM transactions " +
+                    "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? AND fingerprint IS NOT NULL";
+
+            Set<String> fingerprints = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, Date.valueOf(range.getStart()));
+                stmt.setDate(3, Date.valueOf(range.getEndExclusive()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        fingerprints.add(rs.getString("fingerprint"));
+                    }
+                }
+            }
+            return fingerprints;
+        }
+
+        // Pindahkan staging ke transactions; rollup bulanan dihitung dari baris yang benar-benar masuk,
+        // lalu listener TransactionEvents diberi tahu lewat publishBulk beserta rentang tanggal yang masuk.
+        // Baris dengan fingerprint yang sudah ada (mis. import paralel) dilewati oleh unique index.
+        public int merge() throws SQLException {
+            boolean dedup = supportsFingerprints();
+            String columns = dedup ? STAGING_COLUMNS : STAGING_COLUMNS.replace(", fingerprint", "");
+            String insertSql = "INSERT INTO transactions (" + columns + ") " +
+                    "SELECT " + columns + " FROM import_staging ORDER BY staging_id " +
+                    (dedup ? "ON CONFLICT (user_id, fingerprint) DO NOTHING " : "") +
+                    "RETURNING user_id, amount, type, category_id, transaction_date";
+
+            String sql;
+            if (MonthlyRollupDAO.isMaintained()) {
+                sql = "WITH inserted AS (" + insertSql + "), " +
+                        "rolled AS (" + MonthlyRollupDAO.upsertFromSelect(
+                                "SELECT user_id, date_trunc('month', transaction_date)::date, category_id, type, " +
+                                "SUM(amount), COUNT(*) FROM inserted GROUP BY 1, 2, 3, 4") + ") " +
+                        "SELECT COUNT(*), MIN(transaction_date), MAX(transaction_date) FROM inserted";
+            } else {
+                sql = "WITH inserted AS (" + insertSql + ") " +
+                        "SELECT COUNT(*), MIN(transaction_date), MAX(transaction_date) FROM inserted";
+            }
+
+            int inserted = 0;
+            DateRange range = null;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                if (rs.next()) {
+                    inserted = rs.getInt(1);
+                    if (inserted > 0) {
+                        range = DateRange.between(rs.getDate(2).toLocalDate(), rs.getDate(3).toLocalDate());
+                    }
+                }
+            }
+
+            // Tidak ada event per baris untuk import; listener menghitung ulang di transaksi yang sama
+            if (inserted > 0) {
+                TransactionEvents.publishBulk(conn, userId, range);
+            }
+            return inserted;
+        }
+
+        public void commit() throws SQLException {
+            conn.commit();
+            committed = true;
+            TransactionEvents.afterCommit(List.of());
+        }
+
+        public long getStagedRows() {
+            return stagedRows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                if (!committed) {
+                    conn.rollback();
+                    TransactionEvents.discard();
+                }
+                conn.setAutoCommit(true);
+            } finally {
+                conn.close();
+            }
+        }
+    }
+}
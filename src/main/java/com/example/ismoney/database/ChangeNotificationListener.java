@@ -0,0 +1,207 @@
+package com.example.ismoney.database;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Satu koneksi LISTEN di background untuk seluruh aplikasi. Notifikasi dari trigger
+// (lihat migrasi V5) diteruskan ke subscriber milik user yang bersangkutan, sehingga
+// layar hanya refresh kalau datanya memang berubah. Kalau koneksi putus, listener
+// mencoba lagi dengan backoff dan mengirim event RESYNC setelah tersambung kembali.
+public class ChangeNotificationListener {
+
+    public static final String CHANNEL = "ismoney_changes";
+
+    private static final int POLL_TIMEOUT_MILLIS = 5_000;
+    private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private static final ChangeNotificationListener instance = new ChangeNotificationListener();
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private volatile boolean connected = false;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    private ChangeNotificationListener() {}
+
+    public static ChangeNotificationListener getInstance() {
+        return instance;
+    }
+
+    // Listener dipanggil dari thread listener, bukan FX thread
+    public Subscription subscribe(Integer userId, Consumer<ChangeEvent> listener) {
+        Subscription subscription = new Subscription(userId, listener);
+        subscriptions.add(subscription);
+        start();
+        return subscription;
+    }
+
+    // false berarti notifikasi tidak bisa diandalkan dan layar sebaiknya polling
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listenLoop, "ismoney-db-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void shutdown() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        subscriptions.clear();
+    }
+
+    private void listenLoop() {
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        boolean reconnecting = false;
+
+        while (running) {
+            try (Connection conn = DatabaseConfig.openSessionConnection()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
+                connected = true;
+                backoff = INITIAL_BACKOFF_MILLIS;
+                System.out.println("Change listener connected on channel " + CHANNEL);
+
+                // Notifikasi yang terlewat saat putus tidak bisa diambil ulang
+                if (reconnecting) {
+                    dispatch(ChangeEvent.resync());
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConn.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        ChangeEvent event = ChangeEvent.parse(notification.getParameter());
+                        if (event != null) {
+                            dispatch(event);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    System.err.println("Change listener disconnected: " + e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+
+            if (!running) {
+                break;
+            }
+            reconnecting = true;
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void dispatch(ChangeEvent event) {
+        for (Subscription subscription : subscriptions) {
+            // Event tanpa user_id (tabel tanpa kolom user_id) dan RESYNC dikirim ke semua subscriber
+            if (event.getUserId() == null || event.getUserId().equals(subscription.userId)) {
+                try {
+                    subscription.listener.accept(event);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in change listener: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public class Subscription implements AutoCloseable {
+        private final Integer userId;
+        private final Consumer<ChangeEvent> listener;
+
+        private Subscription(Integer userId, Consumer<ChangeEvent> listener) {
+            this.userId = userId;
+            this.listener = listener;
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+
+    public static class ChangeEvent {
+        public static final String RESYNC = "*";
+
+        private final String table;
+        private final String operation;
+        private final Integer userId;
+
+        public ChangeEvent(String table, String operation, Integer userId) {
+            this.table = table;
+            this.operation = operation;
+            this.userId = userId;
+        }
+
+        static ChangeEvent resync() {
+            return new ChangeEvent(RESYNC, RESYNC, null);
+        }
+
+        // Payload dari trigger: "tabel:operasi:user_id"
+        static ChangeEvent parse(String payload) {
+            String[] parts = payload.split(":", -1);
+            if (parts.length != 3) {
+                System.err.println("Ignoring malformed change notification: " + payload);
+                return null;
+            }
+            Integer userId = null;
+            if (!parts[2].isEmpty()) {
+                try {
+                    userId = Integer.valueOf(parts[2]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Ignoring change notification with invalid user_id: " + payload);
+                    return null;
+                }
+            }
+            return new ChangeEvent(parts[0], parts[1], userId);
+        }
+
+        public String getTable() { return table; }
+        public String getOperation() { return operation; }
+        public Integer getUserId() { return userId; }
+
+        public boolean isResync() {
+            return RESYNC.equals(table);
+        }
+
+        // true kalau event ini bisa mengubah data dari salah satu tabel tersebut
+        public boolean affects(Set<String> tables) {
+            return isResync() || tables.contains(table);
+        }
+
+        @Override
+        public String toString() {
+            return "ChangeEvent{" + table + " " + operation + ", user=" + Objects.toString(userId, "*") + '}';
+        }
+    }
+}
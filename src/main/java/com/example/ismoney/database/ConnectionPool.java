@@ -0,0 +1,477 @@
+package com.example.ismoney.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Pool koneksi JDBC sederhana dengan batas maksimum, validasi saat dipinjam,
+// max lifetime dan timeout saat menunggu koneksi kosong.
+public class ConnectionPool {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    // Objek JDBC yang bisa mengembalikan koneksinya (getConnection/getStatement); ikut dibungkus
+    // supaya peminjam tidak pernah memegang koneksi fisik dan tidak bisa menutupnya
+    private static final Set<Class<?>> WRAPPED_TYPES = Set.of(
+            Statement.class, PreparedStatement.class, CallableStatement.class, DatabaseMetaData.class, ResultSet.class);
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int totalConnections;
+    private int activeConnections;
+    private int waitingThreads;
+    private boolean closed;
+
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireNanosTotal = new AtomicLong();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String username, String password, int minIdle, int maxSize,
+                          long acquireTimeoutMillis, long maxLifetimeMillis, long idleTimeoutMillis,
+                          int validationTimeoutSeconds) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxSize=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ismoney-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, 0, 30, TimeUnit.SECONDS);
+    }
+
+    // Pinjam koneksi dari pool. close() pada koneksi yang dikembalikan akan mengembalikannya ke pool.
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate = null;
+            boolean mayCreate = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    candidate = idle.pollFirst();
+                    if (candidate != null) {
+                        activeConnections++;
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        activeConnections++;
+                        mayCreate = true;
+                        break;
+                    }
+                    if (remainingNanos <= 0) {
+                        acquireTimeouts.incrementAndGet();
+                        throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutMillis +
+                                " ms waiting for a database connection (active=" + activeConnections +
+                                ", max=" + maxSize + ")");
+                    }
+                    waitingThreads++;
+                    try {
+                        remainingNanos = available.awaitNanos(remainingNanos);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waitingThreads--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (mayCreate) {
+                try {
+                    candidate = openPhysical();
+                } catch (SQLException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (!isUsable(candidate)) {
+                discard(candidate);
+                remainingNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis) - (System.nanoTime() - start);
+                continue;
+            }
+
+            recordAcquire(System.nanoTime() - start);
+            return candidate.lease();
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        lock.lock();
+        try {
+            long count = acquireCount.get();
+            double avgMillis = count == 0 ? 0.0 : acquireNanosTotal.get() / (double) count / 1_000_000.0;
+            return new PoolMetrics(
+                    activeConnections,
+                    idle.size(),
+                    waitingThreads,
+                    totalConnections,
+                    maxSize,
+                    count,
+                    avgMillis,
+                    acquireNanosMax.get() / 1_000_000.0,
+                    acquireTimeouts.get(),
+                    connectionsCreated.get(),
+                    connectionsEvicted.get()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(PooledConnection::closePhysical);
+        logger.info("Connection pool shut down");
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        connectionsCreated.incrementAndGet();
+        logger.fine("Opened new physical database connection");
+        return new PooledConnection(physical);
+    }
+
+    private boolean isUsable(PooledConnection candidate) {
+        if (candidate.isExpired()) {
+            return false;
+        }
+        // Koneksi yang baru saja dikembalikan tidak perlu divalidasi ulang ke server
+        if (System.currentTimeMillis() - candidate.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return candidate.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Buang koneksi (atau slot yang gagal dibuat) dan bangunkan thread yang menunggu
+    private void discard(PooledConnection connection) {
+        if (connection != null) {
+            connection.closePhysical();
+            connectionsEvicted.incrementAndGet();
+        }
+        lock.lock();
+        try {
+            totalConnections--;
+            activeConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        boolean reusable = !connection.broken && !connection.isExpired() && connection.resetState();
+        if (!reusable) {
+            discard(connection);
+            return;
+        }
+
+        lock.lock();
+        try {
+            activeConnections--;
+            if (closed) {
+                totalConnections--;
+            } else {
+                connection.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(connection);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        connection.closePhysical();
+    }
+
+    private void recordAcquire(long nanos) {
+        acquireCount.incrementAndGet();
+        acquireNanosTotal.addAndGet(nanos);
+        acquireNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Jalan berkala: buang koneksi idle yang kadaluarsa, lalu isi kembali sampai minIdle
+    private void housekeep() {
+        List<PooledConnection> expired = new ArrayList<>();
+        int toCreate;
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection connection = it.next();
+                boolean idleTooLong = idle.size() > minIdle && now - connection.lastReturnedAt > idleTimeoutMillis;
+                if (connection.isExpired() || idleTooLong) {
+                    it.remove();
+                    totalConnections--;
+                    expired.add(connection);
+                }
+            }
+            toCreate = Math.min(minIdle - idle.size(), maxSize - totalConnections);
+            if (toCreate > 0) {
+                totalConnections += toCreate;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection connection : expired) {
+            connection.closePhysical();
+            connectionsEvicted.incrementAndGet();
+        }
+
+        for (int i = 0; i < toCreate; i++) {
+            try {
+                PooledConnection connection = openPhysical();
+                lock.lock();
+                try {
+                    connection.lastReturnedAt = System.currentTimeMillis();
+                    idle.addLast(connection);
+                    available.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to pre-fill connection pool: " + e.getMessage());
+                lock.lock();
+                try {
+                    totalConnections -= (toCreate - i);
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            }
+        }
+    }
+
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturnedAt = createdAt;
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private boolean isExpired() {
+            return maxLifetimeMillis > 0 && System.currentTimeMillis() - createdAt > maxLifetimeMillis;
+        }
+
+        // Kembalikan koneksi ke kondisi default sebelum dipakai peminjam berikutnya
+        private boolean resetState() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                logger.fine("Error closing physical connection: " + e.getMessage());
+            }
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    // Handler untuk satu kali peminjaman; close() mengembalikan koneksi ke pool, bukan menutupnya.
+    // Statement, DatabaseMetaData dan ResultSet yang dibuat lewat proxy ini juga dibungkus (lihat
+    // ChildHandler). Hanya unwrap() yang memberi objek fisik (mis. PGConnection untuk COPY);
+    // objek itu tidak boleh di-close oleh pemanggil.
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            return invokePhysical(pooled, pooled.physical, method, args, proxy, proxy);
+        }
+    }
+
+    // Handler untuk objek turunan koneksi pinjaman: getConnection() mengembalikan proxy peminjaman
+    // dan ResultSet.getStatement() mengembalikan proxy statement-nya
+    private final class ChildHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Object target;
+        private final Object connectionProxy;
+        private final Object parentProxy;
+
+        private ChildHandler(PooledConnection pooled, Object target, Object connectionProxy, Object parentProxy) {
+            this.pooled = pooled;
+            this.target = target;
+            this.connectionProxy = connectionProxy;
+            this.parentProxy = parentProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connectionProxy;
+                case "getStatement":
+                    if (parentProxy instanceof Statement) {
+                        return parentProxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+            return invokePhysical(pooled, target, method, args, connectionProxy, proxy);
+        }
+    }
+
+    // Panggil method di objek fisik. Error koneksi (SQLState 08xxx) menandai koneksi rusak supaya
+    // tidak dikembalikan ke pool, dan hasil bertipe WRAPPED_TYPES dibungkus dengan ChildHandler.
+    private Object invokePhysical(PooledConnection pooled, Object target, Method method, Object[] args,
+                                  Object connectionProxy, Object parentProxy) throws Throwable {
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    pooled.broken = true;
+                }
+            }
+            throw cause;
+        }
+
+        Class<?> type = method.getReturnType();
+        if (result == null || !WRAPPED_TYPES.contains(type)) {
+            return result;
+        }
+        return Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{type},
+                new ChildHandler(pooled, result, connectionProxy, parentProxy));
+    }
+}
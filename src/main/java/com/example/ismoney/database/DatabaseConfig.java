@@ -3,15 +3,31 @@ package com.example.ismoney.database;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class DatabaseConfig {
 
-    private static final String DB_URL = "jdbc:postgresql://aws-0-ap-southeast-1.pooler.supabase.com:6543/postgres";
+    // reWriteBatchedInserts: executeBatch untuk INSERT dikirim sebagai satu INSERT multi-VALUES.
+    // prepareThreshold=0: port 6543 adalah transaction pooler, backend bisa berganti antar transaksi,
+    // jadi pgjdbc tidak boleh membuat named prepared statement (S_1 dst.) di server
+    private static final String DB_URL = "jdbc:postgresql://aws-0-ap-southeast-1.pooler.supabase.com:6543/postgres?reWriteBatchedInserts=true&prepareThreshold=0";
+    // Session mode pooler (port 5432): LISTEN butuh koneksi yang menempel ke satu backend,
+    // tidak bisa lewat transaction pooler di atas
+    private static final String DB_SESSION_URL = "jdbc:postgresql://aws-0-ap-southeast-1.pooler.supabase.com:5432/postgres";
     private static final String DB_USERNAME = "postgres.toswlsbzcznzwlsxumpo";
     private static final String DB_PASSWORD = "ismoneypbolab";
 
+    // Pengaturan pool koneksi
+    private static final int POOL_MIN_IDLE = 2;
+    static final int POOL_MAX_SIZE = 8;
+    private static final long POOL_ACQUIRE_TIMEOUT_MILLIS = 10_000;
+    private static final long POOL_MAX_LIFETIME_MILLIS = 30 * 60 * 1000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final int POOL_VALIDATION_TIMEOUT_SECONDS = 3;
+
     private static DatabaseConfig instance;
+    private static ConnectionPool pool;
 
     private DatabaseConfig() {}
 
@@ -22,23 +38,49 @@ public class DatabaseConfig {
         return instance;
     }
 
+    // Satu-satunya jalan DAO untuk mendapatkan koneksi; close() mengembalikan koneksi ke pool
     public static Connection getConnection() throws SQLException {
         try {
-            Class.forName("org.postgresql.Driver");
-
-            Connection connection = DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
-
-            System.out.println("Database connection successful!");
-            return connection;
-
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("PostgreSQL driver not found", e);
+            return getPool().getConnection();
         } catch (SQLException e) {
             System.err.println("Database connection failed: " + e.getMessage());
             throw e;
         }
     }
 
+    // Koneksi khusus di luar pool untuk ChangeNotificationListener; pemanggil wajib menutupnya
+    static Connection openSessionConnection() throws SQLException {
+        return DriverManager.getConnection(DB_SESSION_URL, DB_USERNAME, DB_PASSWORD);
+    }
+
+    public static PoolMetrics getPoolMetrics() {
+        return getPool().getMetrics();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            System.out.println("Closing database pool: " + pool.getMetrics());
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            try {
+                Class.forName("org.postgresql.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("PostgreSQL driver not found", e);
+            }
+            pool = new ConnectionPool(DB_URL, DB_USERNAME, DB_PASSWORD,
+                    POOL_MIN_IDLE, POOL_MAX_SIZE,
+                    POOL_ACQUIRE_TIMEOUT_MILLIS, POOL_MAX_LIFETIME_MILLIS, POOL_IDLE_TIMEOUT_MILLIS,
+                    POOL_VALIDATION_TIMEOUT_SECONDS);
+            System.out.println("Database connection pool initialized (max " + POOL_MAX_SIZE + " connections)");
+        }
+        return pool;
+    }
+
     public void testConnection() {
         try (Connection conn = getConnection()) {
             if (conn != null && !conn.isClosed()) {
@@ -51,7 +93,8 @@ public class DatabaseConfig {
 
     public boolean insertUser(String email, String password) {
         String sql = "INSERT INTO users (email, password) VALUES (?, ?)";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             stmt.setString(2, password);
             return stmt.executeUpdate() > 0;
@@ -63,7 +106,8 @@ public class DatabaseConfig {
 
     public boolean insertGoogleUser(String email, String googleId) {
         String sql = "INSERT INTO users (email, google_id) VALUES (?, ?)";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             stmt.setString(2, googleId);
             return stmt.executeUpdate() > 0;
@@ -75,10 +119,13 @@ public class DatabaseConfig {
 
     public boolean checkCredentials(String email, String password) {
         String sql = "SELECT * FROM users WHERE email=? AND password=?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             stmt.setString(2, password);
-            return stmt.executeQuery().next();
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -87,10 +134,13 @@ public class DatabaseConfig {
 
     public boolean checkGoogleCredentials(String email, String googleId) {
         String sql = "SELECT * FROM users WHERE email=? AND google_id=?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             stmt.setString(2, googleId);
-            return stmt.executeQuery().next();
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
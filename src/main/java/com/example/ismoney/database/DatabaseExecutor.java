@@ -0,0 +1,58 @@
+package com.example.ismoney.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executor khusus untuk pekerjaan JDBC supaya tidak pernah jalan di FX Application Thread.
+// Jumlah thread disamakan dengan ukuran pool koneksi, jadi tidak ada thread yang menganggur menunggu koneksi.
+public final class DatabaseExecutor {
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T call() throws Exception;
+    }
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            DatabaseConfig.POOL_MAX_SIZE,
+            r -> {
+                Thread thread = new Thread(r, "ismoney-db-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private DatabaseExecutor() {}
+
+    // Jalankan pekerjaan DAO di background. cancel() pada future juga menginterupsi thread yang sedang jalan,
+    // jadi hanya query yang boleh dibatalkan (lihat FxAsync.run vs runWrite).
+    public static <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+
+        return result;
+    }
+
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+}
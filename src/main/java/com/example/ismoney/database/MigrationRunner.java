@@ -0,0 +1,173 @@
+package com.example.ismoney.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+// Menjalankan migrasi SQL berurutan saat startup. Setiap script dicatat di tabel
+// schema_migrations beserta checksum-nya; script yang sudah jalan tidak boleh diubah.
+public class MigrationRunner {
+
+    private static final String MIGRATION_PATH = "/com/example/ismoney/db/migration/";
+
+    // Urutan migrasi; tambahkan file baru di akhir, jangan ubah file yang sudah dirilis
+    private static final String[] MIGRATIONS = {
+            "V1__align_dao_columns.sql",
+            "V2__hot_query_indexes.sql",
+            "V3__monthly_rollups.sql",
+            "V4__transaction_fingerprints.sql",
+            "V5__change_notifications.sql",
+            "V6__delta_sync.sql",
+            "V7__budget_alerts.sql",
+            "V8__budget_user_scope.sql",
+            "V9__budget_exact_amounts.sql",
+            "V10__budget_owner_backfill.sql",
+            "V11__tombstone_retention.sql"
+    };
+
+    // Kunci advisory supaya dua instance aplikasi tidak menjalankan migrasi yang sama bersamaan
+    private static final long MIGRATION_LOCK_KEY = 0x49534D6F6E6579L;
+
+    private MigrationRunner() {}
+
+    public static void migrate() throws SQLException {
+        int appliedCount = 0;
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            ensureHistoryTable(conn);
+            Map<Integer, String> applied = loadAppliedChecksums(conn);
+
+            for (String fileName : MIGRATIONS) {
+                int version = parseVersion(fileName);
+                String script = readScript(fileName);
+                String checksum = checksum(script);
+
+                String appliedChecksum = applied.get(version);
+                if (appliedChecksum != null) {
+                    if (!appliedChecksum.equals(checksum)) {
+                        throw new SQLException("Checksum migrasi " + fileName + " tidak cocok dengan yang sudah diterapkan. " +
+                                "Jangan ubah migrasi yang sudah dirilis, buat migrasi baru.");
+                    }
+                    continue;
+                }
+
+                if (apply(conn, version, fileName, script, checksum)) {
+                    appliedCount++;
+                }
+            }
+        }
+
+        if (appliedCount > 0) {
+            System.out.println("Applied " + appliedCount + " database migration(s)");
+        }
+        SchemaCatalog.getInstance().refresh();
+    }
+
+    private static void ensureHistoryTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "script VARCHAR(255) NOT NULL, " +
+                    "checksum VARCHAR(64) NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL DEFAULT NOW())");
+        }
+    }
+
+    private static Map<Integer, String> loadAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version, checksum FROM schema_migrations");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    // Satu migrasi = satu transaksi database; gagal di tengah berarti tidak ada yang berubah
+    private static boolean apply(Connection conn, int version, String fileName, String script, String checksum)
+            throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement lock = conn.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                lock.setLong(1, MIGRATION_LOCK_KEY);
+                lock.execute();
+            }
+
+            // Cek ulang setelah dapat lock, mungkin instance lain sudah menerapkannya
+            try (PreparedStatement check = conn.prepareStatement("SELECT 1 FROM schema_migrations WHERE version = ?")) {
+                check.setInt(1, version);
+                try (ResultSet rs = check.executeQuery()) {
+                    if (rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+            }
+
+            System.out.println("Applying migration " + fileName);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(script);
+            }
+
+            try (PreparedStatement record = conn.prepareStatement(
+                    "INSERT INTO schema_migrations (version, script, checksum) VALUES (?, ?, ?)")) {
+                record.setInt(1, version);
+                record.setString(2, fileName);
+                record.setString(3, checksum);
+                record.executeUpdate();
+            }
+
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migrasi " + fileName + " gagal: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static int parseVersion(String fileName) {
+        int separator = fileName.indexOf("__");
+        if (!fileName.startsWith("V") || separator < 2) {
+            throw new IllegalStateException("Nama file migrasi tidak valid: " + fileName);
+        }
+        return Integer.parseInt(fileName.substring(1, separator));
+    }
+
+    private static String readScript(String fileName) throws SQLException {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(MIGRATION_PATH + fileName)) {
+            if (in == null) {
+                throw new SQLException("File migrasi tidak ditemukan: " + fileName);
+            }
+            // Samakan line ending supaya checksum tidak berubah antara checkout Windows dan Linux
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+        } catch (IOException e) {
+            throw new SQLException("Gagal membaca file migrasi: " + fileName, e);
+        }
+    }
+
+    private static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(script.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ismoney.database;
+
+// Snapshot metrik pool koneksi untuk keperluan sizing dan debugging
+public class PoolMetrics {
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final int totalConnections;
+    private final int maxConnections;
+    private final long acquireCount;
+    private final double averageAcquireMillis;
+    private final double maxAcquireMillis;
+    private final long acquireTimeouts;
+    private final long connectionsCreated;
+    private final long connectionsEvicted;
+
+    public PoolMetrics(int activeConnections, int idleConnections, int waitingThreads, int totalConnections,
+                       int maxConnections, long acquireCount, double averageAcquireMillis, double maxAcquireMillis,
+                       long acquireTimeouts, long connectionsCreated, long connectionsEvicted) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.totalConnections = totalConnections;
+        this.maxConnections = maxConnections;
+        this.acquireCount = acquireCount;
+        this.averageAcquireMillis = averageAcquireMillis;
+        this.maxAcquireMillis = maxAcquireMillis;
+        this.acquireTimeouts = acquireTimeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsEvicted = connectionsEvicted;
+    }
+
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getWaitingThreads() { return waitingThreads; }
+    public int getTotalConnections() { return totalConnections; }
+    public int getMaxConnections() { return maxConnections; }
+    public long getAcquireCount() { return acquireCount; }
+    public double getAverageAcquireMillis() { return averageAcquireMillis; }
+    public double getMaxAcquireMillis() { return maxAcquireMillis; }
+    public long getAcquireTimeouts() { return acquireTimeouts; }
+    public long getConnectionsCreated() { return connectionsCreated; }
+    public long getConnectionsEvicted() { return connectionsEvicted; }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", waiting=" + waitingThreads +
+                ", total=" + totalConnections + "/" + maxConnections +
+                ", acquires=" + acquireCount +
+                ", avgAcquireMs=" + String.format("%.2f", averageAcquireMillis) +
+                ", maxAcquireMs=" + String.format("%.2f", maxAcquireMillis) +
+                ", timeouts=" + acquireTimeouts +
+                ", created=" + connectionsCreated +
+                ", evicted=" + connectionsEvicted +
+                '}';
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ismoney.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Cache kolom dan index di schema public. Katalog di-probe sekali (saat startup atau
+// lewat refresh() setelah migrasi), sehingga DAO bisa memilih varian SQL tanpa query tambahan.
+public class SchemaCatalog {
+
+    private static final String COLUMNS_SQL =
+            "SELECT table_name, column_name FROM information_schema.columns WHERE table_schema = 'public'";
+    private static final String INDEXES_SQL =
+            "SELECT tablename, indexname FROM pg_indexes WHERE schemaname = 'public'";
+
+    private static final SchemaCatalog instance = new SchemaCatalog();
+
+    private volatile Snapshot snapshot;
+
+    private SchemaCatalog() {}
+
+    public static SchemaCatalog getInstance() {
+        return instance;
+    }
+
+    public boolean hasColumn(String table, String column) {
+        return snapshot().columns
+                .getOrDefault(table.toLowerCase(), Collections.emptySet())
+                .contains(column.toLowerCase());
+    }
+
+    public boolean hasIndex(String table, String indexName) {
+        return snapshot().indexes
+                .getOrDefault(table.toLowerCase(), Collections.emptySet())
+                .contains(indexName.toLowerCase());
+    }
+
+    public boolean hasTable(String table) {
+        return snapshot().columns.containsKey(table.toLowerCase());
+    }
+
+    public Set<String> getColumns(String table) {
+        return snapshot().columns.getOrDefault(table.toLowerCase(), Collections.emptySet());
+    }
+
+    // Versi hasTable/hasColumn untuk jalur tulis: kalau katalog belum bisa dimuat, lempar
+    // SQLException supaya penulisan gagal, bukan diam-diam melewati rollup/proyeksi/dedup
+    public boolean probeTable(String table) throws SQLException {
+        return loadedSnapshot().columns.containsKey(table.toLowerCase());
+    }
+
+    public boolean probeColumn(String table, String column) throws SQLException {
+        return loadedSnapshot().columns
+                .getOrDefault(table.toLowerCase(), Collections.emptySet())
+                .contains(column.toLowerCase());
+    }
+
+    // Probe ulang katalog, dipanggil setelah migrasi schema
+    public synchronized void refresh() throws SQLException {
+        Map<String, Set<String>> columns = new HashMap<>();
+        Map<String, Set<String>> indexes = new HashMap<>();
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(COLUMNS_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.computeIfAbsent(rs.getString("table_name").toLowerCase(), k -> new HashSet<>())
+                            .add(rs.getString("column_name").toLowerCase());
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(INDEXES_SQL);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    indexes.computeIfAbsent(rs.getString("tablename").toLowerCase(), k -> new HashSet<>())
+                            .add(rs.getString("indexname").toLowerCase());
+                }
+            }
+        }
+
+        snapshot = new Snapshot(columns, indexes);
+        System.out.println("Schema catalog loaded: " + columns.size() + " tables");
+    }
+
+    // Untuk jalur baca: katalog yang gagal dimuat dianggap kosong, query memakai varian dasar
+    private Snapshot snapshot() {
+        try {
+            return loadedSnapshot();
+        } catch (SQLException e) {
+            System.err.println("Error loading schema catalog: " + e.getMessage());
+            return Snapshot.EMPTY;
+        }
+    }
+
+    // Hasil gagal tidak di-cache, jadi pemanggilan berikutnya mencoba lagi
+    private Snapshot loadedSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<String, Set<String>> columns;
+        private final Map<String, Set<String>> indexes;
+
+        private Snapshot(Map<String, Set<String>> columns, Map<String, Set<String>> indexes) {
+            this.columns = columns;
+            this.indexes = indexes;
+        }
+    }
+}
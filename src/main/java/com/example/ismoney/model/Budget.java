@@ -4,9 +4,10 @@ import java.time.LocalDate;
 
 public class Budget {
     private int id;
+    private Integer userId;
     private String category;
-    private double limitAmount;
-    private double spentAmount;
+    private Money limitAmount;
+    private Money spentAmount;
     private LocalDate startDate;
     private LocalDate endDate;
     private String period; // "monthly", "weekly", "yearly"
@@ -16,20 +17,21 @@ public class Budget {
     public Budget() {}
 
     // Constructor with parameters
-    public Budget(String category, double limitAmount, LocalDate startDate, LocalDate endDate, String period) {
+    public Budget(String category, Money limitAmount, LocalDate startDate, LocalDate endDate, String period) {
         this.category = category;
         this.limitAmount = limitAmount;
         this.startDate = startDate;
         this.endDate = endDate;
         this.period = period;
-        this.spentAmount = 0.0;
+        this.spentAmount = Money.ZERO;
         this.isActive = true;
     }
 
     // Constructor with id
-    public Budget(int id, String category, double limitAmount, double spentAmount,
+    public Budget(int id, Integer userId, String category, Money limitAmount, Money spentAmount,
                   LocalDate startDate, LocalDate endDate, String period, boolean isActive) {
         this.id = id;
+        this.userId = userId;
         this.category = category;
         this.limitAmount = limitAmount;
         this.spentAmount = spentAmount;
@@ -43,14 +45,17 @@ public class Budget {
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
 
+    public Integer getUserId() { return userId; }
+    public void setUserId(Integer userId) { this.userId = userId; }
+
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
 
-    public double getLimitAmount() { return limitAmount; }
-    public void setLimitAmount(double limitAmount) { this.limitAmount = limitAmount; }
+    public Money getLimitAmount() { return limitAmount; }
+    public void setLimitAmount(Money limitAmount) { this.limitAmount = limitAmount; }
 
-    public double getSpentAmount() { return spentAmount; }
-    public void setSpentAmount(double spentAmount) { this.spentAmount = spentAmount; }
+    public Money getSpentAmount() { return spentAmount; }
+    public void setSpentAmount(Money spentAmount) { this.spentAmount = spentAmount; }
 
     public LocalDate getStartDate() { return startDate; }
     public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
@@ -65,17 +70,16 @@ public class Budget {
     public void setActive(boolean active) { isActive = active; }
 
     // Helper methods
-    public double getRemainingAmount() {
-        return limitAmount - spentAmount;
+    public Money getRemainingAmount() {
+        return limitAmount.minus(spentAmount);
     }
 
     public double getUsagePercentage() {
-        if (limitAmount == 0) return 0;
-        return (spentAmount / limitAmount) * 100;
+        return spentAmount.percentOf(limitAmount);
     }
 
     public boolean isOverBudget() {
-        return spentAmount > limitAmount;
+        return spentAmount.isGreaterThan(limitAmount);
     }
 
     public boolean isNearLimit(double threshold) {
@@ -98,6 +102,7 @@ public class Budget {
     public String toString() {
         return "Budget{" +
                 "id=" + id +
+                ", userId=" + userId +
                 ", category='" + category + '\'' +
                 ", limitAmount=" + limitAmount +
                 ", spentAmount=" + spentAmount +
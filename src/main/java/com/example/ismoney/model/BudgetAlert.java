@@ -0,0 +1,52 @@
+package com.example.ismoney.model;
+
+import java.time.Instant;
+
+// Satu threshold budget yang baru saja terlewati, mis. pengeluaran mencapai 80% dari limit
+public class BudgetAlert {
+    private final int budgetId;
+    private final String category;
+    private final int threshold;
+    private final Money spentAmount;
+    private final Money limitAmount;
+    private final Instant firedAt;
+
+    public BudgetAlert(int budgetId, String category, int threshold, Money spentAmount, Money limitAmount, Instant firedAt) {
+        this.budgetId = budgetId;
+        this.category = category;
+        this.threshold = threshold;
+        this.spentAmount = spentAmount;
+        this.limitAmount = limitAmount;
+        this.firedAt = firedAt;
+    }
+
+    public int getBudgetId() { return budgetId; }
+    public String getCategory() { return category; }
+    public int getThreshold() { return threshold; }
+    public Money getSpentAmount() { return spentAmount; }
+    public Money getLimitAmount() { return limitAmount; }
+    public Instant getFiredAt() { return firedAt; }
+
+    public boolean isOverBudget() {
+        return spentAmount.isGreaterThan(limitAmount);
+    }
+
+    public String getMessage() {
+        if (isOverBudget()) {
+            return "Budget " + category + " terlampaui (" + Math.round(spentAmount.percentOf(limitAmount)) + "% dari limit)";
+        }
+        return "Budget " + category + " sudah mencapai " + threshold + "% dari limit";
+    }
+
+    @Override
+    public String toString() {
+        return "BudgetAlert{" +
+                "budgetId=" + budgetId +
+                ", category='" + category + '\'' +
+                ", threshold=" + threshold +
+                ", spentAmount=" + spentAmount +
+                ", limitAmount=" + limitAmount +
+                ", firedAt=" + firedAt +
+                '}';
+    }
+}
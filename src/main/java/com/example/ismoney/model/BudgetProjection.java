@@ -0,0 +1,63 @@
+package com.example.ismoney.model;
+
+import java.time.LocalDate;
+
+// Perkiraan pengeluaran budget sampai akhir periode, dihitung dari pola pengeluaran harian
+public class BudgetProjection {
+    private final int budgetId;
+    private final String category;
+    private final Money limitAmount;
+    private final Money spentToDate;
+    private final Money projectedSpend;
+    private final Money projectedDailyRate;
+    private final LocalDate overrunDate;
+    private final LocalDate asOf;
+
+    public BudgetProjection(int budgetId, String category, Money limitAmount, Money spentToDate,
+                            Money projectedSpend, Money projectedDailyRate, LocalDate overrunDate, LocalDate asOf) {
+        this.budgetId = budgetId;
+        this.category = category;
+        this.limitAmount = limitAmount;
+        this.spentToDate = spentToDate;
+        this.projectedSpend = projectedSpend;
+        this.projectedDailyRate = projectedDailyRate;
+        this.overrunDate = overrunDate;
+        this.asOf = asOf;
+    }
+
+    public int getBudgetId() { return budgetId; }
+    public String getCategory() { return category; }
+    public Money getLimitAmount() { return limitAmount; }
+    public Money getSpentToDate() { return spentToDate; }
+
+    // Total pengeluaran yang diperkirakan pada end_date
+    public Money getProjectedSpend() { return projectedSpend; }
+
+    // Laju harian menurut tren pada hari perhitungan, sebelum faktor hari dalam minggu
+    public Money getProjectedDailyRate() { return projectedDailyRate; }
+
+    // Hari pertama total pengeluaran (aktual atau perkiraan) melewati limit; null kalau tidak
+    public LocalDate getOverrunDate() { return overrunDate; }
+
+    public LocalDate getAsOf() { return asOf; }
+
+    public boolean willOverrun() {
+        return overrunDate != null;
+    }
+
+    public double getProjectedUsagePercentage() {
+        return projectedSpend.percentOf(limitAmount);
+    }
+
+    @Override
+    public String toString() {
+        return "BudgetProjection{" +
+                "budgetId=" + budgetId +
+                ", category='" + category + '\'' +
+                ", spentToDate=" + spentToDate +
+                ", projectedSpend=" + projectedSpend +
+                ", limitAmount=" + limitAmount +
+                ", overrunDate=" + overrunDate +
+                '}';
+    }
+}
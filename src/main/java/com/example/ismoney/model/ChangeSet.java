@@ -0,0 +1,28 @@
+package com.example.ismoney.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Hasil delta sync: baris yang berubah (baru atau diedit), ID baris yang dihapus,
+// dan watermark untuk pemanggilan fetchChangesSince berikutnya.
+public class ChangeSet<T> {
+    private final List<T> upserts;
+    private final Set<Integer> deletedIds;
+    private final Instant watermark;
+
+    public ChangeSet(List<T> upserts, Set<Integer> deletedIds, Instant watermark) {
+        this.upserts = Collections.unmodifiableList(upserts);
+        this.deletedIds = Collections.unmodifiableSet(deletedIds);
+        this.watermark = watermark;
+    }
+
+    public List<T> getUpserts() { return upserts; }
+    public Set<Integer> getDeletedIds() { return deletedIds; }
+    public Instant getWatermark() { return watermark; }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ismoney.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+
+// Rentang tanggal half-open [start, endExclusive). Dipakai DAO supaya filter tanggal
+// selalu jadi "transaction_date >= ? AND transaction_date < ?" yang bisa memakai index.
+public final class DateRange {
+    private final LocalDate start;
+    private final LocalDate endExclusive;
+
+    private DateRange(LocalDate start, LocalDate endExclusive) {
+        Objects.requireNonNull(start, "start");
+        Objects.requireNonNull(endExclusive, "endExclusive");
+        if (endExclusive.isBefore(start)) {
+            throw new IllegalArgumentException("End date " + endExclusive + " is before start date " + start);
+        }
+        this.start = start;
+        this.endExclusive = endExclusive;
+    }
+
+    public static DateRange halfOpen(LocalDate start, LocalDate endExclusive) {
+        return new DateRange(start, endExclusive);
+    }
+
+    // Kedua tanggal inklusif, seperti BETWEEN
+    public static DateRange between(LocalDate startInclusive, LocalDate endInclusive) {
+        return new DateRange(startInclusive, endInclusive.plusDays(1));
+    }
+
+    public static DateRange ofDay(LocalDate date) {
+        return new DateRange(date, date.plusDays(1));
+    }
+
+    public static DateRange ofMonth(YearMonth month) {
+        return new DateRange(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    // Minggu Senin-Minggu yang memuat tanggal tersebut
+    public static DateRange ofWeek(LocalDate anyDayInWeek) {
+        LocalDate monday = anyDayInWeek.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return new DateRange(monday, monday.plusWeeks(1));
+    }
+
+    public LocalDate getStart() { return start; }
+    public LocalDate getEndExclusive() { return endExclusive; }
+    public LocalDate getEndInclusive() { return endExclusive.minusDays(1); }
+
+    public boolean isEmpty() {
+        return !start.isBefore(endExclusive);
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(start) && date.isBefore(endExclusive);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DateRange)) return false;
+        DateRange other = (DateRange) o;
+        return start.equals(other.start) && endExclusive.equals(other.endExclusive);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, endExclusive);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + endExclusive + ")";
+    }
+}
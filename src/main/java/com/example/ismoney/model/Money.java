@@ -0,0 +1,128 @@
+package com.example.ismoney.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Nominal uang dalam satuan sen (long), immutable. Penjumlahan dan perbandingan hanya operasi
+// long, tanpa BigDecimal/BigInteger per operasi. Kolom NUMERIC dibaca/ditulis lewat
+// MoneyColumns di package dao; BigDecimal hanya dipakai di batas parsing dan database.
+public final class Money implements Comparable<Money> {
+
+    // Dua angka desimal, sama dengan kolom NUMERIC(15,2) di database
+    public static final int SCALE = 2;
+    private static final long MINOR_PER_UNIT = 100;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Nominal rupiah utuh, mis. Money.of(15000)
+    public static Money of(long units) {
+        return ofMinor(Math.multiplyExact(units, MINOR_PER_UNIT));
+    }
+
+    // Pembulatan HALF_UP ke sen; ArithmeticException kalau di luar jangkauan long
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Teks angka biasa ("15000", "15000.50"); format "Rp 1.000" diparse di controller
+    public static Money parse(String text) {
+        return of(new BigDecimal(text.trim()));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public Money abs() {
+        return minorUnits < 0 ? negate() : this;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return minorUnits > other.minorUnits;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    // Persentase nilai ini terhadap whole (mis. terpakai terhadap limit); 0 kalau whole nol
+    public double percentOf(Money whole) {
+        if (whole.minorUnits == 0) {
+            return 0;
+        }
+        return minorUnits * 100.0 / whole.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // Hanya untuk tampilan (format, chart), bukan untuk hitungan
+    public double doubleValue() {
+        return minorUnits / (double) MINOR_PER_UNIT;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    // Angka biasa dengan dua desimal, mis. "15000.00"
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
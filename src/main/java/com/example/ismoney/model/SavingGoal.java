@@ -1,30 +1,28 @@
 package com.example.ismoney.model;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 
 public class SavingGoal {
     private Integer goalId;
     private Integer userId;
     private String goalName;
-    private BigDecimal targetAmount;
-    private BigDecimal currentAmount;
+    private Money targetAmount;
+    private Money currentAmount;
     private LocalDate targetDate;
     private LocalDate createdDate;
     private String status;
     private LocalDate updatedAt;
 
     public SavingGoal() {
-        this.currentAmount = BigDecimal.ZERO;
+        this.currentAmount = Money.ZERO;
         this.createdDate = LocalDate.now();
         this.updatedAt = LocalDate.now();
         this.status = "ACTIVE";
     }
 
     // utkpemanggilan dari DAO
-    public SavingGoal(Integer goalId, Integer userId, String goalName, BigDecimal targetAmount,
-                      BigDecimal currentAmount, LocalDate targetDate, LocalDate createdDate, String status) {
+    public SavingGoal(Integer goalId, Integer userId, String goalName, Money targetAmount,
+                      Money currentAmount, LocalDate targetDate, LocalDate createdDate, String status) {
         this.goalId = goalId;
         this.userId = userId;
         this.goalName = goalName;
@@ -42,15 +40,14 @@ public class SavingGoal {
 
     //untuk progres dan status
     public double getProgressPercentage() {
-        if (targetAmount == null || targetAmount.compareTo(BigDecimal.ZERO) == 0) {
+        if (targetAmount == null) {
             return 0.0;
         }
-        return currentAmount.divide(targetAmount, 4, RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100)).doubleValue();
+        return currentAmount.percentOf(targetAmount);
     }
 
-    public BigDecimal getRemainingAmount() {
-        return targetAmount.subtract(currentAmount);
+    public Money getRemainingAmount() {
+        return targetAmount.minus(currentAmount);
     }
 
     public boolean isCompleted() {
@@ -80,11 +77,11 @@ public class SavingGoal {
     public String getGoalName() { return goalName; }
     public void setGoalName(String goalName) { this.goalName = goalName; }
 
-    public BigDecimal getTargetAmount() { return targetAmount; }
-    public void setTargetAmount(BigDecimal targetAmount) { this.targetAmount = targetAmount; }
+    public Money getTargetAmount() { return targetAmount; }
+    public void setTargetAmount(Money targetAmount) { this.targetAmount = targetAmount; }
 
-    public BigDecimal getCurrentAmount() { return currentAmount; }
-    public void setCurrentAmount(BigDecimal currentAmount) { this.currentAmount = currentAmount; }
+    public Money getCurrentAmount() { return currentAmount; }
+    public void setCurrentAmount(Money currentAmount) { this.currentAmount = currentAmount; }
 
     public LocalDate getTargetDate() { return targetDate; }
     public void setTargetDate(LocalDate targetDate) { this.targetDate = targetDate; }
@@ -1,18 +1,19 @@
 package com.example.ismoney.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class Transaction {
     private int transactionId;
     private int userId;
-    private BigDecimal amount;
+    private Money amount;
     private TransactionType type; // enum
     private int categoryId;
     private String note;
     private LocalDate transactionDate;
     private LocalDateTime createdAt;
+    // Hanya diisi untuk transaksi hasil import, lihat TransactionFingerprint
+    private String fingerprint;
 
     // Constructor kosong
     public Transaction() {}
@@ -34,11 +35,11 @@ public class Transaction {
         this.userId = userId;
     }
 
-    public BigDecimal getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -82,6 +83,14 @@ public class Transaction {
         this.createdAt = createdAt;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     @Override
     public String toString() {
         return "Transaction{" +
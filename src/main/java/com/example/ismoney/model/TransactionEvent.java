@@ -0,0 +1,44 @@
+package com.example.ismoney.model;
+
+// Perubahan satu transaksi: before = nilai sebelum perubahan (null untuk CREATED),
+// after = nilai sesudahnya (null untuk DELETED). Listener cukup mengurangi before dan
+// menambahkan after untuk mendapatkan delta apa pun.
+public class TransactionEvent {
+
+    public enum Kind { CREATED, UPDATED, DELETED }
+
+    private final Kind kind;
+    private final Transaction before;
+    private final Transaction after;
+
+    private TransactionEvent(Kind kind, Transaction before, Transaction after) {
+        this.kind = kind;
+        this.before = before;
+        this.after = after;
+    }
+
+    public static TransactionEvent created(Transaction after) {
+        return new TransactionEvent(Kind.CREATED, null, after);
+    }
+
+    public static TransactionEvent updated(Transaction before, Transaction after) {
+        return new TransactionEvent(Kind.UPDATED, before, after);
+    }
+
+    public static TransactionEvent deleted(Transaction before) {
+        return new TransactionEvent(Kind.DELETED, before, null);
+    }
+
+    public Kind getKind() { return kind; }
+    public Transaction getBefore() { return before; }
+    public Transaction getAfter() { return after; }
+
+    public Integer getUserId() {
+        return after != null ? after.getUserId() : before.getUserId();
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionEvent{" + kind + ", before=" + before + ", after=" + after + '}';
+    }
+}
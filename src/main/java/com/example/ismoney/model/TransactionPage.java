@@ -0,0 +1,56 @@
+package com.example.ismoney.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+// Satu halaman transaksi hasil keyset pagination, urut (transaction_date DESC, transaction_id DESC).
+// nextCursor berisi posisi baris terakhir; null berarti sudah halaman terakhir.
+public class TransactionPage {
+    private final List<Transaction> transactions;
+    private final String nextCursor;
+
+    public TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() { return transactions; }
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    // Token cursor opaque untuk UI: "tanggal:id" dalam Base64 URL-safe
+    public static String encodeCursor(LocalDate transactionDate, int transactionId) {
+        String raw = transactionDate + ":" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodeCursor(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            return new Cursor(LocalDate.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor transaksi tidak valid: " + token, e);
+        }
+    }
+
+    public static class Cursor {
+        private final LocalDate transactionDate;
+        private final int transactionId;
+
+        public Cursor(LocalDate transactionDate, int transactionId) {
+            this.transactionDate = transactionDate;
+            this.transactionId = transactionId;
+        }
+
+        public LocalDate getTransactionDate() { return transactionDate; }
+        public int getTransactionId() { return transactionId; }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.BudgetAlertDAO;
+import com.example.ismoney.dao.TransactionEvents;
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.BudgetAlert;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Alert threshold budget secara incremental: hanya budget yang baru kena delta pengeluaran
+// (dari BudgetSpendProjector) yang dievaluasi, tidak pernah seluruh budget. Setiap threshold
+// terpicu sekali per budget (dijamin unique key di budget_alerts) dan dipasang ulang kalau
+// pengeluaran turun lagi di bawahnya. Subscriber (mis. toast di UI) dipanggil setelah commit,
+// dari thread yang menulis transaksi.
+public class BudgetAlertEngine {
+
+    public static final int[] DEFAULT_THRESHOLDS = {80, 100};
+
+    private static final BudgetAlertEngine instance = new BudgetAlertEngine();
+
+    private final BudgetAlertDAO alertDAO = new BudgetAlertDAO();
+    private final List<Consumer<BudgetAlert>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile int[] thresholds = DEFAULT_THRESHOLDS.clone();
+
+    private BudgetAlertEngine() {}
+
+    public static BudgetAlertEngine getInstance() {
+        return instance;
+    }
+
+    public void subscribe(Consumer<BudgetAlert> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<BudgetAlert> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    // Persen dari limit, mis. setThresholds(50, 80, 100, 120)
+    public void setThresholds(int... levels) {
+        int[] sorted = Arrays.stream(levels).distinct().sorted().toArray();
+        if (sorted.length == 0 || sorted[0] <= 0) {
+            throw new IllegalArgumentException("Threshold alert harus lebih dari 0");
+        }
+        thresholds = sorted;
+    }
+
+    public int[] getThresholds() {
+        return thresholds.clone();
+    }
+
+    // Dipanggil di dalam transaksi database dengan budget yang spent_amount-nya baru berubah.
+    // Kalau budget muncul lebih dari sekali, nilai terakhir yang dipakai.
+    public void evaluate(Connection conn, Collection<Budget> touched) throws SQLException {
+        if (touched.isEmpty() || !BudgetAlertDAO.isAvailable()) {
+            return;
+        }
+
+        Map<Integer, Budget> latest = new LinkedHashMap<>();
+        for (Budget budget : touched) {
+            latest.put(budget.getId(), budget);
+        }
+
+        int[] levels = thresholds;
+        List<Budget> reachedBudgets = new ArrayList<>();
+        List<Integer> reachedLevels = new ArrayList<>();
+        List<Integer> budgetIds = new ArrayList<>();
+        List<Integer> highest = new ArrayList<>();
+        for (Budget budget : latest.values()) {
+            int highestReached = 0;
+            for (int level : levels) {
+                if (!budget.isNearLimit(level)) {
+                    break;
+                }
+                reachedBudgets.add(budget);
+                reachedLevels.add(level);
+                highestReached = level;
+            }
+            budgetIds.add(budget.getId());
+            highest.add(highestReached);
+        }
+
+        alertDAO.rearmAbove(conn, budgetIds, highest);
+        List<BudgetAlert> fired = alertDAO.recordReached(conn, reachedBudgets, reachedLevels);
+        if (!fired.isEmpty()) {
+            TransactionEvents.runAfterCommit(() -> publish(fired));
+        }
+    }
+
+    private void publish(List<BudgetAlert> fired) {
+        for (BudgetAlert alert : fired) {
+            System.out.println("Budget alert: " + alert);
+            for (Consumer<BudgetAlert> subscriber : subscribers) {
+                try {
+                    subscriber.accept(alert);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in budget alert subscriber: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
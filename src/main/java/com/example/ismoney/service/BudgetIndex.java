@@ -0,0 +1,208 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.BudgetDAO;
+import com.example.ismoney.database.ChangeNotificationListener;
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.util.IntervalTree;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Index budget aktif satu user di memori: satu interval tree per kategori plus satu untuk semua
+// kategori. Cek "budget kategori X pada tanggal D", "budget yang berjalan hari ini" dan overlap saat
+// menyimpan budget dijawab tanpa query. Dimuat dari getActiveBudgets(userId) saat pertama dipakai,
+// diperbarui langsung oleh BudgetService, dan dimuat ulang kalau budget user ini berubah dari
+// luar (notifikasi LISTEN/NOTIFY) atau spent_amount bergeser karena transaksi baru.
+public class BudgetIndex {
+
+    private static final Set<String> WATCHED_TABLES = Set.of("budgets");
+    private static final Comparator<Budget> BY_CATEGORY =
+            Comparator.comparing(Budget::getCategory).thenComparing(Budget::getStartDate);
+
+    private static final Map<Integer, BudgetIndex> indexes = new ConcurrentHashMap<>();
+    private static final AtomicLong versionCounter = new AtomicLong();
+
+    private final Integer userId;
+    private final BudgetDAO budgetDAO = new BudgetDAO();
+
+    private final Map<Integer, Budget> budgets = new HashMap<>();
+    private final Map<String, IntervalTree<Budget>> byCategory = new HashMap<>();
+    private IntervalTree<Budget> all = IntervalTree.empty();
+    private boolean loaded = false;
+    // Berganti setiap kali isi index berubah atau di-invalidate; dipakai BudgetSummaryCache.
+    // Diambil dari counter global supaya index baru (setelah logout) tidak mengulang versi lama
+    private long version = versionCounter.incrementAndGet();
+    private ChangeNotificationListener.Subscription subscription;
+
+    private BudgetIndex(Integer userId) {
+        this.userId = userId;
+    }
+
+    public static BudgetIndex forUser(Integer userId) {
+        return indexes.computeIfAbsent(userId, BudgetIndex::new);
+    }
+
+    // Dipanggil saat logout supaya budget user sebelumnya tidak tertinggal di memori
+    public static void clearAll() {
+        for (BudgetIndex index : indexes.values()) {
+            index.close();
+        }
+        indexes.clear();
+    }
+
+    // Untuk perubahan yang pemiliknya tidak diketahui (recompute massal, rollover)
+    public static void invalidateAll() {
+        for (BudgetIndex index : indexes.values()) {
+            index.invalidate();
+        }
+    }
+
+    // ===== Query; yang dikembalikan selalu salinan, aman diubah pemanggil =====
+
+    // Sama dengan BudgetDAO.getBudgetByCategory: budget aktif kategori tersebut yang mencakup tanggal
+    public synchronized Budget getBudgetByCategory(String category, LocalDate date) throws SQLException {
+        ensureLoaded();
+        List<Budget> found = tree(category).containing(date);
+        return found.isEmpty() ? null : copy(found.get(0));
+    }
+
+    // Sama dengan BudgetDAO.getCurrentBudgets untuk tanggal apa pun, urut per kategori
+    public synchronized List<Budget> getActiveOn(LocalDate date) throws SQLException {
+        ensureLoaded();
+        return sortedCopies(all.containing(date));
+    }
+
+    // Budget aktif kategori tersebut yang periodenya bertumpuk dengan [start, end]
+    public synchronized List<Budget> findOverlapping(String category, LocalDate start, LocalDate end) throws SQLException {
+        ensureLoaded();
+        return sortedCopies(tree(category).overlapping(start, end));
+    }
+
+    public synchronized List<Budget> getActiveBudgets() throws SQLException {
+        ensureLoaded();
+        return sortedCopies(budgets.values());
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // ===== Sinkronisasi =====
+
+    // Setelah insert/update berhasil di database; budget nonaktif dikeluarkan dari index
+    public synchronized void put(Budget budget) {
+        version = versionCounter.incrementAndGet();
+        if (!loaded) {
+            return;
+        }
+        Budget previous = budgets.remove(budget.getId());
+        if (budget.isActive()) {
+            budgets.put(budget.getId(), copy(budget));
+        }
+        if (previous != null && !previous.getCategory().equals(budget.getCategory())) {
+            rebuildCategory(previous.getCategory());
+        }
+        rebuildCategory(budget.getCategory());
+        all = IntervalTree.of(budgets.values(), Budget::getStartDate, Budget::getEndDate);
+    }
+
+    // Setelah deactivate/delete berhasil di database
+    public synchronized void remove(int budgetId) {
+        version = versionCounter.incrementAndGet();
+        if (!loaded) {
+            return;
+        }
+        Budget previous = budgets.remove(budgetId);
+        if (previous != null) {
+            rebuildCategory(previous.getCategory());
+            all = IntervalTree.of(budgets.values(), Budget::getStartDate, Budget::getEndDate);
+        }
+    }
+
+    // Data di index tidak lagi bisa dipercaya; dimuat ulang saat query berikutnya
+    public synchronized void invalidate() {
+        version = versionCounter.incrementAndGet();
+        loaded = false;
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        if (subscription == null) {
+            subscription = ChangeNotificationListener.getInstance().subscribe(userId, event -> {
+                if (event.affects(WATCHED_TABLES)) {
+                    invalidate();
+                }
+            });
+        }
+
+        load(budgetDAO.getActiveBudgets(userId));
+    }
+
+    // Package-private supaya index bisa dites tanpa database
+    synchronized void load(List<Budget> activeBudgets) {
+        budgets.clear();
+        for (Budget budget : activeBudgets) {
+            budgets.put(budget.getId(), budget);
+        }
+        byCategory.clear();
+        Map<String, List<Budget>> grouped = new HashMap<>();
+        for (Budget budget : budgets.values()) {
+            grouped.computeIfAbsent(budget.getCategory(), c -> new ArrayList<>()).add(budget);
+        }
+        for (Map.Entry<String, List<Budget>> entry : grouped.entrySet()) {
+            byCategory.put(entry.getKey(), IntervalTree.of(entry.getValue(), Budget::getStartDate, Budget::getEndDate));
+        }
+        all = IntervalTree.of(budgets.values(), Budget::getStartDate, Budget::getEndDate);
+        loaded = true;
+    }
+
+    private synchronized void close() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        invalidate();
+    }
+
+    private void rebuildCategory(String category) {
+        List<Budget> inCategory = new ArrayList<>();
+        for (Budget budget : budgets.values()) {
+            if (budget.getCategory().equals(category)) {
+                inCategory.add(budget);
+            }
+        }
+        if (inCategory.isEmpty()) {
+            byCategory.remove(category);
+        } else {
+            byCategory.put(category, IntervalTree.of(inCategory, Budget::getStartDate, Budget::getEndDate));
+        }
+    }
+
+    private IntervalTree<Budget> tree(String category) {
+        return byCategory.getOrDefault(category, IntervalTree.empty());
+    }
+
+    private static List<Budget> sortedCopies(Iterable<Budget> source) {
+        List<Budget> result = new ArrayList<>();
+        for (Budget budget : source) {
+            result.add(copy(budget));
+        }
+        result.sort(BY_CATEGORY);
+        return result;
+    }
+
+    private static Budget copy(Budget budget) {
+        return new Budget(budget.getId(), budget.getUserId(), budget.getCategory(), budget.getLimitAmount(), budget.getSpentAmount(),
+                budget.getStartDate(), budget.getEndDate(), budget.getPeriod(), budget.isActive());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.BudgetDAO;
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.BudgetProjection;
+import com.example.ismoney.model.Money;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Proyeksi burn rate untuk semua budget yang sedang berjalan milik satu user, dalam satu batch:
+// satu query deret pengeluaran harian untuk semua budget, lalu per budget
+//   - profil hari dalam minggu (faktor per Senin..Minggu) dari HISTORY_DAYS sebelum periode sampai hari ini,
+//   - tren linear (least squares) atas pengeluaran harian periode ini setelah faktor hari dibagi keluar,
+//   - sisa hari diproyeksikan dengan tren x faktor hari, dijumlah ke pengeluaran aktual.
+// Hasil di-cache per user per hari dan dihitung ulang kalau versi BudgetIndex berubah
+// (pengeluaran atau budget berubah).
+public class BudgetProjectionService {
+
+    // Delapan minggu riwayat supaya setiap hari dalam minggu punya beberapa sampel
+    static final int HISTORY_DAYS = 56;
+    // Di bawah ini tren terlalu berisik; dipakai rata-rata harian riwayat saja
+    static final int MIN_TREND_DAYS = 7;
+    // Bobot prior (dalam hari) yang menarik faktor hari ke 1.0 kalau sampelnya sedikit
+    private static final double WEEKDAY_SMOOTHING = 2.0;
+
+    private static final Map<Integer, CachedProjections> cache = new ConcurrentHashMap<>();
+
+    private final BudgetDAO budgetDAO;
+
+    public BudgetProjectionService() {
+        this.budgetDAO = new BudgetDAO();
+    }
+
+    public List<BudgetProjection> projectCurrentBudgets(Integer userId) throws SQLException {
+        LocalDate today = LocalDate.now();
+        BudgetIndex budgetIndex = BudgetIndex.forUser(userId);
+        long version = budgetIndex.getVersion();
+
+        CachedProjections cached = cache.get(userId);
+        if (cached != null && cached.date.equals(today) && cached.version == version) {
+            return cached.projections;
+        }
+
+        List<Budget> budgets = budgetIndex.getActiveOn(today);
+        List<Integer> ids = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            ids.add(budget.getId());
+        }
+        Map<Integer, Map<LocalDate, Money>> series = budgetDAO.getDailySpend(ids, HISTORY_DAYS, today, userId);
+
+        List<BudgetProjection> projections = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            projections.add(project(budget, series.getOrDefault(budget.getId(), Map.of()), today));
+        }
+
+        List<BudgetProjection> result = Collections.unmodifiableList(projections);
+        cache.put(userId, new CachedProjections(today, version, result));
+        return result;
+    }
+
+    // Budget yang diperkirakan melewati limit sebelum periodenya berakhir
+    public List<BudgetProjection> getProjectedOverruns(Integer userId) throws SQLException {
+        List<BudgetProjection> overruns = new ArrayList<>();
+        for (BudgetProjection projection : projectCurrentBudgets(userId)) {
+            if (projection.willOverrun()) {
+                overruns.add(projection);
+            }
+        }
+        return overruns;
+    }
+
+    // Dipanggil saat logout
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    static BudgetProjection project(Budget budget, Map<LocalDate, Money> dailySpend, LocalDate today) {
+        LocalDate start = budget.getStartDate();
+        LocalDate end = budget.getEndDate();
+        LocalDate asOf = today.isAfter(end) ? end : today;
+        LocalDate historyStart = start.minusDays(HISTORY_DAYS);
+
+        // Deret harian dalam sen dari historyStart sampai asOf, hari kosong = 0
+        int historyLength = (int) ChronoUnit.DAYS.between(historyStart, asOf) + 1;
+        long[] daily = new long[historyLength];
+        for (Map.Entry<LocalDate, Money> entry : dailySpend.entrySet()) {
+            int index = (int) ChronoUnit.DAYS.between(historyStart, entry.getKey());
+            if (index >= 0 && index < historyLength) {
+                daily[index] = entry.getValue().getMinorUnits();
+            }
+        }
+
+        double[] weekdayFactor = weekdayFactors(daily, historyStart);
+
+        // Hari periode yang sudah berjalan (termasuk hari ini) dimulai di offset HISTORY_DAYS
+        int elapsed = historyLength - HISTORY_DAYS;
+        long spentToDate = 0;
+        LocalDate overrunDate = null;
+        long limit = budget.getLimitAmount().getMinorUnits();
+        for (int i = 0; i < elapsed; i++) {
+            spentToDate += daily[HISTORY_DAYS + i];
+            if (overrunDate == null && spentToDate > limit) {
+                overrunDate = start.plusDays(i);
+            }
+        }
+
+        // Tren a + b * hariKe, dihitung atas pengeluaran yang sudah dibagi faktor harinya
+        double intercept;
+        double slope;
+        if (elapsed >= MIN_TREND_DAYS) {
+            double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+            for (int i = 0; i < elapsed; i++) {
+                double y = daily[HISTORY_DAYS + i] / weekdayFactor[dayOfWeek(start.plusDays(i))];
+                sumX += i;
+                sumY += y;
+                sumXY += i * y;
+                sumXX += (double) i * i;
+            }
+            double meanX = sumX / elapsed;
+            double meanY = sumY / elapsed;
+            double variance = sumXX / elapsed - meanX * meanX;
+            slope = variance > 0 ? (sumXY / elapsed - meanX * meanY) / variance : 0;
+            intercept = meanY - slope * meanX;
+        } else {
+            long total = 0;
+            for (long value : daily) {
+                total += value;
+            }
+            slope = 0;
+            intercept = total / (double) historyLength;
+        }
+
+        int periodLength = (int) ChronoUnit.DAYS.between(start, end) + 1;
+        double cumulative = spentToDate;
+        for (int i = elapsed; i < periodLength; i++) {
+            LocalDate day = start.plusDays(i);
+            double rate = Math.max(0, intercept + slope * i);
+            cumulative += rate * weekdayFactor[dayOfWeek(day)];
+            if (overrunDate == null && cumulative > limit) {
+                overrunDate = day;
+            }
+        }
+
+        return new BudgetProjection(budget.getId(), budget.getCategory(), budget.getLimitAmount(),
+                Money.ofMinor(spentToDate),
+                Money.ofMinor(Math.round(cumulative)),
+                Money.ofMinor(Math.round(Math.max(0, intercept + slope * elapsed))),
+                overrunDate, asOf);
+    }
+
+    // Rata-rata per hari dalam minggu dibagi rata-rata keseluruhan; 1.0 semua kalau belum ada pengeluaran
+    private static double[] weekdayFactors(long[] daily, LocalDate firstDay) {
+        double[] sums = new double[7];
+        int[] counts = new int[7];
+        double total = 0;
+        for (int i = 0; i < daily.length; i++) {
+            int dow = dayOfWeek(firstDay.plusDays(i));
+            sums[dow] += daily[i];
+            counts[dow]++;
+            total += daily[i];
+        }
+
+        double[] factors = new double[7];
+        double overall = total / daily.length;
+        for (int dow = 0; dow < 7; dow++) {
+            if (overall <= 0) {
+                factors[dow] = 1.0;
+            } else {
+                double mean = (sums[dow] + overall * WEEKDAY_SMOOTHING) / (counts[dow] + WEEKDAY_SMOOTHING);
+                // Batas bawah supaya pembagian di tren tidak meledak untuk hari yang hampir selalu nol
+                factors[dow] = Math.max(0.1, mean / overall);
+            }
+        }
+        return factors;
+    }
+
+    private static int dayOfWeek(LocalDate date) {
+        return date.getDayOfWeek().getValue() - 1;
+    }
+
+    private static class CachedProjections {
+        private final LocalDate date;
+        private final long version;
+        private final List<BudgetProjection> projections;
+
+        private CachedProjections(LocalDate date, long version, List<BudgetProjection> projections) {
+            this.date = date;
+            this.version = version;
+            this.projections = projections;
+        }
+    }
+}
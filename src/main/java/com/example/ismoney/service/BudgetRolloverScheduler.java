@@ -0,0 +1,72 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.BudgetDAO;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Membuat periode berikutnya untuk budget berulang (weekly/monthly/yearly) yang sudah berakhir.
+// Hanya untuk budget user yang sedang login: dimulai saat login (mengejar periode yang terlewat
+// selama aplikasi tertutup), lalu setiap pergantian hari, karena periode budget selalu berganti
+// di batas hari. Dihentikan saat logout.
+public class BudgetRolloverScheduler {
+
+    // Sedikit jeda setelah tengah malam supaya LocalDate.now() pasti sudah hari berikutnya
+    private static final Duration AFTER_MIDNIGHT = Duration.ofMinutes(1);
+
+    private static ScheduledExecutorService scheduler;
+
+    private BudgetRolloverScheduler() {}
+
+    public static synchronized void start(Integer userId) {
+        shutdown();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ismoney-budget-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long untilMidnight = Duration.between(LocalDateTime.now(),
+                LocalDate.now().plusDays(1).atStartOfDay().plus(AFTER_MIDNIGHT)).toMillis();
+        scheduler.execute(() -> runOnce(userId));
+        scheduler.scheduleAtFixedRate(() -> runOnce(userId),
+                untilMidnight, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Exception tidak boleh lolos, scheduleAtFixedRate berhenti total kalau satu run gagal
+    private static void runOnce(Integer userId) {
+        try {
+            List<Integer> created = rollOver(LocalDate.now(), userId);
+            if (!created.isEmpty()) {
+                System.out.println("Budget rollover created " + created.size() + " budget period(s): " + created);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Budget rollover failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public static List<Integer> rollOver(LocalDate today, Integer userId) throws SQLException {
+        if (!BudgetDAO.isSpentTrackingAvailable()) {
+            return List.of();
+        }
+        List<Integer> created = new BudgetDAO().rollOverExpired(today, userId);
+        if (!created.isEmpty()) {
+            BudgetIndex.forUser(userId).invalidate();
+        }
+        return created;
+    }
+}
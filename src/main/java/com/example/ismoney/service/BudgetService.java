@@ -1,13 +1,17 @@
 package com.example.ismoney.service;
 
 import com.example.ismoney.dao.BudgetDAO;
+import com.example.ismoney.database.DatabaseConfig;
 import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.Money;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+// Semua operasi budget dibatasi ke satu user (budgets.user_id, migrasi V8)
 public class BudgetService {
     private final BudgetDAO budgetDAO;
 
@@ -16,148 +20,129 @@ public class BudgetService {
     }
 
     // Save new budget
-    public void saveBudget(Budget budget) throws SQLException {
+    public void saveBudget(Budget budget, Integer userId) throws SQLException {
+        budget.setUserId(userId);
         // Validate budget before saving
         validateBudget(budget);
 
-        // Check for overlapping budgets in same category
-        Budget existingBudget = budgetDAO.getBudgetByCategory(budget.getCategory(), LocalDate.now());
-        if (existingBudget != null && existingBudget.isActive()) {
-            throw new SQLException("Budget aktif untuk kategori '" + budget.getCategory() + "' sudah ada.");
+        BudgetIndex budgetIndex = BudgetIndex.forUser(userId);
+        // Check for overlapping budgets in same category (periode baru vs budget aktif, dari index)
+        if (!budgetIndex.findOverlapping(budget.getCategory(), budget.getStartDate(), budget.getEndDate()).isEmpty()) {
+            throw new SQLException("Budget aktif untuk kategori '" + budget.getCategory() + "' sudah ada pada periode tersebut.");
         }
 
         budgetDAO.saveBudget(budget);
+        budgetIndex.put(budget);
     }
 
     // Update existing budget
-    public void updateBudget(Budget budget) throws SQLException {
+    public void updateBudget(Budget budget, Integer userId) throws SQLException {
+        budget.setUserId(userId);
         validateBudget(budget);
-        budgetDAO.updateBudget(budget);
+        if (!budgetDAO.updateBudget(budget)) {
+            throw new SQLException("Budget tidak ditemukan.");
+        }
+        BudgetIndex.forUser(userId).put(budget);
     }
 
     // Get all budgets
-    public List<Budget> getAllBudgets() throws SQLException {
-        return budgetDAO.getAllBudgets();
+    public List<Budget> getAllBudgets(Integer userId) throws SQLException {
+        return budgetDAO.getAllBudgets(userId);
     }
 
     // Get active budgets only
-    public List<Budget> getActiveBudgets() throws SQLException {
-        return budgetDAO.getActiveBudgets();
+    public List<Budget> getActiveBudgets(Integer userId) throws SQLException {
+        return BudgetIndex.forUser(userId).getActiveBudgets();
     }
 
     // Get current budgets (active and within date range)
-    public List<Budget> getCurrentBudgets() throws SQLException {
-        return budgetDAO.getCurrentBudgets();
+    public List<Budget> getCurrentBudgets(Integer userId) throws SQLException {
+        return BudgetIndex.forUser(userId).getActiveOn(LocalDate.now());
     }
 
     // Get budget by ID
-    public Budget getBudgetById(int id) throws SQLException {
-        return budgetDAO.getBudgetById(id);
+    public Budget getBudgetById(int id, Integer userId) throws SQLException {
+        return budgetDAO.getBudgetById(id, userId);
     }
 
     // Get budget by category for specific date
-    public Budget getBudgetByCategory(String category, LocalDate date) throws SQLException {
-        return budgetDAO.getBudgetByCategory(category, date);
+    public Budget getBudgetByCategory(String category, LocalDate date, Integer userId) throws SQLException {
+        return BudgetIndex.forUser(userId).getBudgetByCategory(category, date);
     }
 
     // Delete budget
-    public void deleteBudget(int id) throws SQLException {
-        Budget budget = budgetDAO.getBudgetById(id);
-        if (budget == null) {
+    public void deleteBudget(int id, Integer userId) throws SQLException {
+        if (!budgetDAO.deleteBudget(id, userId)) {
             throw new SQLException("Budget tidak ditemukan.");
         }
-        budgetDAO.deleteBudget(id);
+        BudgetIndex.forUser(userId).remove(id);
     }
 
     // Deactivate budget instead of deleting
-    public void deactivateBudget(int id) throws SQLException {
-        budgetDAO.deactivateBudget(id);
-    }
-
-    // Update spent amount for a budget
-    public void updateBudgetSpent(int budgetId, double spentAmount) throws SQLException {
-        budgetDAO.updateBudgetSpent(budgetId, spentAmount);
-    }
-
-    // Add to spent amount (for when new transaction is added)
-    public void addToBudgetSpent(int budgetId, double amount) throws SQLException {
-        budgetDAO.addToBudgetSpent(budgetId, amount);
+    public void deactivateBudget(int id, Integer userId) throws SQLException {
+        budgetDAO.deactivateBudget(id, userId);
+        BudgetIndex.forUser(userId).remove(id);
+    }
+
+    // Refresh budget spent amounts based on actual transactions (budget yang sedang berjalan).
+    // Penulisan transaksi sudah diproyeksikan oleh BudgetSpendProjector; ini untuk rekonsiliasi
+    // (budget baru, perubahan di luar aplikasi). Satu statement set-based; mengembalikan ID budget
+    // yang spent_amount-nya berubah. Hanya budget milik user yang login
+    public List<Integer> refreshBudgetSpentAmounts(Integer userId) throws SQLException {
+        List<Integer> changedIds = budgetDAO.recomputeSpentAmounts(LocalDate.now(), userId);
+        if (!changedIds.isEmpty()) {
+            BudgetIndex.forUser(userId).invalidate();
+        }
+        return changedIds;
     }
 
-    // Refresh budget spent amounts based on actual transactions
-    public void refreshBudgetSpentAmounts() throws SQLException {
-        List<Budget> currentBudgets = getCurrentBudgets();
-
-        for (Budget budget : currentBudgets) {
-            double actualSpent = budgetDAO.getTotalSpentByCategory(
-                    budget.getCategory(),
-                    budget.getStartDate(),
-                    budget.getEndDate()
-            );
-
-            if (actualSpent != budget.getSpentAmount()) {
-                budgetDAO.updateBudgetSpent(budget.getId(), actualSpent);
-            }
+    // Recompute penuh semua budget satu user, termasuk yang sudah lewat atau nonaktif
+    public List<Integer> recomputeAllBudgetSpentAmounts(Integer userId) throws SQLException {
+        List<Integer> changedIds = budgetDAO.recomputeSpentAmounts(null, userId);
+        if (!changedIds.isEmpty()) {
+            BudgetIndex.forUser(userId).invalidate();
         }
+        return changedIds;
     }
 
-    // Get budget summary for dashboard
-    public BudgetSummary getBudgetSummary() throws SQLException {
-        List<Budget> currentBudgets = getCurrentBudgets();
-
-        double totalLimit = currentBudgets.stream()
-                .mapToDouble(Budget::getLimitAmount)
-                .sum();
-
-        double totalSpent = currentBudgets.stream()
-                .mapToDouble(Budget::getSpentAmount)
-                .sum();
-
-        long overBudgetCount = currentBudgets.stream()
-                .filter(Budget::isOverBudget)
-                .count();
-
-        long nearLimitCount = currentBudgets.stream()
-                .filter(b -> !b.isOverBudget() && b.isNearLimit(80))
-                .count();
-
-        return new BudgetSummary(
-                totalLimit,
-                totalSpent,
-                (int) overBudgetCount,
-                (int) nearLimitCount,
-                currentBudgets.size()
-        );
+    // Get budget summary for dashboard (dari snapshot bersama, lihat BudgetSummaryCache)
+    public BudgetSummary getBudgetSummary(Integer userId) throws SQLException {
+        return getBudgetSnapshot(userId).getSummary();
     }
 
     // Get budgets that are over limit
-    public List<Budget> getOverBudgetAlerts() throws SQLException {
-        return getCurrentBudgets().stream()
-                .filter(Budget::isOverBudget)
-                .collect(Collectors.toList());
+    public List<Budget> getOverBudgetAlerts(Integer userId) throws SQLException {
+        return new ArrayList<>(getBudgetSnapshot(userId).getOverBudget());
     }
 
     // Get budgets near limit (80% or more)
-    public List<Budget> getNearLimitAlerts() throws SQLException {
-        return getCurrentBudgets().stream()
-                .filter(b -> !b.isOverBudget() && b.isNearLimit(80))
-                .collect(Collectors.toList());
+    public List<Budget> getNearLimitAlerts(Integer userId) throws SQLException {
+        return new ArrayList<>(getBudgetSnapshot(userId).getNearLimit());
+    }
+
+    // Ringkasan, over budget dan near limit sekaligus, untuk layar yang menampilkan ketiganya
+    public BudgetSummaryCache.Snapshot getBudgetSnapshot(Integer userId) throws SQLException {
+        return BudgetSummaryCache.getInstance().get(userId);
     }
 
     // Get budgets by period
-    public List<Budget> getBudgetsByPeriod(String period) throws SQLException {
-        return getAllBudgets().stream()
+    public List<Budget> getBudgetsByPeriod(String period, Integer userId) throws SQLException {
+        return getAllBudgets(userId).stream()
                 .filter(b -> b.getPeriod().equalsIgnoreCase(period))
                 .collect(Collectors.toList());
     }
 
     // Validate budget data
     private void validateBudget(Budget budget) throws SQLException {
+        if (budget.getUserId() == null) {
+            throw new SQLException("Budget harus dimiliki user yang sedang login.");
+        }
+
         if (budget.getCategory() == null || budget.getCategory().trim().isEmpty()) {
             throw new SQLException("Kategori budget tidak boleh kosong.");
         }
 
-        if (budget.getLimitAmount() <= 0) {
+        if (budget.getLimitAmount() == null || !budget.getLimitAmount().isPositive()) {
             throw new SQLException("Batas anggaran harus lebih dari 0.");
         }
 
@@ -184,25 +169,47 @@ public class BudgetService {
         }
     }
 
+    // Recompute penuh untuk dijadwalkan malam hari (cron): BudgetService recompute.
+    // Dijalankan per user supaya satu statement tidak mengunci budget semua user sekaligus
+    public static void main(String[] args) throws SQLException {
+        if (args.length == 0 || !args[0].equals("recompute")) {
+            System.out.println("Usage: BudgetService recompute");
+            return;
+        }
+
+        try {
+            long startNanos = System.nanoTime();
+            BudgetService service = new BudgetService();
+            List<Integer> changedIds = new ArrayList<>();
+            for (Integer userId : service.budgetDAO.getBudgetUserIds()) {
+                changedIds.addAll(service.recomputeAllBudgetSpentAmounts(userId));
+            }
+            System.out.println("Budget spent amounts recomputed in " + (System.nanoTime() - startNanos) / 1_000_000 +
+                    " ms, " + changedIds.size() + " budget(s) changed: " + changedIds);
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
     // Inner class for budget summary
     public static class BudgetSummary {
-        public final double totalLimit;
-        public final double totalSpent;
-        public final double remainingAmount;
+        public final Money totalLimit;
+        public final Money totalSpent;
+        public final Money remainingAmount;
         public final double usagePercentage;
         public final int overBudgetCount;
         public final int nearLimitCount;
         public final int totalBudgetsCount;
 
-        public BudgetSummary(double totalLimit, double totalSpent, int overBudgetCount,
+        public BudgetSummary(Money totalLimit, Money totalSpent, int overBudgetCount,
                              int nearLimitCount, int totalBudgetsCount) {
             this.totalLimit = totalLimit;
             this.totalSpent = totalSpent;
-            this.remainingAmount = totalLimit - totalSpent;
-            this.usagePercentage = totalLimit > 0 ? (totalSpent / totalLimit) * 100 : 0;
+            this.remainingAmount = totalLimit.minus(totalSpent);
+            this.usagePercentage = totalSpent.percentOf(totalLimit);
             this.overBudgetCount = overBudgetCount;
             this.nearLimitCount = nearLimitCount;
             this.totalBudgetsCount = totalBudgetsCount;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.BudgetDAO;
+import com.example.ismoney.dao.TransactionEvents;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionEvent;
+import com.example.ismoney.model.TransactionType;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Menjaga spent_amount budget tetap sinkron dengan transaksi tanpa menghitung ulang:
+// setiap event pengeluaran (OUTCOME) menjadi delta per (user, kategori, tanggal) yang ditambahkan
+// ke budget aktif milik user tersebut yang cocok, di transaksi database yang sama dengan perubahan transaksinya.
+// Import massal tidak punya event per baris, jadi budget user tersebut di rentang tanggal import
+// dihitung ulang dengan satu UPDATE.
+// Budget yang berubah diteruskan ke BudgetAlertEngine di transaksi yang sama.
+public class BudgetSpendProjector implements TransactionEvents.Listener {
+
+    private final BudgetDAO budgetDAO;
+    private final BudgetAlertEngine alertEngine;
+
+    public BudgetSpendProjector() {
+        this.budgetDAO = new BudgetDAO();
+        this.alertEngine = BudgetAlertEngine.getInstance();
+    }
+
+    public static void register() {
+        TransactionEvents.register(new BudgetSpendProjector());
+    }
+
+    @Override
+    public void onChanges(Connection conn, List<TransactionEvent> events) throws SQLException {
+        if (!BudgetDAO.isSpentTrackingAvailable()) {
+            return;
+        }
+
+        // Gabungkan dulu supaya edit nominal di hari dan kategori yang sama cukup satu UPDATE
+        Map<SpendKey, Long> deltas = new LinkedHashMap<>();
+        for (TransactionEvent event : events) {
+            addDelta(deltas, event.getBefore(), -1);
+            addDelta(deltas, event.getAfter(), 1);
+        }
+
+        List<BudgetDAO.SpendDelta> nonZero = new ArrayList<>();
+        for (Map.Entry<SpendKey, Long> entry : deltas.entrySet()) {
+            if (entry.getValue() != 0) {
+                SpendKey key = entry.getKey();
+                nonZero.add(new BudgetDAO.SpendDelta(key.userId, key.categoryId, key.date, Money.ofMinor(entry.getValue())));
+            }
+        }
+        if (!nonZero.isEmpty()) {
+            alertEngine.evaluate(conn, budgetDAO.addSpentDeltas(conn, nonZero));
+        }
+    }
+
+    // spent_amount di BudgetIndex sudah basi setelah pengeluaran baru masuk
+    @Override
+    public void afterCommit(List<TransactionEvent> events) {
+        for (TransactionEvent event : events) {
+            if (isOutcome(event.getBefore()) || isOutcome(event.getAfter())) {
+                BudgetIndex.forUser(event.getUserId()).invalidate();
+            }
+        }
+    }
+
+    @Override
+    public void onBulkChange(Connection conn, Integer userId, DateRange range) throws SQLException {
+        // Import tidak punya event per baris untuk afterCommit; tanpa ini BudgetIndex dan
+        // BudgetSummaryCache hanya segar lewat NOTIFY, yang tidak datang kalau listener-nya putus
+        TransactionEvents.runAfterCommit(() -> BudgetIndex.forUser(userId).invalidate());
+        if (!BudgetDAO.isSpentTrackingAvailable()) {
+            return;
+        }
+        // Baris import bisa bertanggal lampau, jadi yang dihitung ulang semua budget user ini yang
+        // periodenya beririsan dengan tanggal import, bukan hanya yang aktif hari ini
+        List<Integer> changed = budgetDAO.recomputeSpentAmounts(conn, range, userId);
+        System.out.println("Recomputed spent amount of " + changed.size() + " budgets after bulk import");
+        alertEngine.evaluate(conn, budgetDAO.getBudgetsByIds(conn, changed));
+    }
+
+    private static void addDelta(Map<SpendKey, Long> deltas, Transaction transaction, int sign) {
+        if (!isOutcome(transaction) || transaction.getAmount() == null) {
+            return;
+        }
+        SpendKey key = new SpendKey(transaction.getUserId(), transaction.getCategoryId(), transaction.getTransactionDate());
+        deltas.merge(key, sign * transaction.getAmount().getMinorUnits(), Long::sum);
+    }
+
+    private static boolean isOutcome(Transaction transaction) {
+        return transaction != null && transaction.getType() == TransactionType.OUTCOME;
+    }
+
+    private static class SpendKey {
+        private final Integer userId;
+        private final Integer categoryId;
+        private final LocalDate date;
+
+        private SpendKey(Integer userId, Integer categoryId, LocalDate date) {
+            this.userId = userId;
+            this.categoryId = categoryId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SpendKey)) return false;
+            SpendKey other = (SpendKey) o;
+            return Objects.equals(userId, other.userId) && Objects.equals(categoryId, other.categoryId)
+                    && date.equals(other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, categoryId, date);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.Money;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ringkasan budget user yang sedang berjalan, dihitung sekali dalam satu pass dan dipakai bersama
+// oleh getBudgetSummary, getOverBudgetAlerts dan getNearLimitAlerts. Snapshot tetap berlaku
+// selama versi BudgetIndex tidak berubah (tulis budget lewat BudgetService, delta pengeluaran,
+// notifikasi dari perangkat lain) dan tanggalnya masih hari ini.
+public class BudgetSummaryCache {
+
+    // Sama dengan batas "near limit" yang dipakai BudgetService sebelumnya
+    public static final double NEAR_LIMIT_PERCENT = 80;
+
+    private static final BudgetSummaryCache instance = new BudgetSummaryCache();
+
+    private final Map<Integer, Snapshot> snapshots = new HashMap<>();
+    private long hits = 0;
+    private long misses = 0;
+
+    private BudgetSummaryCache() {}
+
+    public static BudgetSummaryCache getInstance() {
+        return instance;
+    }
+
+    public synchronized Snapshot get(Integer userId) throws SQLException {
+        BudgetIndex budgetIndex = BudgetIndex.forUser(userId);
+        LocalDate today = LocalDate.now();
+        // Versi dibaca sebelum menghitung: perubahan di tengah jalan membuat snapshot ini langsung basi
+        long version = budgetIndex.getVersion();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null && snapshot.version == version && snapshot.date.equals(today)) {
+            hits++;
+            return snapshot;
+        }
+
+        misses++;
+        snapshot = compute(version, today, budgetIndex.getActiveOn(today));
+        snapshots.put(userId, snapshot);
+        return snapshot;
+    }
+
+    // Dipanggil saat logout bersama BudgetIndex.clearAll
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    private static Snapshot compute(long version, LocalDate date, List<Budget> current) {
+        long totalLimit = 0;
+        long totalSpent = 0;
+        List<Budget> overBudget = new ArrayList<>();
+        List<Budget> nearLimit = new ArrayList<>();
+
+        for (Budget budget : current) {
+            totalLimit += budget.getLimitAmount().getMinorUnits();
+            totalSpent += budget.getSpentAmount().getMinorUnits();
+            if (budget.isOverBudget()) {
+                overBudget.add(budget);
+            } else if (budget.isNearLimit(NEAR_LIMIT_PERCENT)) {
+                nearLimit.add(budget);
+            }
+        }
+
+        BudgetService.BudgetSummary summary = new BudgetService.BudgetSummary(
+                Money.ofMinor(totalLimit),
+                Money.ofMinor(totalSpent),
+                overBudget.size(),
+                nearLimit.size(),
+                current.size());
+        return new Snapshot(version, date, summary, current, overBudget, nearLimit);
+    }
+
+    // Dibagikan ke banyak pemanggil: list tidak bisa diubah dan Budget di dalamnya jangan diubah
+    public static class Snapshot {
+        private final long version;
+        private final LocalDate date;
+        private final BudgetService.BudgetSummary summary;
+        private final List<Budget> currentBudgets;
+        private final List<Budget> overBudget;
+        private final List<Budget> nearLimit;
+
+        private Snapshot(long version, LocalDate date, BudgetService.BudgetSummary summary,
+                         List<Budget> currentBudgets, List<Budget> overBudget, List<Budget> nearLimit) {
+            this.version = version;
+            this.date = date;
+            this.summary = summary;
+            this.currentBudgets = Collections.unmodifiableList(currentBudgets);
+            this.overBudget = Collections.unmodifiableList(overBudget);
+            this.nearLimit = Collections.unmodifiableList(nearLimit);
+        }
+
+        public LocalDate getDate() { return date; }
+        public BudgetService.BudgetSummary getSummary() { return summary; }
+        public List<Budget> getCurrentBudgets() { return currentBudgets; }
+        public List<Budget> getOverBudget() { return overBudget; }
+        public List<Budget> getNearLimit() { return nearLimit; }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Pemetaan kolom CSV mutasi bank ke Transaction. Indeks kolom dimulai dari 0;
+// -1 berarti kolom tidak ada di file. Setiap bank cukup dibuatkan satu mapping.
+public class CsvImportMapping {
+    private char delimiter = ',';
+    private boolean hasHeader = true;
+    private int dateColumn = 0;
+    private int amountColumn = 1;
+    // -1: tipe diambil dari tanda nominal (negatif = pengeluaran)
+    private int typeColumn = -1;
+    private int categoryColumn = -1;
+    private int noteColumn = -1;
+    private DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private char decimalSeparator = '.';
+    // Nilai di kolom tipe yang berarti pemasukan; selain itu dianggap pengeluaran
+    private Set<String> incomeMarkers = new HashSet<>(List.of("CR", "K", "KREDIT", "CREDIT", "INCOME", "MASUK"));
+    // Kategori untuk baris yang kolom kategorinya kosong atau tidak dikenal
+    private String defaultCategory = "Lainnya";
+
+    public char getDelimiter() { return delimiter; }
+    public void setDelimiter(char delimiter) { this.delimiter = delimiter; }
+
+    public boolean isHasHeader() { return hasHeader; }
+    public void setHasHeader(boolean hasHeader) { this.hasHeader = hasHeader; }
+
+    public int getDateColumn() { return dateColumn; }
+    public void setDateColumn(int dateColumn) { this.dateColumn = dateColumn; }
+
+    public int getAmountColumn() { return amountColumn; }
+    public void setAmountColumn(int amountColumn) { this.amountColumn = amountColumn; }
+
+    public int getTypeColumn() { return typeColumn; }
+    public void setTypeColumn(int typeColumn) { this.typeColumn = typeColumn; }
+
+    public int getCategoryColumn() { return categoryColumn; }
+    public void setCategoryColumn(int categoryColumn) { this.categoryColumn = categoryColumn; }
+
+    public int getNoteColumn() { return noteColumn; }
+    public void setNoteColumn(int noteColumn) { this.noteColumn = noteColumn; }
+
+    public DateTimeFormatter getDateFormat() { return dateFormat; }
+    public void setDatePattern(String pattern) { this.dateFormat = DateTimeFormatter.ofPattern(pattern); }
+
+    public char getDecimalSeparator() { return decimalSeparator; }
+    public void setDecimalSeparator(char decimalSeparator) { this.decimalSeparator = decimalSeparator; }
+
+    public Set<String> getIncomeMarkers() { return incomeMarkers; }
+    public void setIncomeMarkers(Set<String> incomeMarkers) { this.incomeMarkers = incomeMarkers; }
+
+    public String getDefaultCategory() { return defaultCategory; }
+    public void setDefaultCategory(String defaultCategory) { this.defaultCategory = defaultCategory; }
+
+    public LocalDate parseDate(List<String> record) {
+        return LocalDate.parse(field(record, dateColumn).trim(), dateFormat);
+    }
+
+    // Nominal bertanda sesuai file: "Rp 1.234.567,89", "(50,000.00)", "-50000"
+    public BigDecimal parseSignedAmount(List<String> record) {
+        String raw = field(record, amountColumn).trim();
+        boolean negative = raw.startsWith("(") && raw.endsWith(")");
+
+        StringBuilder digits = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (Character.isDigit(c)) {
+                digits.append(c);
+            } else if (c == decimalSeparator) {
+                digits.append('.');
+            } else if (c == '-') {
+                negative = true;
+            }
+            // Pemisah ribuan, simbol mata uang dan spasi diabaikan
+        }
+
+        if (digits.length() == 0) {
+            throw new NumberFormatException("Nominal kosong: '" + raw + "'");
+        }
+        BigDecimal amount = new BigDecimal(digits.toString());
+        return negative ? amount.negate() : amount;
+    }
+
+    public TransactionType parseType(List<String> record, BigDecimal signedAmount) {
+        if (typeColumn < 0) {
+            return signedAmount.signum() < 0 ? TransactionType.OUTCOME : TransactionType.INCOME;
+        }
+        String marker = field(record, typeColumn).trim().toUpperCase(Locale.ROOT);
+        return incomeMarkers.contains(marker) ? TransactionType.INCOME : TransactionType.OUTCOME;
+    }
+
+    public String parseCategory(List<String> record) {
+        String category = categoryColumn >= 0 ? field(record, categoryColumn).trim() : "";
+        return category.isEmpty() ? defaultCategory : category;
+    }
+
+    public String parseNote(List<String> record) {
+        if (noteColumn < 0) {
+            return null;
+        }
+        String note = field(record, noteColumn).trim();
+        return note.isEmpty() ? null : note;
+    }
+
+    private static String field(List<String> record, int column) {
+        if (column >= record.size()) {
+            throw new IllegalArgumentException("Kolom " + column + " tidak ada (record hanya " + record.size() + " kolom)");
+        }
+        return record.get(column);
+    }
+}
@@ -3,7 +3,6 @@ package com.example.ismoney.service;
 import com.example.ismoney.dao.SavingGoalDAO;
 import com.example.ismoney.model.SavingGoal;
 
-import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -47,11 +46,11 @@ public class SavingGoalService {
             throw new IllegalArgumentException("Saving goal name cannot be empty");
         }
 
-        if (savingGoal.getTargetAmount() == null || savingGoal.getTargetAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (savingGoal.getTargetAmount() == null || !savingGoal.getTargetAmount().isPositive()) {
             throw new IllegalArgumentException("Target amount must be positive");
         }
 
-        if (savingGoal.getCurrentAmount() == null || savingGoal.getCurrentAmount().compareTo(BigDecimal.ZERO) < 0) {
+        if (savingGoal.getCurrentAmount() == null || savingGoal.getCurrentAmount().isNegative()) {
             throw new IllegalArgumentException("Current amount cannot be negative");
         }
 
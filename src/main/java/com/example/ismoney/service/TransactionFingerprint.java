@@ -0,0 +1,70 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Sidik jari stabil untuk transaksi hasil import: SHA-256 dari user, tanggal, nominal, tipe
+// dan catatan yang dinormalisasi, ditambah nomor kemunculan. Dua baris identik di satu
+// file (mis. dua kali beli kopi yang sama di hari yang sama) mendapat nomor 1 dan 2,
+// jadi keduanya tetap masuk, sedangkan import ulang file yang sama menghasilkan sidik jari sama.
+// Satu instance untuk satu import (tidak thread-safe).
+public class TransactionFingerprint {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Kemunculan per isi baris selama satu import; kuncinya hash isi, bukan teks aslinya
+    private final Map<String, Integer> occurrences = new HashMap<>();
+    private final MessageDigest digest;
+
+    public TransactionFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String next(Transaction transaction) {
+        String contentHash = sha256(content(transaction));
+        int occurrence = occurrences.merge(contentHash, 1, Integer::sum);
+        return sha256(contentHash + "|" + occurrence);
+    }
+
+    private static String content(Transaction transaction) {
+        return transaction.getUserId() + "|" +
+                transaction.getTransactionDate() + "|" +
+                normalizeAmount(transaction.getAmount()) + "|" +
+                transaction.getType() + "|" +
+                normalizeNote(transaction.getNote());
+    }
+
+    // 15000, 15000.0 dan 15000.00 harus menghasilkan sidik jari yang sama
+    private static String normalizeAmount(Money amount) {
+        return amount.toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+
+    // Huruf kecil, spasi berlebih dirapikan; bank sering mengubah spasi antar export
+    private static String normalizeNote(String note) {
+        if (note == null) {
+            return "";
+        }
+        return note.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String sha256(String value) {
+        byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.CategoryDAO;
+import com.example.ismoney.dao.TransactionImportDAO;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.util.CsvReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Import mutasi bank dari CSV: file dibaca streaming per chunk, kategori di-resolve
+// sekaligus per chunk, lalu setiap chunk dikirim lewat COPY ke staging dan di-merge di akhir.
+// Baris yang sudah pernah diimport dikenali dari sidik jarinya tanpa query per baris.
+public class TransactionImportService {
+
+    private static final int CHUNK_SIZE = 5000;
+    // Batas jumlah pesan baris ditolak yang disimpan, supaya file rusak tidak menghabiskan memori
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final CategoryDAO categoryDAO;
+    private final TransactionImportDAO importDAO;
+
+    public TransactionImportService() {
+        this.categoryDAO = new CategoryDAO();
+        this.importDAO = new TransactionImportDAO();
+    }
+
+    public ImportResult importCsv(Path file, Integer userId, CsvImportMapping mapping) throws IOException, SQLException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(reader, userId, mapping);
+        }
+    }
+
+    public ImportResult importCsv(Reader source, Integer userId, CsvImportMapping mapping) throws IOException, SQLException {
+        long startNanos = System.nanoTime();
+        ImportResult result = new ImportResult();
+        // Cache nama kategori (huruf kecil) -> ID selama satu import
+        Map<String, Integer> categoryIds = new HashMap<>();
+
+        // Dedup: sidik jari yang sudah ada di database, di-seed per bulan yang disentuh file
+        boolean dedup = TransactionImportDAO.supportsFingerprints();
+        TransactionFingerprint fingerprints = new TransactionFingerprint();
+        Set<String> existingFingerprints = new HashSet<>();
+        Set<YearMonth> seededMonths = new HashSet<>();
+
+        try (CsvReader csv = new CsvReader(source, mapping.getDelimiter());
+             TransactionImportDAO.StagingSession session = importDAO.begin(userId)) {
+
+            if (mapping.isHasHeader()) {
+                csv.readRecord();
+            }
+
+            List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                result.rowsRead++;
+
+                ParsedRow row;
+                try {
+                    row = parseRow(record, userId, mapping, csv.getRecordLineNumber());
+                } catch (RuntimeException e) {
+                    result.reject(csv.getRecordLineNumber(), e.getMessage());
+                    continue;
+                }
+
+                if (dedup) {
+                    Transaction transaction = row.transaction;
+                    YearMonth month = YearMonth.from(transaction.getTransactionDate());
+                    if (seededMonths.add(month)) {
+                        existingFingerprints.addAll(session.loadFingerprints(userId, DateRange.ofMonth(month)));
+                    }
+
+                    transaction.setFingerprint(fingerprints.next(transaction));
+                    if (existingFingerprints.contains(transaction.getFingerprint())) {
+                        result.rowsDuplicate++;
+                        continue;
+                    }
+                }
+                chunk.add(row);
+
+                if (chunk.size() >= CHUNK_SIZE) {
+                    stageChunk(session, chunk, mapping, categoryIds, result);
+                    chunk.clear();
+                }
+            }
+            stageChunk(session, chunk, mapping, categoryIds, result);
+
+            result.rowsImported = session.merge();
+            // Duplikat yang baru terdeteksi unique index (mis. import paralel file yang sama)
+            result.rowsDuplicate += result.rowsStaged - result.rowsImported;
+            session.commit();
+        }
+
+        result.elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.println("CSV import for user " + userId + ": " + result);
+        return result;
+    }
+
+    private ParsedRow parseRow(List<String> record, Integer userId, CsvImportMapping mapping, long lineNumber) {
+        BigDecimal signedAmount = mapping.parseSignedAmount(record);
+        if (signedAmount.signum() == 0) {
+            throw new IllegalArgumentException("Nominal 0");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setUserId(userId);
+        transaction.setTransactionDate(mapping.parseDate(record));
+        transaction.setType(mapping.parseType(record, signedAmount));
+        transaction.setAmount(Money.of(signedAmount.abs()));
+        transaction.setNote(mapping.parseNote(record));
+
+        return new ParsedRow(transaction, mapping.parseCategory(record), lineNumber);
+    }
+
+    private void stageChunk(TransactionImportDAO.StagingSession session, List<ParsedRow> chunk, CsvImportMapping mapping,
+                            Map<String, Integer> categoryIds, ImportResult result) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Satu query untuk semua nama kategori baru di chunk ini
+        Set<String> unresolved = new HashSet<>();
+        for (ParsedRow row : chunk) {
+            String key = row.categoryName.toLowerCase(Locale.ROOT);
+            if (!categoryIds.containsKey(key)) {
+                unresolved.add(key);
+            }
+        }
+        String defaultKey = mapping.getDefaultCategory().toLowerCase(Locale.ROOT);
+        if (!categoryIds.containsKey(defaultKey)) {
+            unresolved.add(defaultKey);
+        }
+        if (!unresolved.isEmpty()) {
+            Map<String, Integer> found = categoryDAO.getCategoryIdsByNames(unresolved);
+            for (String name : unresolved) {
+                // null disimpan juga supaya nama yang tidak dikenal tidak di-query ulang
+                categoryIds.put(name, found.get(name));
+            }
+        }
+
+        List<Transaction> transactions = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            Integer categoryId = categoryIds.get(row.categoryName.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                categoryId = categoryIds.get(defaultKey);
+            }
+            if (categoryId == null) {
+                result.reject(row.lineNumber, "Kategori '" + row.categoryName + "' tidak ditemukan");
+                continue;
+            }
+            row.transaction.setCategoryId(categoryId);
+            transactions.add(row.transaction);
+        }
+
+        session.copyChunk(transactions);
+        result.rowsStaged += transactions.size();
+    }
+
+    private static boolean isBlank(List<String> record) {
+        for (String field : record) {
+            if (!field.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ParsedRow {
+        private final Transaction transaction;
+        private final String categoryName;
+        private final long lineNumber;
+
+        private ParsedRow(Transaction transaction, String categoryName, long lineNumber) {
+            this.transaction = transaction;
+            this.categoryName = categoryName;
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    public static class ImportResult {
+        private long rowsRead;
+        private long rowsStaged;
+        private long rowsImported;
+        private long rowsRejected;
+        private long rowsDuplicate;
+        private long elapsedMillis;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long lineNumber, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Baris " + lineNumber + ": " + message);
+            }
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getRowsStaged() { return rowsStaged; }
+        public long getRowsImported() { return rowsImported; }
+        public long getRowsRejected() { return rowsRejected; }
+        public long getRowsDuplicate() { return rowsDuplicate; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? rowsImported * 1000.0 / elapsedMillis : rowsImported;
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{read=" + rowsRead +
+                    ", imported=" + rowsImported +
+                    ", duplicates=" + rowsDuplicate +
+                    ", rejected=" + rowsRejected +
+                    ", elapsedMs=" + elapsedMillis +
+                    ", rowsPerSec=" + String.format("%.0f", getRowsPerSecond()) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.dao.DeltaSync;
+import com.example.ismoney.dao.TransactionDAO;
+import com.example.ismoney.model.ChangeSet;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionType;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Buku besar transaksi satu user di memori, dimuat sekali per sesi. Nominal disimpan sebagai
+// prefix sum harian dalam satuan sen (long), per tipe dan per kategori:
+// prefix[i] = total semua hari sebelum (firstDay + i). Total rentang tanggal apa pun,
+// saldo berjalan dan bucket bulanan jadi O(1) tanpa menjumlah per transaksi.
+// Perubahan (simpan/edit/hapus, termasuk dari perangkat lain) diambil lewat delta sync;
+// watermark yang sudah lewat retensi tombstone memicu load penuh.
+// Semua method synchronized karena ledger dibaca dari thread database dan FX.
+public class UserLedger {
+
+    // Ruang kosong yang ditambahkan saat array diperbesar ke depan, supaya transaksi hari-hari
+    // berikutnya tidak memicu copy array setiap kali
+    private static final int GROWTH_DAYS = 62;
+
+    private static final Map<Integer, UserLedger> ledgers = new ConcurrentHashMap<>();
+
+    private final Integer userId;
+    private final TransactionDAO transactionDAO;
+
+    // Isi setiap transaksi yang sudah dihitung, supaya edit/hapus bisa dikurangi lagi dengan tepat
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<TransactionType, long[]> typePrefix = new EnumMap<>(TransactionType.class);
+    private final Map<Integer, long[]> categoryPrefix = new HashMap<>();
+    private long firstDay;
+    private int dayCount = 0;
+
+    private boolean loaded = false;
+    private Instant watermark;
+
+    private UserLedger(Integer userId) {
+        this.userId = userId;
+        this.transactionDAO = new TransactionDAO();
+    }
+
+    public static UserLedger forUser(Integer userId) {
+        return ledgers.computeIfAbsent(userId, UserLedger::new);
+    }
+
+    // Dipanggil saat logout supaya data user sebelumnya tidak tertinggal di memori
+    public static void clearAll() {
+        ledgers.clear();
+    }
+
+    // Muat penuh pada pemanggilan pertama, setelah itu hanya ambil perubahan sejak watermark.
+    // Tanpa migrasi V6 ledger dimuat ulang penuh setiap kali.
+    public synchronized void refresh() throws SQLException {
+        if (loaded && watermark != null) {
+            try {
+                ChangeSet<Transaction> changes = transactionDAO.fetchChangesSince(userId, watermark);
+                apply(changes);
+                watermark = changes.getWatermark();
+                return;
+            } catch (DeltaSync.WatermarkExpiredException e) {
+                // Tombstone sejak watermark sudah dihapus, hapusan di antaranya tidak bisa diketahui lagi
+                System.out.println(e.getMessage());
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        Instant nextWatermark = DeltaSync.isAvailable("transactions") ? DeltaSync.currentWatermark() : null;
+
+        clear();
+        // Kumpulkan dulu supaya array bisa dibuat sekali dengan rentang tanggal yang pas
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        transactionDAO.streamTransactions(userId, transaction -> {
+            Entry entry = Entry.of(transaction);
+            entries.put(transaction.getTransactionId(), entry);
+            bounds[0] = Math.min(bounds[0], entry.day);
+            bounds[1] = Math.max(bounds[1], entry.day);
+        });
+        if (Thread.currentThread().isInterrupted()) {
+            // Stream dibatalkan di tengah jalan, jangan simpan ledger yang setengah jadi
+            clear();
+            return;
+        }
+        if (!entries.isEmpty()) {
+            resize(bounds[0], bounds[1] + 1 + GROWTH_DAYS);
+            for (Entry entry : entries.values()) {
+                addToDay(entry, 1);
+            }
+        }
+
+        loaded = true;
+        watermark = nextWatermark;
+        System.out.println("Ledger for user " + userId + " loaded: " + entries.size() + " transactions over " +
+                dayCount + " days in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    }
+
+    // Package-private supaya prefix sum bisa dites tanpa database
+    void apply(ChangeSet<Transaction> changes) {
+        for (Transaction transaction : changes.getUpserts()) {
+            remove(transaction.getTransactionId());
+            Entry entry = Entry.of(transaction);
+            entries.put(transaction.getTransactionId(), entry);
+            ensureCovers(entry.day);
+            addToDay(entry, 1);
+        }
+        for (Integer deletedId : changes.getDeletedIds()) {
+            remove(deletedId);
+        }
+    }
+
+    private void remove(Integer transactionId) {
+        Entry old = entries.remove(transactionId);
+        if (old != null) {
+            addToDay(old, -1);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        typePrefix.clear();
+        categoryPrefix.clear();
+        dayCount = 0;
+    }
+
+    // ===== Query, semua dalam sen =====
+
+    public synchronized long getTotal(TransactionType type, DateRange range) {
+        return rangeSum(typePrefix.get(type), range);
+    }
+
+    public synchronized long getCategoryTotal(Integer categoryId, DateRange range) {
+        return rangeSum(categoryPrefix.get(categoryId), range);
+    }
+
+    // Saldo berjalan (pemasukan - pengeluaran) sampai dengan tanggal tersebut
+    public synchronized long getBalanceAt(LocalDate date) {
+        int index = indexOf(date.toEpochDay() + 1);
+        return valueAt(typePrefix.get(TransactionType.INCOME), index) - valueAt(typePrefix.get(TransactionType.OUTCOME), index);
+    }
+
+    // Bentuknya sama dengan TransactionAggregateDAO.getTotalsByType, jadi bisa saling menggantikan
+    public synchronized Map<TransactionType, Money> getTotalsByType(DateRange range) {
+        Map<TransactionType, Money> totals = new EnumMap<>(TransactionType.class);
+        for (TransactionType type : TransactionType.values()) {
+            totals.put(type, Money.ofMinor(getTotal(type, range)));
+        }
+        return totals;
+    }
+
+    // Bentuknya sama dengan TransactionAggregateDAO.getMonthlyTotals; bulan tanpa transaksi ikut berisi nol
+    public synchronized Map<YearMonth, Map<TransactionType, Money>> getMonthlyTotals(DateRange range) {
+        Map<YearMonth, Map<TransactionType, Money>> result = new TreeMap<>();
+        if (range.isEmpty()) {
+            return result;
+        }
+        YearMonth last = YearMonth.from(range.getEndInclusive());
+        for (YearMonth month = YearMonth.from(range.getStart()); !month.isAfter(last); month = month.plusMonths(1)) {
+            DateRange bucket = DateRange.halfOpen(
+                    max(month.atDay(1), range.getStart()),
+                    min(month.plusMonths(1).atDay(1), range.getEndExclusive()));
+            result.put(month, getTotalsByType(bucket));
+        }
+        return result;
+    }
+
+    public synchronized int getTransactionCount() {
+        return entries.size();
+    }
+
+    // ===== Prefix sum =====
+
+    private long rangeSum(long[] prefix, DateRange range) {
+        if (prefix == null || range.isEmpty()) {
+            return 0;
+        }
+        return valueAt(prefix, indexOf(range.getEndExclusive().toEpochDay()))
+                - valueAt(prefix, indexOf(range.getStart().toEpochDay()));
+    }
+
+    // Posisi di array prefix untuk batas hari, dipotong ke rentang yang dimuat
+    private int indexOf(long epochDay) {
+        return (int) Math.max(0, Math.min(dayCount, epochDay - firstDay));
+    }
+
+    private static long valueAt(long[] prefix, int index) {
+        return prefix == null ? 0 : prefix[index];
+    }
+
+    // Update titik di prefix sum menggeser semua hari sesudahnya: O(hari), cukup murah untuk
+    // satu perubahan dan membuat semua query tetap O(1)
+    private void addToDay(Entry entry, int sign) {
+        int from = (int) (entry.day - firstDay) + 1;
+        long delta = sign * entry.minorAmount;
+        addFrom(typePrefix.computeIfAbsent(entry.type, t -> new long[dayCount + 1]), from, delta);
+        addFrom(categoryPrefix.computeIfAbsent(entry.categoryId, c -> new long[dayCount + 1]), from, delta);
+    }
+
+    private static void addFrom(long[] prefix, int from, long delta) {
+        for (int i = from; i < prefix.length; i++) {
+            prefix[i] += delta;
+        }
+    }
+
+    private void ensureCovers(long day) {
+        if (dayCount == 0) {
+            resize(day, day + 1 + GROWTH_DAYS);
+        } else if (day < firstDay) {
+            resize(day, firstDay + dayCount);
+        } else if (day >= firstDay + dayCount) {
+            resize(firstDay, day + 1 + GROWTH_DAYS);
+        }
+    }
+
+    // Hari baru di depan bernilai nol, hari baru di belakang meneruskan total terakhir
+    private void resize(long newFirstDay, long newEndDay) {
+        int newCount = (int) (newEndDay - newFirstDay);
+        int offset = (int) (firstDay - newFirstDay);
+        for (Map.Entry<TransactionType, long[]> e : typePrefix.entrySet()) {
+            e.setValue(resized(e.getValue(), newCount, offset));
+        }
+        for (Map.Entry<Integer, long[]> e : categoryPrefix.entrySet()) {
+            e.setValue(resized(e.getValue(), newCount, offset));
+        }
+        firstDay = newFirstDay;
+        dayCount = newCount;
+    }
+
+    private static long[] resized(long[] prefix, int newCount, int offset) {
+        long[] result = new long[newCount + 1];
+        System.arraycopy(prefix, 0, result, offset, prefix.length);
+        Arrays.fill(result, offset + prefix.length, result.length, prefix[prefix.length - 1]);
+        return result;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static class Entry {
+        private final long day;
+        private final TransactionType type;
+        private final Integer categoryId;
+        private final long minorAmount;
+
+        private Entry(long day, TransactionType type, Integer categoryId, long minorAmount) {
+            this.day = day;
+            this.type = type;
+            this.categoryId = categoryId;
+            this.minorAmount = minorAmount;
+        }
+
+        private static Entry of(Transaction transaction) {
+            return new Entry(transaction.getTransactionDate().toEpochDay(), transaction.getType(),
+                    transaction.getCategoryId(), transaction.getAmount().getMinorUnits());
+        }
+    }
+}
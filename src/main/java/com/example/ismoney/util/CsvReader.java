@@ -0,0 +1,92 @@
+package com.example.ismoney.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Parser CSV streaming: membaca satu record per panggilan, jadi file mutasi bank berukuran
+// berapa pun tidak pernah dimuat utuh ke memori. Mendukung field ber-quote ("a, b"),
+// quote ganda di dalam field ("") dan baris baru di dalam field ber-quote.
+public class CsvReader implements AutoCloseable {
+    private final BufferedReader reader;
+    private final char delimiter;
+    private long lineNumber = 0;
+    private long recordLineNumber = 0;
+
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+        this.delimiter = delimiter;
+    }
+
+    // Record berikutnya, atau null kalau sudah akhir file
+    public List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+        recordLineNumber = lineNumber;
+        if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+            // BOM dari export Excel
+            line = line.substring(1);
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+
+        while (true) {
+            if (i >= line.length()) {
+                if (quoted) {
+                    // Field ber-quote berlanjut ke baris berikutnya
+                    String next = reader.readLine();
+                    if (next == null) {
+                        throw new IOException("Quote tidak ditutup pada record yang dimulai di baris " + recordLineNumber);
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    line = next;
+                    i = 0;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+            i++;
+        }
+    }
+
+    // Nomor baris awal dari record yang terakhir dibaca, untuk pesan error
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
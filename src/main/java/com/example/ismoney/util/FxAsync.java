@@ -0,0 +1,121 @@
+package com.example.ismoney.util;
+
+import com.example.ismoney.database.ChangeNotificationListener;
+import com.example.ismoney.database.DatabaseExecutor;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+// Jembatan antara DatabaseExecutor dan UI: pekerjaan DAO jalan di background,
+// hasilnya dikirim balik lewat Platform.runLater. Query milik view aktif dibatalkan saat
+// SceneSwitcher berpindah scene; penulisan (runWrite) selalu diselesaikan.
+public final class FxAsync {
+
+    // Event perubahan yang datang beruntun (mis. import) digabung jadi satu refresh
+    private static final Duration CHANGE_DEBOUNCE = Duration.millis(300);
+
+    private static final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    // Resource yang umurnya mengikuti view aktif, mis. subscription notifikasi
+    private static final Set<AutoCloseable> viewResources = ConcurrentHashMap.newKeySet();
+    private static volatile long viewGeneration;
+
+    private FxAsync() {}
+
+    // Untuk query (baca saja): dibatalkan dan thread-nya diinterupsi saat view ditinggalkan
+    public static <T> CompletableFuture<T> run(DatabaseExecutor.SqlWork<T> work,
+                                               Consumer<T> onSuccess,
+                                               Consumer<Throwable> onError) {
+        CompletableFuture<T> future = DatabaseExecutor.submit(work);
+        inFlight.add(future);
+        return deliver(future, onSuccess, onError);
+    }
+
+    // Untuk simpan/edit/hapus/import: tidak ikut dibatalkan releaseView, karena interupsi di tengah
+    // ambil koneksi atau JDBC call bisa membuat penulisan hilang diam-diam. Callback tetap
+    // dilewati kalau view sudah diganti.
+    public static <T> CompletableFuture<T> runWrite(DatabaseExecutor.SqlWork<T> work,
+                                                    Consumer<T> onSuccess,
+                                                    Consumer<Throwable> onError) {
+        return deliver(DatabaseExecutor.submit(work), onSuccess, onError);
+    }
+
+    private static <T> CompletableFuture<T> deliver(CompletableFuture<T> future,
+                                                    Consumer<T> onSuccess,
+                                                    Consumer<Throwable> onError) {
+        long generation = viewGeneration;
+        future.whenComplete((result, error) -> {
+            inFlight.remove(future);
+            if (future.isCancelled()) {
+                return;
+            }
+            Platform.runLater(() -> {
+                // View sudah diganti, hasilnya tidak relevan lagi
+                if (generation != viewGeneration) {
+                    return;
+                }
+                if (error == null) {
+                    if (onSuccess != null) {
+                        onSuccess.accept(result);
+                    }
+                } else if (onError != null) {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+
+        return future;
+    }
+
+    // Jalankan refresh di FX thread setiap kali data user di salah satu tabel berubah.
+    // Subscription otomatis ditutup saat view ditinggalkan.
+    public static void onDataChange(Integer userId, Set<String> tables, Runnable refresh) {
+        long generation = viewGeneration;
+        PauseTransition debounce = new PauseTransition(CHANGE_DEBOUNCE);
+        debounce.setOnFinished(e -> {
+            if (generation == viewGeneration) {
+                refresh.run();
+            }
+        });
+
+        ChangeNotificationListener.Subscription subscription = ChangeNotificationListener.getInstance()
+                .subscribe(userId, event -> {
+                    if (event.affects(tables)) {
+                        Platform.runLater(debounce::playFromStart);
+                    }
+                });
+        viewResources.add(subscription);
+    }
+
+    // Batalkan semua query yang masih jalan untuk view yang sedang ditinggalkan
+    public static void releaseView() {
+        viewGeneration++;
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(true);
+        }
+        inFlight.clear();
+
+        for (AutoCloseable resource : viewResources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error releasing view resource: " + e.getMessage());
+            }
+        }
+        viewResources.clear();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
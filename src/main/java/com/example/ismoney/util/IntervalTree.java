@@ -0,0 +1,109 @@
+package com.example.ismoney.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+// Interval tree statis untuk rentang tanggal inklusif [start, end]. Item diurutkan berdasarkan
+// start dan disimpan di array; pohonnya implisit (node = tengah rentang index) dengan maxEnd per
+// subtree, jadi query "mengandung tanggal" dan "bertumpuk dengan rentang" O(log n + k).
+// Immutable: perubahan data dilakukan dengan membangun ulang (O(n log n)).
+public final class IntervalTree<T> {
+
+    private static final IntervalTree<?> EMPTY = new IntervalTree<>(new Object[0], new long[0], new long[0]);
+
+    private final Object[] items;
+    private final long[] starts;
+    private final long[] ends;
+    // maxEnd[mid] = end terbesar di subtree yang berakar di mid
+    private final long[] maxEnd;
+
+    private IntervalTree(Object[] items, long[] starts, long[] ends) {
+        this.items = items;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[items.length];
+        build(0, items.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> IntervalTree<T> empty() {
+        return (IntervalTree<T>) EMPTY;
+    }
+
+    public static <T> IntervalTree<T> of(Collection<T> values, Function<T, LocalDate> start, Function<T, LocalDate> end) {
+        if (values.isEmpty()) {
+            return empty();
+        }
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(Comparator.comparing(start));
+
+        Object[] items = new Object[sorted.size()];
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            T value = sorted.get(i);
+            items[i] = value;
+            starts[i] = start.apply(value).toEpochDay();
+            ends[i] = end.apply(value).toEpochDay();
+        }
+        return new IntervalTree<>(items, starts, ends);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    // Semua item yang rentangnya mencakup tanggal tersebut, urut berdasarkan start
+    public List<T> containing(LocalDate date) {
+        return overlapping(date, date);
+    }
+
+    // Semua item yang bertumpuk dengan [from, to] (inklusif), urut berdasarkan start
+    public List<T> overlapping(LocalDate from, LocalDate to) {
+        List<T> result = new ArrayList<>();
+        collect(0, items.length, from.toEpochDay(), to.toEpochDay(), result);
+        return result;
+    }
+
+    public boolean anyOverlapping(LocalDate from, LocalDate to) {
+        return !overlapping(from, to).isEmpty();
+    }
+
+    private long build(int lo, int hi) {
+        if (lo >= hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(build(lo, mid), build(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(int lo, int hi, long from, long to, List<T> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        // Tidak ada rentang di subtree ini yang berakhir setelah from
+        if (maxEnd[mid] < from) {
+            return;
+        }
+        collect(lo, mid, from, to, result);
+        // Subtree kanan mulai sesudah starts[mid]; kalau itu sudah lewat to, semuanya terlewati
+        if (starts[mid] <= to) {
+            if (ends[mid] >= from) {
+                result.add((T) items[mid]);
+            }
+            collect(mid + 1, hi, from, to, result);
+        }
+    }
+}
@@ -20,6 +20,8 @@ public class SceneSwitcher {
         try {
             logger.info("Akan pergi ke: " + fxmlFileName);
 
+            FxAsync.releaseView();
+
             URL fxmlUrl = null;
 
             fxmlUrl = SceneSwitcher.class.getResource("/com/example/ismoney/" + fxmlFileName);
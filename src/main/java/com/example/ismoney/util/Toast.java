@@ -0,0 +1,49 @@
+package com.example.ismoney.util;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+// Notifikasi singkat di pojok kanan bawah window yang sedang tampil, hilang sendiri.
+// Aman dipanggil dari thread mana pun.
+public class Toast {
+
+    private static final Duration SHOW_DURATION = Duration.seconds(4);
+    private static final int MARGIN = 20;
+
+    public static void show(String message) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> show(message));
+            return;
+        }
+
+        Window owner = Window.getWindows().stream()
+                .filter(Window::isShowing)
+                .filter(Window::isFocused)
+                .findFirst()
+                .orElse(Window.getWindows().stream().filter(Window::isShowing).findFirst().orElse(null));
+        if (owner == null) {
+            return;
+        }
+
+        Label label = new Label(message);
+        label.setStyle("-fx-background-color: rgba(33, 33, 33, 0.9); -fx-text-fill: white; " +
+                "-fx-padding: 10 16; -fx-background-radius: 6; -fx-font-size: 13px;");
+
+        Popup popup = new Popup();
+        popup.getContent().add(label);
+        popup.setAutoFix(true);
+        popup.setOnShown(e -> {
+            popup.setX(owner.getX() + owner.getWidth() - popup.getWidth() - MARGIN);
+            popup.setY(owner.getY() + owner.getHeight() - popup.getHeight() - MARGIN);
+        });
+        popup.show(owner);
+
+        PauseTransition delay = new PauseTransition(SHOW_DURATION);
+        delay.setOnFinished(e -> popup.hide());
+        delay.play();
+    }
+}
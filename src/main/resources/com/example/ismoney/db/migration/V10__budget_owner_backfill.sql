@@ -0,0 +1,46 @@
+-- V8 hanya memberi pemilik ke budget lama kalau database baru punya satu user; di database
+-- dengan banyak user budget tanpa user_id tidak terlihat oleh siapa pun. Pemilik diambil dari
+-- user yang paling banyak mencatat pengeluaran di kategori budget itu: lebih dulu di dalam
+-- periode budget, lalu di seluruh riwayat.
+UPDATE budgets b SET user_id = owner.user_id
+FROM (
+    SELECT DISTINCT ON (bb.id) bb.id, t.user_id
+    FROM budgets bb
+    JOIN categories c ON c.name = bb.category
+    JOIN transactions t ON t.category_id = c.categories_id AND t.type = 'OUTCOME'
+        AND t.transaction_date BETWEEN bb.start_date AND bb.end_date
+    WHERE bb.user_id IS NULL
+    GROUP BY bb.id, t.user_id
+    ORDER BY bb.id, COUNT(*) DESC, t.user_id
+) owner
+WHERE b.id = owner.id AND b.user_id IS NULL;
+
+UPDATE budgets b SET user_id = owner.user_id
+FROM (
+    SELECT DISTINCT ON (bb.id) bb.id, t.user_id
+    FROM budgets bb
+    JOIN categories c ON c.name = bb.category
+    JOIN transactions t ON t.category_id = c.categories_id AND t.type = 'OUTCOME'
+    WHERE bb.user_id IS NULL
+    GROUP BY bb.id, t.user_id
+    ORDER BY bb.id, COUNT(*) DESC, t.user_id
+) owner
+WHERE b.id = owner.id AND b.user_id IS NULL;
+
+-- Satu user saja: pasti miliknya (sama dengan V8, untuk database yang user-nya bertambah setelah itu)
+UPDATE budgets SET user_id = (SELECT MIN(id) FROM users)
+WHERE user_id IS NULL AND (SELECT COUNT(*) FROM users) = 1;
+
+-- Sisa budget tanpa jejak transaksi tidak bisa ditebak pemiliknya: hentikan migrasi supaya
+-- admin mengisi user_id secara manual, bukan diam-diam menyembunyikannya
+DO $$
+DECLARE
+    orphaned INTEGER;
+BEGIN
+    SELECT COUNT(*) INTO orphaned FROM budgets WHERE user_id IS NULL;
+    IF orphaned > 0 THEN
+        RAISE EXCEPTION '% budget belum punya user_id dan pemiliknya tidak bisa ditentukan dari transaksi; isi budgets.user_id secara manual lalu jalankan ulang aplikasi', orphaned;
+    END IF;
+END $$;
+
+ALTER TABLE budgets ALTER COLUMN user_id SET NOT NULL;
@@ -0,0 +1,2 @@
+-- DeltaSync.purgeExpiredTombstones menghapus tombstone berdasarkan umur saja, lintas user
+CREATE INDEX IF NOT EXISTS idx_deleted_rows_deleted_at ON deleted_rows (deleted_at);
@@ -0,0 +1,22 @@
+-- Kolom yang diasumsikan DAO tapi belum tentu ada di database lama
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT NOW();
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id SERIAL PRIMARY KEY,
+    category VARCHAR(100) NOT NULL,
+    limit_amount DOUBLE PRECISION NOT NULL DEFAULT 0,
+    spent_amount DOUBLE PRECISION NOT NULL DEFAULT 0,
+    start_date DATE NOT NULL DEFAULT CURRENT_DATE,
+    end_date DATE NOT NULL DEFAULT CURRENT_DATE,
+    period VARCHAR(20) NOT NULL DEFAULT 'monthly',
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_date TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS limit_amount DOUBLE PRECISION NOT NULL DEFAULT 0;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS spent_amount DOUBLE PRECISION NOT NULL DEFAULT 0;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS start_date DATE NOT NULL DEFAULT CURRENT_DATE;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS end_date DATE NOT NULL DEFAULT CURRENT_DATE;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS is_active BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS created_date TIMESTAMP NOT NULL DEFAULT NOW();
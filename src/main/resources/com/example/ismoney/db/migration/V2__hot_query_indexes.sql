@@ -0,0 +1,25 @@
+-- Index untuk query yang jalan di setiap refresh dashboard / list
+
+-- getTransactionsByUserId, getRecentTransactionsByUserId, query per bulan
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date
+    ON transactions (user_id, transaction_date DESC, transaction_id DESC);
+
+-- getTransactionsByDate, getTransactionsByDateRange
+CREATE INDEX IF NOT EXISTS idx_transactions_date
+    ON transactions (transaction_date);
+
+-- getActiveSavingGoalsByUserId
+CREATE INDEX IF NOT EXISTS idx_saving_goals_user_status_target
+    ON saving_goals (user_id, status, target_date);
+
+-- getSavingGoalsByUserId, getRecentUpdatedGoalsByUserId
+CREATE INDEX IF NOT EXISTS idx_saving_goals_user_created
+    ON saving_goals (user_id, created_date DESC);
+
+-- getCurrentBudgets, getBudgetByCategory
+CREATE INDEX IF NOT EXISTS idx_budgets_category_active_period
+    ON budgets (category, is_active, start_date, end_date);
+
+-- Lookup kategori budget berdasarkan nama
+CREATE INDEX IF NOT EXISTS idx_categories_name
+    ON categories (name);
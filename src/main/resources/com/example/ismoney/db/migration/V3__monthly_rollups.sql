@@ -0,0 +1,18 @@
+-- Ringkasan transaksi per user, bulan, kategori dan tipe. Dijaga tetap tepat oleh
+-- TransactionDAO (delta di transaksi database yang sama), dibaca dashboard dan grafik.
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    user_id     INTEGER     NOT NULL,
+    year_month  DATE        NOT NULL,
+    category_id INTEGER     NOT NULL,
+    type        VARCHAR(20) NOT NULL,
+    total       NUMERIC     NOT NULL DEFAULT 0,
+    count       INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, year_month, category_id, type)
+);
+
+-- Isi awal dari transaksi yang sudah ada
+INSERT INTO monthly_rollups (user_id, year_month, category_id, type, total, count)
+SELECT user_id, date_trunc('month', transaction_date)::date, category_id, UPPER(type), SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (user_id, year_month, category_id, type) DO NOTHING;
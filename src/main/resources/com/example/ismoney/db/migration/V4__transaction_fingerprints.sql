@@ -0,0 +1,7 @@
+-- Sidik jari isi transaksi hasil import (SHA-256), dipakai untuk menolak duplikat saat
+-- mutasi dengan rentang tanggal yang tumpang tindih diimport ulang. Transaksi yang
+-- diinput manual tidak punya fingerprint (NULL tidak bentrok di unique index).
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_transactions_user_fingerprint
+    ON transactions (user_id, fingerprint);
@@ -0,0 +1,34 @@
+-- Setiap perubahan baris mengirim NOTIFY ke channel ismoney_changes dengan payload
+-- "tabel:operasi:user_id" (user_id kosong kalau tabelnya tidak punya kolom user_id).
+-- Payload yang sama dalam satu transaksi digabung PostgreSQL, jadi import ribuan baris
+-- untuk satu user hanya menghasilkan satu notifikasi per operasi.
+CREATE OR REPLACE FUNCTION ismoney_notify_change() RETURNS trigger AS $$
+DECLARE
+    row_data JSONB;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        row_data := to_jsonb(OLD);
+    ELSE
+        row_data := to_jsonb(NEW);
+    END IF;
+
+    PERFORM pg_notify('ismoney_changes',
+            TG_TABLE_NAME || ':' || TG_OP || ':' || COALESCE(row_data ->> 'user_id', ''));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_transactions_notify ON transactions;
+CREATE TRIGGER trg_transactions_notify
+    AFTER INSERT OR UPDATE OR DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION ismoney_notify_change();
+
+DROP TRIGGER IF EXISTS trg_saving_goals_notify ON saving_goals;
+CREATE TRIGGER trg_saving_goals_notify
+    AFTER INSERT OR UPDATE OR DELETE ON saving_goals
+    FOR EACH ROW EXECUTE FUNCTION ismoney_notify_change();
+
+DROP TRIGGER IF EXISTS trg_budgets_notify ON budgets;
+CREATE TRIGGER trg_budgets_notify
+    AFTER INSERT OR UPDATE OR DELETE ON budgets
+    FOR EACH ROW EXECUTE FUNCTION ismoney_notify_change();
@@ -0,0 +1,68 @@
+-- Delta sync: setiap baris membawa updated_at, dan baris yang dihapus meninggalkan
+-- tombstone di deleted_rows, supaya client cukup mengambil yang berubah sejak watermark.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+ALTER TABLE saving_goals ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+-- clock_timestamp() bukan NOW(): NOW() adalah waktu mulai transaksi, jadi transaksi
+-- panjang bisa menulis updated_at yang jauh di belakang saat commit
+CREATE OR REPLACE FUNCTION ismoney_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := clock_timestamp();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_transactions_touch ON transactions;
+CREATE TRIGGER trg_transactions_touch
+    BEFORE INSERT OR UPDATE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION ismoney_touch_updated_at();
+
+DROP TRIGGER IF EXISTS trg_saving_goals_touch ON saving_goals;
+CREATE TRIGGER trg_saving_goals_touch
+    BEFORE INSERT OR UPDATE ON saving_goals
+    FOR EACH ROW EXECUTE FUNCTION ismoney_touch_updated_at();
+
+DROP TRIGGER IF EXISTS trg_budgets_touch ON budgets;
+CREATE TRIGGER trg_budgets_touch
+    BEFORE INSERT OR UPDATE ON budgets
+    FOR EACH ROW EXECUTE FUNCTION ismoney_touch_updated_at();
+
+CREATE TABLE IF NOT EXISTS deleted_rows (
+    table_name VARCHAR(64) NOT NULL,
+    row_id     INTEGER     NOT NULL,
+    user_id    INTEGER,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Argumen trigger = nama kolom primary key tabelnya
+CREATE OR REPLACE FUNCTION ismoney_record_tombstone() RETURNS trigger AS $$
+DECLARE
+    row_data JSONB := to_jsonb(OLD);
+BEGIN
+    INSERT INTO deleted_rows (table_name, row_id, user_id)
+    VALUES (TG_TABLE_NAME, (row_data ->> TG_ARGV[0])::INTEGER, (row_data ->> 'user_id')::INTEGER);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_transactions_tombstone ON transactions;
+CREATE TRIGGER trg_transactions_tombstone
+    AFTER DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION ismoney_record_tombstone('transaction_id');
+
+DROP TRIGGER IF EXISTS trg_saving_goals_tombstone ON saving_goals;
+CREATE TRIGGER trg_saving_goals_tombstone
+    AFTER DELETE ON saving_goals
+    FOR EACH ROW EXECUTE FUNCTION ismoney_record_tombstone('goal_id');
+
+DROP TRIGGER IF EXISTS trg_budgets_tombstone ON budgets;
+CREATE TRIGGER trg_budgets_tombstone
+    AFTER DELETE ON budgets
+    FOR EACH ROW EXECUTE FUNCTION ismoney_record_tombstone('id');
+
+-- fetchChangesSince
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated ON transactions (user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_saving_goals_user_updated ON saving_goals (user_id, updated_at);
+CREATE INDEX IF NOT EXISTS idx_deleted_rows_user_table_time ON deleted_rows (user_id, table_name, deleted_at);
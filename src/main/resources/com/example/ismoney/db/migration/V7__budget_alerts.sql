@@ -0,0 +1,12 @@
+-- Alert budget yang sudah dikirim: satu baris per (budget, threshold persen). Unique key
+-- memastikan setiap threshold hanya terpicu sekali, juga kalau dua perangkat menulis bersamaan.
+-- Baris dihapus lagi kalau pengeluaran turun di bawah threshold, supaya bisa terpicu ulang.
+CREATE TABLE IF NOT EXISTS budget_alerts (
+    id           SERIAL PRIMARY KEY,
+    budget_id    INTEGER       NOT NULL REFERENCES budgets (id) ON DELETE CASCADE,
+    threshold    INTEGER       NOT NULL,
+    spent_amount NUMERIC(15,2) NOT NULL,
+    limit_amount NUMERIC(15,2) NOT NULL,
+    fired_at     TIMESTAMPTZ   NOT NULL DEFAULT NOW(),
+    UNIQUE (budget_id, threshold)
+);
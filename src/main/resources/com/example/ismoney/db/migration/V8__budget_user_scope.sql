@@ -0,0 +1,13 @@
+-- Budget dimiliki per user. Semua query BudgetDAO difilter user_id dan dilayani index
+-- (user_id, is_active, start_date, end_date), jadi biayanya tidak tumbuh dengan jumlah user lain.
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS user_id INTEGER REFERENCES users (id) ON DELETE CASCADE;
+
+-- Budget lama tidak punya pemilik; kalau baru ada satu user, pasti miliknya
+UPDATE budgets SET user_id = (SELECT MIN(id) FROM users)
+WHERE user_id IS NULL AND (SELECT COUNT(*) FROM users) = 1;
+
+CREATE INDEX IF NOT EXISTS idx_budgets_user_active_period
+    ON budgets (user_id, is_active, start_date, end_date);
+
+-- Digantikan index per user di atas
+DROP INDEX IF EXISTS idx_budgets_category_active_period;
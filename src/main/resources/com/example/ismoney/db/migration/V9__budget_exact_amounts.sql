@@ -0,0 +1,20 @@
+-- Nominal budget disimpan NUMERIC(15,2) seperti kolom uang lainnya, bukan DOUBLE PRECISION.
+-- Delta spent_amount dari BudgetSpendProjector jadi penjumlahan desimal yang tepat, tanpa drift
+-- yang menumpuk per transaksi.
+ALTER TABLE budgets
+    ALTER COLUMN limit_amount TYPE NUMERIC(15,2) USING ROUND(limit_amount::numeric, 2),
+    ALTER COLUMN spent_amount TYPE NUMERIC(15,2) USING ROUND(spent_amount::numeric, 2);
+
+-- Sekali hitung ulang dari transaksi untuk membuang drift floating point yang sudah terlanjur ada;
+-- setelah ini spent_amount cukup dijaga dengan delta
+UPDATE budgets b SET spent_amount = agg.total
+FROM (
+    SELECT bb.id, COALESCE(SUM(t.amount), 0) AS total
+    FROM budgets bb
+    LEFT JOIN categories c ON c.name = bb.category
+    LEFT JOIN transactions t ON t.user_id = bb.user_id AND t.category_id = c.categories_id
+        AND t.type = 'OUTCOME' AND t.transaction_date BETWEEN bb.start_date AND bb.end_date
+    WHERE bb.user_id IS NOT NULL
+    GROUP BY bb.id
+) agg
+WHERE b.id = agg.id AND b.spent_amount IS DISTINCT FROM agg.total;
@@ -0,0 +1,97 @@
+package com.example.ismoney.benchmark;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.service.BudgetAlertEngine;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+// Benchmark BudgetAlertEngine.evaluate untuk satu budget yang kena delta, dengan jumlah budget
+// user yang terus bertambah (100, 1000, 10000). Biayanya harus datar karena hanya budget yang
+// disentuh yang dievaluasi. Budget benchmark dibuat di dalam satu transaksi yang selalu
+// di-rollback di akhir, jadi data asli tidak berubah. Butuh user yang sudah ada dan migrasi V7.
+// Jalankan setelah mvn test-compile:
+//   java -cp target/classes:target/test-classes:<classpath driver> com.example.ismoney.benchmark.BudgetAlertBenchmark <userId>
+public class BudgetAlertBenchmark {
+
+    private static final int[] BUDGET_COUNTS = {100, 1_000, 10_000};
+    private static final int WARMUP = 50;
+    private static final int RUNS = 500;
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1) {
+            System.err.println("Usage: BudgetAlertBenchmark <userId>");
+            return;
+        }
+        Integer userId = Integer.parseInt(args[0]);
+        BudgetAlertEngine engine = BudgetAlertEngine.getInstance();
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int seeded = 0;
+                for (int count : BUDGET_COUNTS) {
+                    seed(conn, count - seeded, userId);
+                    seeded = count;
+
+                    Budget touched = lastBudget(conn, userId);
+                    for (int i = 0; i < WARMUP; i++) {
+                        evaluateOnce(conn, engine, touched, i);
+                    }
+                    long startNanos = System.nanoTime();
+                    for (int i = 0; i < RUNS; i++) {
+                        evaluateOnce(conn, engine, touched, i);
+                    }
+                    System.out.printf("%,6d budgets: %.3f ms per evaluate%n", count,
+                            (System.nanoTime() - startNanos) / 1_000_000.0 / RUNS);
+                }
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    // Bergantian naik melewati 80% dan turun lagi, jadi setiap putaran memicu alert sekaligus
+    // memasangnya ulang: kasus terberat untuk satu transaksi
+    private static void evaluateOnce(Connection conn, BudgetAlertEngine engine, Budget budget, int i) throws SQLException {
+        budget.setSpentAmount(i % 2 == 0 ? Money.of(850_000) : Money.of(100_000));
+        engine.evaluate(conn, List.of(budget));
+    }
+
+    private static void seed(Connection conn, int count, Integer userId) throws SQLException {
+        String sql = "INSERT INTO budgets (user_id, category, limit_amount, spent_amount, start_date, end_date, period, is_active) " +
+                "SELECT ?, 'Bench ' || g, 1000000, 0, ?, ?, 'monthly', true FROM generate_series(1, ?) g";
+        LocalDate start = LocalDate.now().withDayOfMonth(1);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setObject(2, start);
+            stmt.setObject(3, start.plusMonths(1).minusDays(1));
+            stmt.setInt(4, count);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static Budget lastBudget(Connection conn, Integer userId) throws SQLException {
+        String sql = "SELECT id, category, start_date, end_date FROM budgets WHERE user_id = ? ORDER BY id DESC LIMIT 1";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return new Budget(rs.getInt("id"), userId, rs.getString("category"), Money.of(1_000_000), Money.ZERO,
+                        rs.getObject("start_date", LocalDate.class), rs.getObject("end_date", LocalDate.class),
+                        "monthly", true);
+            }
+        }
+    }
+}
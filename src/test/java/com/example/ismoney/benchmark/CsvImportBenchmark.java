@@ -0,0 +1,106 @@
+package com.example.ismoney.benchmark;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.service.CsvImportMapping;
+import com.example.ismoney.service.TransactionImportService;
+import com.example.ismoney.util.CsvReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+// Benchmark import CSV mutasi bank (rows/detik) pada file 1 juta baris yang dibuat sendiri.
+// Mode default hanya parse + mapping (tanpa database). Mode "import" menjalankan importCsv penuh
+// (COPY ke staging lalu merge) dan BENAR-BENAR menyimpan transaksinya ke user yang diberikan,
+// jadi pakai user khusus benchmark. Jalankan setelah mvn test-compile:
+//   java -cp target/classes:target/test-classes:<classpath driver> com.example.ismoney.benchmark.CsvImportBenchmark [rows] [import <userId>]
+public class CsvImportBenchmark {
+
+    private static final String[] CATEGORIES = {"Makan", "Transportasi", "Belanja", "Tagihan", "Gaji", "Lainnya"};
+
+    public static void main(String[] args) throws IOException, SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        boolean fullImport = args.length > 2 && args[1].equals("import");
+
+        CsvImportMapping mapping = new CsvImportMapping();
+        mapping.setCategoryColumn(2);
+        mapping.setNoteColumn(3);
+
+        Path file = Files.createTempFile("ismoney-bench-", ".csv");
+        try {
+            generate(file, rows);
+            System.out.println("Generated " + rows + " rows, " + Files.size(file) / (1024 * 1024) + " MB: " + file);
+
+            parseOnly(file, mapping);
+
+            if (fullImport) {
+                Integer userId = Integer.parseInt(args[2]);
+                try {
+                    TransactionImportService.ImportResult result =
+                            new TransactionImportService().importCsv(file, userId, mapping);
+                    System.out.printf("importCsv: %s, %.0f rows/sec%n", result, result.getRowsPerSecond());
+                } finally {
+                    DatabaseConfig.shutdown();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Format sama dengan mapping default: tanggal dd/MM/yyyy, nominal bertanda, kategori, catatan
+    private static void generate(Path file, int rows) throws IOException {
+        Random random = new Random(42);
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("tanggal,nominal,kategori,keterangan\n");
+            for (int i = 0; i < rows; i++) {
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                long cents = 1000 + random.nextInt(50_000_000);
+                String amount = (category.equals("Gaji") ? "" : "-") + BigDecimal.valueOf(cents, 2).toPlainString();
+                writer.write(start.plusDays(random.nextInt(1826)).format(format));
+                writer.write(',');
+                writer.write(amount);
+                writer.write(',');
+                writer.write(category);
+                writer.write(",\"bench " + i + ", ref " + random.nextInt(1_000_000) + "\"\n");
+            }
+        }
+    }
+
+    private static void parseOnly(Path file, CsvImportMapping mapping) throws IOException {
+        long startNanos = System.nanoTime();
+        long parsed = 0;
+        BigDecimal checksum = BigDecimal.ZERO;
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             CsvReader csv = new CsvReader(reader, mapping.getDelimiter())) {
+            csv.readRecord();
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                BigDecimal amount = mapping.parseSignedAmount(record);
+                mapping.parseDate(record);
+                mapping.parseType(record, amount);
+                mapping.parseCategory(record);
+                mapping.parseNote(record);
+                checksum = checksum.add(amount);
+                parsed++;
+            }
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        System.out.printf("parse + mapping: %d rows in %.2f s, %.0f rows/sec (checksum %s)%n",
+                parsed, seconds, parsed / seconds, checksum);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ismoney.benchmark;
+
+import com.example.ismoney.database.DatabaseConfig;
+import com.example.ismoney.model.DateRange;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+
+// Benchmark filter bulanan: EXTRACT(YEAR/MONTH) lama vs rentang half-open dari DateRange.
+// Tabel transaksi 1 juta baris dibuat sebagai TEMP table (hilang saat koneksi ditutup), dengan
+// index yang sama seperti idx_transactions_user_date di migrasi V2, jadi data asli tidak tersentuh.
+// Jalankan setelah mvn test-compile:
+//   java -cp target/classes:target/test-classes:<classpath driver> com.example.ismoney.benchmark.PeriodQueryBenchmark [rows]
+public class PeriodQueryBenchmark {
+
+    private static final int USERS = 100;
+    private static final int RUNS = 20;
+
+    private static final String EXTRACT_SQL = "SELECT transaction_id, amount, transaction_date FROM bench_transactions " +
+            "WHERE user_id = ? AND EXTRACT(YEAR FROM transaction_date) = ? AND EXTRACT(MONTH FROM transaction_date) = ? " +
+            "ORDER BY transaction_date DESC, transaction_id DESC";
+    private static final String RANGE_SQL = "SELECT transaction_id, amount, transaction_date FROM bench_transactions " +
+            "WHERE user_id = ? AND transaction_date >= ? AND transaction_date < ? " +
+            "ORDER BY transaction_date DESC, transaction_id DESC";
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        YearMonth month = YearMonth.of(2024, 6);
+        DateRange range = DateRange.ofMonth(month);
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            seed(conn, rows);
+
+            System.out.println("== EXTRACT(YEAR/MONTH) ==");
+            explain(conn, EXTRACT_SQL, stmt -> {
+                stmt.setInt(1, 1);
+                stmt.setInt(2, month.getYear());
+                stmt.setInt(3, month.getMonthValue());
+            });
+            System.out.println("== transaction_date >= ? AND transaction_date < ? ==");
+            explain(conn, RANGE_SQL, stmt -> {
+                stmt.setInt(1, 1);
+                stmt.setDate(2, Date.valueOf(range.getStart()));
+                stmt.setDate(3, Date.valueOf(range.getEndExclusive()));
+            });
+        } finally {
+            DatabaseConfig.shutdown();
+        }
+    }
+
+    // 1 juta transaksi tersebar di USERS user dan lima tahun
+    private static void seed(Connection conn, int rows) throws SQLException {
+        long startNanos = System.nanoTime();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TEMP TABLE bench_transactions (" +
+                    "transaction_id SERIAL PRIMARY KEY, user_id INTEGER NOT NULL, amount NUMERIC(15,2) NOT NULL, " +
+                    "transaction_date DATE NOT NULL)");
+            stmt.execute("INSERT INTO bench_transactions (user_id, amount, transaction_date) " +
+                    "SELECT 1 + (g % " + USERS + "), (random() * 500000)::numeric(15,2), " +
+                    "DATE '2020-01-01' + (random() * 1826)::int FROM generate_series(1, " + rows + ") g");
+            stmt.execute("CREATE INDEX bench_transactions_user_date " +
+                    "ON bench_transactions (user_id, transaction_date DESC, transaction_id DESC)");
+            stmt.execute("ANALYZE bench_transactions");
+        }
+        System.out.println("Seeded " + rows + " rows in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+    }
+
+    private static void explain(Connection conn, String sql, Binder binder) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    System.out.println("  " + rs.getString(1));
+                }
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            binder.bind(stmt);
+            long startNanos = System.nanoTime();
+            int fetched = 0;
+            for (int i = 0; i < RUNS; i++) {
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        fetched++;
+                    }
+                }
+            }
+            System.out.printf("  %d runs, %d rows/run, %.2f ms/run%n", RUNS, fetched / RUNS,
+                    (System.nanoTime() - startNanos) / 1_000_000.0 / RUNS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+}
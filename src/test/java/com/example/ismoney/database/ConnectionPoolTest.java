@@ -0,0 +1,190 @@
+package com.example.ismoney.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:ismoney-stub:pool";
+    // Koneksi fisik yang dibuat driver stub, untuk memeriksa apakah ada yang benar-benar ditutup
+    private static final List<StubConnection> opened = new ArrayList<>();
+
+    private final ConnectionPool pool = new ConnectionPool(URL, "user", "secret", 0, 1, 200, 0, 60_000, 1);
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(new StubDriver());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+        opened.clear();
+    }
+
+    @Test
+    void statementConnectionIsTheLeaseNotThePhysicalConnection() throws SQLException {
+        Connection lease = pool.getConnection();
+        PreparedStatement stmt = lease.prepareStatement("SELECT 1");
+
+        assertSame(lease, stmt.getConnection());
+        // Menutup koneksi dari statement harus mengembalikan slot, bukan menutup koneksi fisik
+        stmt.getConnection().close();
+        assertEquals(0, pool.getMetrics().getActiveConnections());
+        assertFalse(opened.get(0).closed);
+
+        // Pool hanya berisi satu slot; kalau bocor, pinjaman berikutnya timeout
+        try (Connection again = pool.getConnection()) {
+            assertEquals(1, pool.getMetrics().getConnectionsCreated());
+            assertFalse(again.isClosed());
+        }
+    }
+
+    @Test
+    void resultSetAndMetaDataPointBackToProxies() throws SQLException {
+        try (Connection lease = pool.getConnection();
+             Statement stmt = lease.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertSame(stmt, rs.getStatement());
+            assertSame(lease, rs.getStatement().getConnection());
+
+            DatabaseMetaData metaData = lease.getMetaData();
+            assertSame(lease, metaData.getConnection());
+        }
+        assertEquals(0, pool.getMetrics().getActiveConnections());
+        assertFalse(opened.get(0).closed);
+    }
+
+    @Test
+    void connectionErrorFromStatementEvictsConnection() throws SQLException {
+        try (Connection lease = pool.getConnection();
+             Statement stmt = lease.createStatement()) {
+            SQLException error = assertThrows(SQLException.class, () -> stmt.execute("BROKEN"));
+            assertEquals("08006", error.getSQLState());
+        }
+
+        assertEquals(1, pool.getMetrics().getConnectionsEvicted());
+        assertTrue(opened.get(0).closed);
+        assertEquals(0, pool.getMetrics().getTotalConnections());
+    }
+
+    // ===== Driver JDBC stub tanpa database =====
+
+    private static final class StubDriver implements Driver {
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            StubConnection connection = new StubConnection();
+            opened.add(connection);
+            return connection.proxy;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:ismoney-stub:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() { return 1; }
+
+        @Override
+        public int getMinorVersion() { return 0; }
+
+        @Override
+        public boolean jdbcCompliant() { return false; }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getLogger(StubDriver.class.getName());
+        }
+    }
+
+    private static final class StubConnection {
+        private Connection proxy;
+        private boolean closed;
+
+        private StubConnection() {
+            this.proxy = stub(Connection.class, (name, args) -> {
+                switch (name) {
+                    case "close": closed = true; return null;
+                    case "isClosed": return closed;
+                    case "isValid": return !closed;
+                    case "getAutoCommit": return true;
+                    case "createStatement":
+                    case "prepareStatement": return statement();
+                    case "getMetaData": return stub(DatabaseMetaData.class, (n, a) -> n.equals("getConnection") ? this.proxy : null);
+                    default: return null;
+                }
+            });
+        }
+
+        private PreparedStatement statement() {
+            PreparedStatement[] self = new PreparedStatement[1];
+            self[0] = stub(PreparedStatement.class, (name, args) -> {
+                switch (name) {
+                    case "getConnection": return proxy;
+                    case "execute":
+                        if ("BROKEN".equals(args[0])) {
+                            throw new SQLException("I/O error", "08006");
+                        }
+                        return false;
+                    case "executeQuery": return stub(ResultSet.class, (n, a) -> n.equals("getStatement") ? self[0] : null);
+                    default: return null;
+                }
+            });
+            return self[0];
+        }
+    }
+
+    @FunctionalInterface
+    private interface StubMethod {
+        Object invoke(String name, Object[] args) throws SQLException;
+    }
+
+    // Proxy dengan nilai default untuk method yang tidak ditangani (false/0 untuk primitif)
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, StubMethod handler) {
+        return (T) Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return "Stub" + type.getSimpleName();
+                        default: break;
+                    }
+                    Object result = handler.invoke(method.getName(), args);
+                    if (result == null && method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (result == null && method.getReturnType() == int.class) {
+                        return 0;
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ismoney.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateRangeTest {
+
+    @Test
+    void monthIsHalfOpenUpToFirstOfNextMonth() {
+        DateRange range = DateRange.ofMonth(YearMonth.of(2024, 2));
+
+        assertEquals(LocalDate.of(2024, 2, 1), range.getStart());
+        assertEquals(LocalDate.of(2024, 3, 1), range.getEndExclusive());
+        assertEquals(LocalDate.of(2024, 2, 29), range.getEndInclusive());
+        assertTrue(range.contains(LocalDate.of(2024, 2, 29)));
+        assertFalse(range.contains(LocalDate.of(2024, 3, 1)));
+        assertFalse(range.contains(LocalDate.of(2024, 1, 31)));
+    }
+
+    @Test
+    void decemberRollsOverIntoNextYear() {
+        DateRange range = DateRange.ofMonth(YearMonth.of(2025, 12));
+
+        assertEquals(LocalDate.of(2026, 1, 1), range.getEndExclusive());
+    }
+
+    @Test
+    void weekRunsMondayToSunday() {
+        // Kamis
+        DateRange range = DateRange.ofWeek(LocalDate.of(2026, 10, 15));
+
+        assertEquals(LocalDate.of(2026, 10, 12), range.getStart());
+        assertEquals(LocalDate.of(2026, 10, 19), range.getEndExclusive());
+        assertEquals(DateRange.ofWeek(LocalDate.of(2026, 10, 12)), range);
+        assertEquals(DateRange.ofWeek(LocalDate.of(2026, 10, 18)), range);
+    }
+
+    @Test
+    void betweenIncludesBothEnds() {
+        DateRange range = DateRange.between(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 20));
+
+        assertTrue(range.contains(LocalDate.of(2026, 1, 10)));
+        assertTrue(range.contains(LocalDate.of(2026, 1, 20)));
+        assertFalse(range.contains(LocalDate.of(2026, 1, 21)));
+        assertEquals(DateRange.halfOpen(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 21)), range);
+    }
+
+    @Test
+    void dayContainsOnlyThatDay() {
+        DateRange range = DateRange.ofDay(LocalDate.of(2026, 5, 5));
+
+        assertTrue(range.contains(LocalDate.of(2026, 5, 5)));
+        assertFalse(range.contains(LocalDate.of(2026, 5, 6)));
+        assertFalse(range.isEmpty());
+    }
+
+    @Test
+    void sameStartAndEndIsEmpty() {
+        LocalDate day = LocalDate.of(2026, 5, 5);
+        DateRange range = DateRange.halfOpen(day, day);
+
+        assertTrue(range.isEmpty());
+        assertFalse(range.contains(day));
+    }
+
+    @Test
+    void endBeforeStartIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DateRange.halfOpen(LocalDate.of(2026, 5, 5), LocalDate.of(2026, 5, 4)));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.ismoney.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void storesMinorUnits() {
+        assertEquals(1_500_000, Money.of(15_000).getMinorUnits());
+        assertEquals(1_500_050, Money.parse(" 15000.50 ").getMinorUnits());
+        assertEquals(Money.of(15_000), Money.of(new BigDecimal("15000.000")));
+        assertSame(Money.ZERO, Money.ofMinor(0));
+    }
+
+    @Test
+    void roundsHalfUpToCents() {
+        assertEquals(1, Money.of(new BigDecimal("0.005")).getMinorUnits());
+        assertEquals(0, Money.of(new BigDecimal("0.004")).getMinorUnits());
+        assertEquals(-1, Money.of(new BigDecimal("-0.005")).getMinorUnits());
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        // 0.1 + 0.2 dengan double tidak tepat 0.3
+        assertEquals(Money.parse("0.30"), Money.parse("0.10").plus(Money.parse("0.20")));
+        assertEquals(Money.parse("-5.25"), Money.of(10).minus(Money.parse("15.25")));
+        assertEquals(Money.parse("5.25"), Money.parse("-5.25").abs());
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.of(Long.MAX_VALUE / 10));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void percentOfZeroWholeIsZero() {
+        assertEquals(25.0, Money.of(250).percentOf(Money.of(1_000)), 1e-9);
+        assertEquals(0.0, Money.of(250).percentOf(Money.ZERO));
+    }
+
+    @Test
+    void toStringAlwaysHasTwoDecimals() {
+        assertEquals("15000.00", Money.of(15_000).toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals(new BigDecimal("15000.50"), Money.parse("15000.5").toBigDecimal());
+    }
+
+    @Test
+    void comparesByValue() {
+        assertTrue(Money.of(2).isGreaterThan(Money.of(1)));
+        assertTrue(Money.of(1).isLessThan(Money.of(2)));
+        assertEquals(0, Money.parse("1.0").compareTo(Money.parse("1.00")));
+        assertEquals(Money.parse("1.0").hashCode(), Money.parse("1.00").hashCode());
+        assertNull(Money.of((BigDecimal) null));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ismoney.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionPageTest {
+
+    @Test
+    void cursorRoundTrips() {
+        String token = TransactionPage.encodeCursor(LocalDate.of(2026, 3, 31), 123456);
+
+        TransactionPage.Cursor cursor = TransactionPage.decodeCursor(token);
+
+        assertEquals(LocalDate.of(2026, 3, 31), cursor.getTransactionDate());
+        assertEquals(123456, cursor.getTransactionId());
+    }
+
+    @Test
+    void cursorIsUrlSafeWithoutPadding() {
+        String token = TransactionPage.encodeCursor(LocalDate.of(2026, 1, 1), Integer.MAX_VALUE);
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionPage.decodeCursor("bukan cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionPage.decodeCursor(
+                Base64.getUrlEncoder().encodeToString("2026-01-01".getBytes())));
+        assertThrows(IllegalArgumentException.class, () -> TransactionPage.decodeCursor(
+                Base64.getUrlEncoder().encodeToString("2026-13-01:5".getBytes())));
+    }
+
+    @Test
+    void pageWithoutNextCursorHasNoMore() {
+        assertFalse(new TransactionPage(List.of(), null).hasMore());
+        assertTrue(new TransactionPage(List.of(), TransactionPage.encodeCursor(LocalDate.of(2026, 1, 1), 1)).hasMore());
+    }
+}
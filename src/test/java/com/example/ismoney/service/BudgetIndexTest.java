@@ -0,0 +1,81 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetIndexTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+
+    private final BudgetIndex index = BudgetIndex.forUser(1);
+
+    @AfterEach
+    void tearDown() {
+        BudgetIndex.clearAll();
+    }
+
+    private static Budget budget(int id, String category, LocalDate start, LocalDate end, boolean active) {
+        return new Budget(id, 1, category, Money.of(1_000_000), Money.ZERO, start, end, "MONTHLY", active);
+    }
+
+    private static List<Integer> ids(List<Budget> budgets) {
+        return budgets.stream().map(Budget::getId).toList();
+    }
+
+    @Test
+    void findsBudgetByCategoryAndDate() throws SQLException {
+        index.load(List.of(
+                budget(1, "Makan", MARCH, MARCH.plusMonths(1).minusDays(1), true),
+                budget(2, "Transportasi", MARCH, MARCH.plusMonths(1).minusDays(1), true),
+                budget(3, "Makan", MARCH.plusMonths(1), MARCH.plusMonths(2).minusDays(1), true)));
+
+        assertEquals(1, index.getBudgetByCategory("Makan", LocalDate.of(2024, 3, 31)).getId());
+        assertEquals(3, index.getBudgetByCategory("Makan", LocalDate.of(2024, 4, 1)).getId());
+        assertNull(index.getBudgetByCategory("Belanja", LocalDate.of(2024, 3, 15)));
+        assertEquals(List.of(1, 2), ids(index.getActiveOn(LocalDate.of(2024, 3, 15))));
+    }
+
+    @Test
+    void putMovesBudgetBetweenCategoriesAndDropsInactive() throws SQLException {
+        index.load(List.of(budget(1, "Makan", MARCH, MARCH.plusDays(30), true)));
+        long version = index.getVersion();
+
+        index.put(budget(1, "Belanja", MARCH, MARCH.plusDays(30), true));
+        assertTrue(index.getVersion() > version);
+        assertNull(index.getBudgetByCategory("Makan", MARCH));
+        assertEquals(1, index.getBudgetByCategory("Belanja", MARCH).getId());
+
+        index.put(budget(1, "Belanja", MARCH, MARCH.plusDays(30), false));
+        assertNull(index.getBudgetByCategory("Belanja", MARCH));
+        assertTrue(index.getActiveBudgets().isEmpty());
+    }
+
+    @Test
+    void findOverlappingAndRemove() throws SQLException {
+        index.load(List.of(
+                budget(1, "Makan", MARCH, MARCH.plusDays(30), true),
+                budget(2, "Makan", MARCH.plusDays(31), MARCH.plusDays(60), true)));
+
+        assertEquals(List.of(1, 2), ids(index.findOverlapping("Makan", MARCH.plusDays(20), MARCH.plusDays(40))));
+        assertEquals(List.of(2), ids(index.findOverlapping("Makan", MARCH.plusDays(31), MARCH.plusDays(31))));
+
+        index.remove(2);
+        assertTrue(index.findOverlapping("Makan", MARCH.plusDays(31), MARCH.plusDays(40)).isEmpty());
+    }
+
+    @Test
+    void returnedBudgetsAreCopies() throws SQLException {
+        index.load(List.of(budget(1, "Makan", MARCH, MARCH.plusDays(30), true)));
+
+        index.getBudgetByCategory("Makan", MARCH).setCategory("Diubah");
+        assertEquals("Makan", index.getBudgetByCategory("Makan", MARCH).getCategory());
+    }
+}
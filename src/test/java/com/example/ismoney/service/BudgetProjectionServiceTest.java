@@ -0,0 +1,141 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.Budget;
+import com.example.ismoney.model.BudgetProjection;
+import com.example.ismoney.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetProjectionServiceTest {
+
+    // Senin, periode 30 hari
+    private static final LocalDate START = LocalDate.of(2026, 6, 1);
+    private static final LocalDate END = LocalDate.of(2026, 6, 30);
+
+    @Test
+    void steadySpendProjectsLinearlyToEndOfPeriod() {
+        Map<LocalDate, Money> daily = spendEveryDay(START.minusDays(BudgetProjectionService.HISTORY_DAYS), START.plusDays(9), 10_000);
+
+        BudgetProjection projection = BudgetProjectionService.project(budget(400_000), daily, START.plusDays(9));
+
+        assertEquals(Money.of(100_000), projection.getSpentToDate());
+        assertEquals(Money.of(300_000), projection.getProjectedSpend());
+        assertEquals(Money.of(10_000), projection.getProjectedDailyRate());
+        assertFalse(projection.willOverrun());
+    }
+
+    @Test
+    void steadySpendOverrunsOnFirstDayAboveLimit() {
+        Map<LocalDate, Money> daily = spendEveryDay(START.minusDays(BudgetProjectionService.HISTORY_DAYS), START.plusDays(9), 10_000);
+
+        BudgetProjection projection = BudgetProjectionService.project(budget(250_000), daily, START.plusDays(9));
+
+        // 25 hari x 10.000 = tepat limit, hari ke-26 lewat
+        assertEquals(START.plusDays(25), projection.getOverrunDate());
+    }
+
+    @Test
+    void weekdayHeavySpendLandsOnTheHeavyDays() {
+        Map<LocalDate, Money> daily = new HashMap<>();
+        LocalDate today = START.plusDays(13);
+        for (LocalDate day = START.minusDays(BudgetProjectionService.HISTORY_DAYS); !day.isAfter(today); day = day.plusDays(1)) {
+            daily.put(day, Money.of(day.getDayOfWeek() == DayOfWeek.SATURDAY ? 70_000 : 1_000));
+        }
+
+        // Sudah terpakai 2 x 70.000 + 12 x 1.000 = 152.000; limit hanya terlewati kalau Sabtu berikutnya
+        // diproyeksikan jauh lebih besar dari hari biasa
+        BudgetProjection projection = BudgetProjectionService.project(budget(200_000), daily, today);
+
+        assertEquals(Money.of(152_000), projection.getSpentToDate());
+        assertTrue(projection.willOverrun());
+        assertEquals(DayOfWeek.SATURDAY, projection.getOverrunDate().getDayOfWeek());
+    }
+
+    @Test
+    void alreadyOverLimitReportsTheActualCrossingDay() {
+        Map<LocalDate, Money> daily = new HashMap<>();
+        daily.put(START, Money.of(30_000));
+        daily.put(START.plusDays(2), Money.of(50_000));
+        daily.put(START.plusDays(4), Money.of(40_000));
+
+        BudgetProjection projection = BudgetProjectionService.project(budget(100_000), daily, START.plusDays(9));
+
+        assertEquals(Money.of(120_000), projection.getSpentToDate());
+        assertEquals(START.plusDays(4), projection.getOverrunDate());
+        assertTrue(projection.getProjectedSpend().compareTo(projection.getSpentToDate()) >= 0);
+    }
+
+    @Test
+    void fewerThanSevenDaysFallsBackToHistoricalDailyMean() {
+        LocalDate today = START.plusDays(2);
+        Map<LocalDate, Money> daily = spendEveryDay(START.minusDays(BudgetProjectionService.HISTORY_DAYS), today, 10_000);
+        // Lonjakan di hari pertama periode tidak boleh dijadikan tren
+        daily.put(START, Money.of(60_000));
+
+        BudgetProjection projection = BudgetProjectionService.project(budget(1_000_000), daily, today);
+
+        assertEquals(Money.of(80_000), projection.getSpentToDate());
+        // Rata-rata riwayat (59 hari, satu hari 60.000) sedikit di atas 10.000 per hari, tanpa tren naik
+        long rate = projection.getProjectedDailyRate().getMinorUnits();
+        assertTrue(rate > Money.of(10_000).getMinorUnits() && rate < Money.of(12_000).getMinorUnits(), "rate " + rate);
+        long projected = projection.getProjectedSpend().getMinorUnits();
+        assertTrue(projected > Money.of(350_000).getMinorUnits() && projected < Money.of(400_000).getMinorUnits(),
+                "projected " + projected);
+    }
+
+    // Benchmark: satu pass proyeksi untuk 10.000 budget, seperti projectCurrentBudgets setelah
+    // getDailySpend. Batasnya longgar supaya tidak flaky di mesin CI yang lambat
+    @Test
+    void projectsTenThousandBudgetsInOnePass() {
+        int budgetCount = 10_000;
+        LocalDate today = START.plusDays(9);
+        Random random = new Random(24);
+        List<Map<LocalDate, Money>> series = new ArrayList<>(budgetCount);
+        for (int i = 0; i < budgetCount; i++) {
+            Map<LocalDate, Money> daily = new HashMap<>();
+            for (LocalDate day = START.minusDays(BudgetProjectionService.HISTORY_DAYS); !day.isAfter(today); day = day.plusDays(1)) {
+                if (random.nextInt(3) > 0) {
+                    daily.put(day, Money.ofMinor(random.nextInt(5_000_000)));
+                }
+            }
+            series.add(daily);
+        }
+
+        long startNanos = System.nanoTime();
+        int overruns = 0;
+        for (int i = 0; i < budgetCount; i++) {
+            Budget budget = budget(500_000 + i * 10L);
+            budget.setId(i + 1);
+            if (BudgetProjectionService.project(budget, series.get(i), today).willOverrun()) {
+                overruns++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.println("Projected " + budgetCount + " budgets in " + elapsedMillis + " ms (" + overruns + " overruns)");
+
+        assertTrue(elapsedMillis < 5_000, "projection pass took " + elapsedMillis + " ms");
+    }
+
+    private static Budget budget(long limit) {
+        Budget budget = new Budget("Makan", Money.of(limit), START, END, "monthly");
+        budget.setId(1);
+        return budget;
+    }
+
+    private static Map<LocalDate, Money> spendEveryDay(LocalDate from, LocalDate to, long amount) {
+        Map<LocalDate, Money> daily = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            daily.put(day, Money.of(amount));
+        }
+        return daily;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImportMappingTest {
+
+    @Test
+    void parsesIndonesianFormattedAmount() {
+        CsvImportMapping mapping = new CsvImportMapping();
+        mapping.setDecimalSeparator(',');
+
+        assertEquals(new BigDecimal("1234567.89"), mapping.parseSignedAmount(List.of("01/02/2024", "Rp 1.234.567,89")));
+        assertEquals(new BigDecimal("-50000"), mapping.parseSignedAmount(List.of("01/02/2024", "-50.000")));
+    }
+
+    @Test
+    void parenthesesMeanNegative() {
+        CsvImportMapping mapping = new CsvImportMapping();
+
+        assertEquals(new BigDecimal("-50000.00"), mapping.parseSignedAmount(List.of("01/02/2024", "(50,000.00)")));
+    }
+
+    @Test
+    void emptyAmountIsRejected() {
+        CsvImportMapping mapping = new CsvImportMapping();
+
+        assertThrows(NumberFormatException.class, () -> mapping.parseSignedAmount(List.of("01/02/2024", "Rp ")));
+    }
+
+    @Test
+    void typeFollowsSignWithoutTypeColumn() {
+        CsvImportMapping mapping = new CsvImportMapping();
+
+        assertEquals(TransactionType.OUTCOME, mapping.parseType(List.of(), new BigDecimal("-1")));
+        assertEquals(TransactionType.INCOME, mapping.parseType(List.of(), new BigDecimal("1")));
+    }
+
+    @Test
+    void typeColumnUsesIncomeMarkers() {
+        CsvImportMapping mapping = new CsvImportMapping();
+        mapping.setTypeColumn(2);
+
+        assertEquals(TransactionType.INCOME, mapping.parseType(List.of("", "", " cr "), BigDecimal.ONE));
+        assertEquals(TransactionType.OUTCOME, mapping.parseType(List.of("", "", "DB"), BigDecimal.ONE));
+    }
+
+    @Test
+    void parsesDateWithConfiguredPattern() {
+        CsvImportMapping mapping = new CsvImportMapping();
+        assertEquals(LocalDate.of(2024, 2, 29), mapping.parseDate(List.of(" 29/02/2024 ", "1")));
+
+        mapping.setDatePattern("yyyy-MM-dd");
+        assertEquals(LocalDate.of(2024, 2, 29), mapping.parseDate(List.of("2024-02-29", "1")));
+        assertThrows(DateTimeParseException.class, () -> mapping.parseDate(List.of("29/02/2024", "1")));
+    }
+
+    @Test
+    void blankOrMissingCategoryFallsBackToDefault() {
+        CsvImportMapping mapping = new CsvImportMapping();
+        assertEquals("Lainnya", mapping.parseCategory(List.of("01/02/2024", "1")));
+
+        mapping.setCategoryColumn(2);
+        assertEquals("Makan", mapping.parseCategory(List.of("01/02/2024", "1", " Makan ")));
+        assertEquals("Lainnya", mapping.parseCategory(List.of("01/02/2024", "1", "  ")));
+    }
+
+    @Test
+    void blankNoteBecomesNull() {
+        CsvImportMapping mapping = new CsvImportMapping();
+        assertNull(mapping.parseNote(List.of("01/02/2024", "1", "catatan")));
+
+        mapping.setNoteColumn(2);
+        assertEquals("catatan", mapping.parseNote(List.of("01/02/2024", "1", " catatan ")));
+        assertNull(mapping.parseNote(List.of("01/02/2024", "1", "")));
+    }
+
+    @Test
+    void missingColumnIsRejected() {
+        CsvImportMapping mapping = new CsvImportMapping();
+
+        assertThrows(IllegalArgumentException.class, () -> mapping.parseSignedAmount(List.of("01/02/2024")));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionFingerprintTest {
+
+    private static Transaction transaction(String amount, String note) {
+        Transaction transaction = new Transaction();
+        transaction.setUserId(7);
+        transaction.setTransactionDate(LocalDate.of(2024, 3, 5));
+        transaction.setAmount(Money.of(new BigDecimal(amount)));
+        transaction.setType(TransactionType.OUTCOME);
+        transaction.setNote(note);
+        return transaction;
+    }
+
+    @Test
+    void reimportingSameFileGivesSameFingerprints() {
+        TransactionFingerprint first = new TransactionFingerprint();
+        TransactionFingerprint second = new TransactionFingerprint();
+
+        assertEquals(first.next(transaction("15000", "Kopi")), second.next(transaction("15000", "Kopi")));
+        assertEquals(first.next(transaction("15000", "Kopi")), second.next(transaction("15000", "Kopi")));
+    }
+
+    @Test
+    void identicalRowsInOneFileGetDistinctFingerprints() {
+        TransactionFingerprint fingerprints = new TransactionFingerprint();
+
+        String firstCoffee = fingerprints.next(transaction("15000", "Kopi"));
+        String secondCoffee = fingerprints.next(transaction("15000", "Kopi"));
+
+        assertNotEquals(firstCoffee, secondCoffee);
+        assertEquals(64, firstCoffee.length());
+    }
+
+    @Test
+    void amountScaleAndNoteWhitespaceAreNormalized() {
+        String plain = new TransactionFingerprint().next(transaction("15000", "Kopi Susu"));
+
+        assertEquals(plain, new TransactionFingerprint().next(transaction("15000.00", "  kopi   SUSU ")));
+    }
+
+    @Test
+    void missingNoteEqualsEmptyNote() {
+        assertEquals(new TransactionFingerprint().next(transaction("15000", null)),
+                new TransactionFingerprint().next(transaction("15000", " ")));
+    }
+
+    @Test
+    void differentContentGivesDifferentFingerprint() {
+        Transaction income = transaction("15000", "Kopi");
+        income.setType(TransactionType.INCOME);
+
+        String outcome = new TransactionFingerprint().next(transaction("15000", "Kopi"));
+        assertNotEquals(outcome, new TransactionFingerprint().next(income));
+        assertNotEquals(outcome, new TransactionFingerprint().next(transaction("15001", "Kopi")));
+    }
+}
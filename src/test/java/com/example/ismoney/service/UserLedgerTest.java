@@ -0,0 +1,121 @@
+package com.example.ismoney.service;
+
+import com.example.ismoney.model.ChangeSet;
+import com.example.ismoney.model.DateRange;
+import com.example.ismoney.model.Money;
+import com.example.ismoney.model.Transaction;
+import com.example.ismoney.model.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserLedgerTest {
+
+    private static final int FOOD = 1;
+    private static final int SALARY = 2;
+
+    private final UserLedger ledger = UserLedger.forUser(1);
+
+    @AfterEach
+    void tearDown() {
+        UserLedger.clearAll();
+    }
+
+    private static Transaction transaction(int id, LocalDate date, TransactionType type, int categoryId, long minor) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(id);
+        transaction.setUserId(1);
+        transaction.setTransactionDate(date);
+        transaction.setType(type);
+        transaction.setCategoryId(categoryId);
+        transaction.setAmount(Money.ofMinor(minor));
+        return transaction;
+    }
+
+    private void upsert(Transaction... transactions) {
+        ledger.apply(new ChangeSet<>(List.of(transactions), Set.of(), Instant.EPOCH));
+    }
+
+    private void delete(Integer... ids) {
+        ledger.apply(new ChangeSet<>(List.of(), Set.of(ids), Instant.EPOCH));
+    }
+
+    @Test
+    void rangeTotalsAreHalfOpen() {
+        upsert(transaction(1, LocalDate.of(2024, 3, 10), TransactionType.OUTCOME, FOOD, 1_500),
+                transaction(2, LocalDate.of(2024, 3, 11), TransactionType.OUTCOME, FOOD, 2_000));
+
+        assertEquals(3_500, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2024, 3))));
+        assertEquals(1_500, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofDay(LocalDate.of(2024, 3, 10))));
+        assertEquals(2_000, ledger.getCategoryTotal(FOOD,
+                DateRange.halfOpen(LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 12))));
+        assertEquals(0, ledger.getTotal(TransactionType.INCOME, DateRange.ofMonth(YearMonth.of(2024, 3))));
+    }
+
+    @Test
+    void growingBackwardAndForwardKeepsExistingTotals() {
+        upsert(transaction(1, LocalDate.of(2024, 3, 10), TransactionType.OUTCOME, FOOD, 1_000));
+        // Jauh sebelum hari pertama: array diperbesar ke belakang
+        upsert(transaction(2, LocalDate.of(2023, 1, 1), TransactionType.OUTCOME, FOOD, 200));
+        // Jauh sesudah ruang cadangan: array diperbesar ke depan
+        upsert(transaction(3, LocalDate.of(2025, 12, 31), TransactionType.OUTCOME, FOOD, 30));
+
+        assertEquals(200, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2023, 1))));
+        assertEquals(1_000, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2024, 3))));
+        assertEquals(30, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2025, 12))));
+        assertEquals(1_230, ledger.getCategoryTotal(FOOD,
+                DateRange.halfOpen(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1))));
+    }
+
+    @Test
+    void rangesOutsideLoadedDaysAreClamped() {
+        upsert(transaction(1, LocalDate.of(2024, 3, 10), TransactionType.OUTCOME, FOOD, 1_000));
+
+        assertEquals(0, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2020, 1))));
+        assertEquals(0, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2030, 1))));
+        assertEquals(1_000, ledger.getTotal(TransactionType.OUTCOME,
+                DateRange.halfOpen(LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1))));
+    }
+
+    @Test
+    void editMovesAmountAndDeleteRemovesIt() {
+        upsert(transaction(1, LocalDate.of(2024, 3, 10), TransactionType.OUTCOME, FOOD, 1_000));
+        upsert(transaction(1, LocalDate.of(2024, 4, 2), TransactionType.OUTCOME, FOOD, 4_000));
+
+        assertEquals(0, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2024, 3))));
+        assertEquals(4_000, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2024, 4))));
+        assertEquals(1, ledger.getTransactionCount());
+
+        delete(1);
+        assertEquals(0, ledger.getTotal(TransactionType.OUTCOME, DateRange.ofMonth(YearMonth.of(2024, 4))));
+        assertEquals(0, ledger.getTransactionCount());
+    }
+
+    @Test
+    void balanceAndMonthlyBuckets() {
+        upsert(transaction(1, LocalDate.of(2024, 1, 25), TransactionType.INCOME, SALARY, 10_000_00),
+                transaction(2, LocalDate.of(2024, 2, 3), TransactionType.OUTCOME, FOOD, 250_00),
+                transaction(3, LocalDate.of(2024, 3, 1), TransactionType.OUTCOME, FOOD, 100_00));
+
+        assertEquals(10_000_00, ledger.getBalanceAt(LocalDate.of(2024, 1, 25)));
+        assertEquals(9_750_00, ledger.getBalanceAt(LocalDate.of(2024, 2, 29)));
+        assertEquals(9_650_00, ledger.getBalanceAt(LocalDate.of(2024, 3, 1)));
+
+        Map<YearMonth, Map<TransactionType, Money>> monthly = ledger.getMonthlyTotals(
+                DateRange.halfOpen(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 2)));
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2), YearMonth.of(2024, 3)),
+                List.copyOf(monthly.keySet()));
+        assertEquals(Money.ofMinor(10_000_00), monthly.get(YearMonth.of(2024, 1)).get(TransactionType.INCOME));
+        assertEquals(Money.ofMinor(0), monthly.get(YearMonth.of(2024, 1)).get(TransactionType.OUTCOME));
+        assertEquals(Money.ofMinor(250_00), monthly.get(YearMonth.of(2024, 2)).get(TransactionType.OUTCOME));
+        assertEquals(Money.ofMinor(100_00), monthly.get(YearMonth.of(2024, 3)).get(TransactionType.OUTCOME));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ismoney.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecordsUntilEndOfFile() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("a,b,c\n1,2,3\n"), ',')) {
+            assertEquals(List.of("a", "b", "c"), csv.readRecord());
+            assertEquals(List.of("1", "2", "3"), csv.readRecord());
+            assertNull(csv.readRecord());
+        }
+    }
+
+    @Test
+    void keepsEmptyFieldsIncludingTrailingOne() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader(",x,\n"), ',')) {
+            assertEquals(List.of("", "x", ""), csv.readRecord());
+        }
+    }
+
+    @Test
+    void quotedFieldMayContainDelimiterAndEscapedQuote() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("\"Rp 1,500\",\"kata \"\"kutip\"\"\"\n"), ',')) {
+            assertEquals(List.of("Rp 1,500", "kata \"kutip\""), csv.readRecord());
+        }
+    }
+
+    @Test
+    void quotedFieldMaySpanLinesAndReportsStartingLine() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("h1,h2\n1,\"baris\nkedua\"\n2,x\n"), ',')) {
+            csv.readRecord();
+            assertEquals(List.of("1", "baris\nkedua"), csv.readRecord());
+            assertEquals(2, csv.getRecordLineNumber());
+            assertEquals(List.of("2", "x"), csv.readRecord());
+            assertEquals(4, csv.getRecordLineNumber());
+        }
+    }
+
+    @Test
+    void stripsExcelByteOrderMark() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("\uFEFFtanggal;nominal\n"), ';')) {
+            assertEquals(List.of("tanggal", "nominal"), csv.readRecord());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        try (CsvReader csv = new CsvReader(new StringReader("1,\"tidak ditutup\n"), ',')) {
+            assertThrows(IOException.class, csv::readRecord);
+        }
+    }
+}
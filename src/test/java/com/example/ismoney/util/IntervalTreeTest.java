@@ -0,0 +1,99 @@
+package com.example.ismoney.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    private static final class Span {
+        private final String name;
+        private final LocalDate start;
+        private final LocalDate end;
+
+        private Span(String name, int startOffset, int endOffset) {
+            this.name = name;
+            this.start = BASE.plusDays(startOffset);
+            this.end = BASE.plusDays(endOffset);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static IntervalTree<Span> tree(List<Span> spans) {
+        return IntervalTree.of(spans, s -> s.start, s -> s.end);
+    }
+
+    @Test
+    void emptyTreeFindsNothing() {
+        IntervalTree<Span> tree = tree(List.of());
+
+        assertTrue(tree.isEmpty());
+        assertSame(IntervalTree.empty(), tree);
+        assertTrue(tree.containing(BASE).isEmpty());
+        assertFalse(tree.anyOverlapping(BASE, BASE.plusDays(365)));
+    }
+
+    @Test
+    void boundariesAreInclusive() {
+        Span january = new Span("jan", 0, 30);
+        IntervalTree<Span> tree = tree(List.of(january));
+
+        assertEquals(List.of(january), tree.containing(BASE));
+        assertEquals(List.of(january), tree.containing(BASE.plusDays(30)));
+        assertTrue(tree.containing(BASE.plusDays(31)).isEmpty());
+        assertTrue(tree.containing(BASE.minusDays(1)).isEmpty());
+        assertTrue(tree.anyOverlapping(BASE.plusDays(30), BASE.plusDays(40)));
+        assertFalse(tree.anyOverlapping(BASE.plusDays(31), BASE.plusDays(40)));
+    }
+
+    @Test
+    void resultsAreSortedByStart() {
+        Span late = new Span("late", 10, 20);
+        Span early = new Span("early", 0, 15);
+        Span wide = new Span("wide", 5, 100);
+        IntervalTree<Span> tree = tree(List.of(late, early, wide));
+
+        assertEquals(List.of(early, wide, late), tree.containing(BASE.plusDays(12)));
+        assertEquals(List.of(wide), tree.containing(BASE.plusDays(50)));
+    }
+
+    @Test
+    void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(7);
+        List<Span> spans = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(1000);
+            spans.add(new Span("s" + i, start, start + random.nextInt(60)));
+        }
+        IntervalTree<Span> tree = tree(spans);
+        assertEquals(500, tree.size());
+
+        for (int q = 0; q < 200; q++) {
+            int from = random.nextInt(1100) - 50;
+            int to = from + random.nextInt(30);
+            LocalDate fromDate = BASE.plusDays(from);
+            LocalDate toDate = BASE.plusDays(to);
+
+            List<Span> expected = new ArrayList<>();
+            for (Span span : spans) {
+                if (!span.start.isAfter(toDate) && !span.end.isBefore(fromDate)) {
+                    expected.add(span);
+                }
+            }
+            List<Span> actual = tree.overlapping(fromDate, toDate);
+            assertEquals(expected.size(), actual.size(), "query " + from + ".." + to);
+            assertTrue(actual.containsAll(expected), "query " + from + ".." + to);
+        }
+    }
+}